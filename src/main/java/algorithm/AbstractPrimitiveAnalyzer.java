@@ -0,0 +1,37 @@
+package main.java.algorithm;
+
+import AlgorithmModule.AbstractSubarrayAnalyzer;
+import AlgorithmModule.SubarrayResult;
+import main.java.model.DoubleSeries;
+
+import java.util.List;
+
+/**
+ * Template for primitive analyzers: the List-based API is kept as a compatibility wrapper
+ * that converts once and delegates to the primitive implementation.
+ */
+public abstract class AbstractPrimitiveAnalyzer extends AbstractSubarrayAnalyzer implements IPrimitiveSubarrayAnalyzer {
+
+    protected AbstractPrimitiveAnalyzer(String name) {
+        super(name);
+    }
+
+    /**
+     * Lists created by DoubleSeries.asList() are unwrapped without copying.
+     */
+    @Override
+    public SubarrayResult analyze(List<Double> values) {
+        return analyze(DoubleSeries.from(values));
+    }
+
+    @Override
+    public SubarrayResult analyze(DoubleSeries series) {
+        if (series == null || series.isEmpty()) {
+            return new SubarrayResult(-1, -1, 0);
+        }
+        return analyze(series.array(), series.size());
+    }
+
+    // Analyze the first size entries of a non-empty array.
+    protected abstract SubarrayResult analyze(double[] values, int size);
+}
@@ -0,0 +1,16 @@
+package main.java.algorithm;
+
+import AlgorithmModule.ISubarrayAnalyzer;
+import AlgorithmModule.SubarrayResult;
+import main.java.model.DoubleSeries;
+
+/**
+ * Subarray analyzer that works directly on primitive series.
+ * Extends the AlgorithmModule strategy interface, so it can be injected anywhere an
+ * ISubarrayAnalyzer is expected while callers holding a DoubleSeries skip boxing entirely.
+ */
+public interface IPrimitiveSubarrayAnalyzer extends ISubarrayAnalyzer {
+
+    // Analyze a primitive series; null or empty input yields (-1, -1, 0).
+    SubarrayResult analyze(DoubleSeries series);
+}
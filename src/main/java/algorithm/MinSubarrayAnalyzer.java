@@ -0,0 +1,37 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Kadane's scan mirrored for the minimum-sum subarray (maximum loss period).
+ * Works on the original data, so no negated copy of the series is needed; results equal
+ * running KadaneAnalyzer on the flipped values and flipping the total back.
+ */
+public class MinSubarrayAnalyzer extends AbstractPrimitiveAnalyzer {
+
+    public MinSubarrayAnalyzer() {
+        super("MinKadane");
+    }
+
+    @Override
+    protected SubarrayResult analyze(double[] values, int size) {
+        double worst = Double.POSITIVE_INFINITY;
+        double current = 0;
+        int start = 0, end = 0, runStart = 0;
+
+        for (int i = 0; i < size; i++) {
+            current += values[i];
+            if (current < worst) {
+                worst = current;
+                start = runStart;
+                end = i;
+            }
+            // A positive running sum can only soften what follows - restart after it
+            if (current > 0) {
+                current = 0;
+                runStart = i + 1;
+            }
+        }
+        return new SubarrayResult(start, end, worst);
+    }
+}
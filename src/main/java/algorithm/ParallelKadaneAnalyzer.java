@@ -0,0 +1,76 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Divide-and-conquer maximum subarray on a ForkJoinPool.
+ * The series is split into chunks, each chunk is reduced to a SubarraySummary in parallel,
+ * and summaries are merged pairwise. Inputs up to the threshold use the sequential scan, so
+ * small requests pay no task overhead. Results match Kadane's (up to floating-point rounding,
+ * since sums are added in a different order).
+ */
+public class ParallelKadaneAnalyzer extends AbstractPrimitiveAnalyzer {
+    public static final int DEFAULT_THRESHOLD = 1 << 18; // ~262k points
+
+    private final int threshold;      // Sizes up to this run sequentially
+    private final ForkJoinPool pool;  // Where chunk tasks run
+    private final PrimitiveKadaneAnalyzer sequential = new PrimitiveKadaneAnalyzer();
+
+    public ParallelKadaneAnalyzer() {
+        this(DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public ParallelKadaneAnalyzer(int threshold, ForkJoinPool pool) {
+        super("ParallelKadane");
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.threshold = threshold;
+        this.pool = pool;
+    }
+
+    @Override
+    protected SubarrayResult analyze(double[] values, int size) {
+        if (size <= threshold) {
+            return sequential.analyze(values, size);
+        }
+        // Aim for a few chunks per worker so stragglers can be balanced by work stealing
+        int chunk = Math.max(threshold, size / (pool.getParallelism() * 4));
+        return pool.invoke(new SummaryTask(values, 0, size, chunk)).toResult();
+    }
+
+    public int getThreshold() {
+        return threshold;
+    }
+
+    /**
+     * Reduces values[from, to) to a summary, splitting until chunks are small enough.
+     */
+    private static class SummaryTask extends RecursiveTask<SubarraySummary> {
+        private static final long serialVersionUID = 1L;
+        private final double[] values;
+        private final int from, to, chunk;
+
+        SummaryTask(double[] values, int from, int to, int chunk) {
+            this.values = values;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected SubarraySummary compute() {
+            if (to - from <= chunk) {
+                return SubarraySummary.of(values, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            SummaryTask left = new SummaryTask(values, from, mid, chunk);
+            left.fork();
+            SubarraySummary right = new SummaryTask(values, mid, to, chunk).compute();
+            return SubarraySummary.merge(left.join(), right);
+        }
+    }
+}
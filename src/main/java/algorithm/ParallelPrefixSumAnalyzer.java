@@ -0,0 +1,281 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.utils.DoubleIntHashMap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Parallel version of PrimitivePrefixSumAnalyzer (longest subarray summing to the target).
+ *
+ * 1. Prefix scan over chunks: chunk totals in parallel, then each chunk fills its prefix sums
+ *    from its offset. This is only done when every partial sum is exact (integral values with
+ *    a bounded magnitude); otherwise the scan stays sequential so prefix sums are bit-identical
+ *    to the sequential analyzer and exact matching finds the same periods.
+ * 2. Per-chunk first/last-occurrence tables, built in parallel and already split by the hash
+ *    partition that owns each key, so every prefix sum is hashed into exactly one bucket.
+ * 3. Tables merged in parallel, each worker owning a partition and reading only its own buckets,
+ *    so the merge does O(n) work in total rather than O(n) per worker.
+ * 4. Each worker checks last(w) - first(w - target) for its keys; the longest span wins,
+ *    earliest end on ties - the same SubarrayResult the sequential scan returns.
+ *
+ * Tolerant (epsilon) matching cannot be partitioned by key and uses the sequential analyzer.
+ */
+public class ParallelPrefixSumAnalyzer extends AbstractPrimitiveAnalyzer {
+    public static final int DEFAULT_THRESHOLD = 1 << 18;
+    private static final int MISSING = Integer.MIN_VALUE;
+    private static final double EXACT_LIMIT = 0x1p53; // Integers below this add exactly
+
+    private final double target;   // Required subarray sum (0 for zero-return periods)
+    private final double epsilon;  // Prefix-sum match tolerance (0 = exact)
+    private final int threshold;   // Sizes up to this run sequentially
+    private final ForkJoinPool pool;
+    private final PrimitivePrefixSumAnalyzer sequential;
+
+    public ParallelPrefixSumAnalyzer(double target) {
+        this(target, 0, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public ParallelPrefixSumAnalyzer(double target, double epsilon) {
+        this(target, epsilon, DEFAULT_THRESHOLD, ForkJoinPool.commonPool());
+    }
+
+    public ParallelPrefixSumAnalyzer(double target, double epsilon, int threshold, ForkJoinPool pool) {
+        super("ParallelPrefixSum");
+        if (threshold < 1) {
+            throw new IllegalArgumentException("Threshold must be positive");
+        }
+        this.target = target;
+        this.epsilon = epsilon;
+        this.threshold = threshold;
+        this.pool = pool;
+        this.sequential = new PrimitivePrefixSumAnalyzer(target, epsilon);
+    }
+
+    @Override
+    protected SubarrayResult analyze(double[] values, int size) {
+        if (size <= threshold || epsilon != 0) {
+            return sequential.analyze(values, size);
+        }
+        int workers = pool.getParallelism();
+        int chunkCount = (int) Math.min((long) workers * 4, (size + threshold - 1) / threshold);
+        chunkCount = Math.max(chunkCount, 2);
+        int chunkSize = (size + chunkCount - 1) / chunkCount;
+
+        double[] prefix = prefixSums(values, size, chunkCount, chunkSize);
+        List<ChunkTables> chunks = buildChunkTables(prefix, size, chunkCount, chunkSize, workers);
+        Partition[] partitions = mergeByPartition(chunks, workers);
+        return findLongestSpan(partitions);
+    }
+
+    // --- Step 1: prefix scan ---
+
+    private double[] prefixSums(double[] values, int size, int chunkCount, int chunkSize) {
+        double[] prefix = new double[size];
+        double[] totals = new double[chunkCount];
+        double[] magnitudes = new double[chunkCount];
+        boolean[] integral = new boolean[chunkCount];
+
+        runAll(chunkCount, c -> {
+            int from = c * chunkSize, to = Math.min(size, from + chunkSize);
+            double total = 0, magnitude = 0;
+            boolean allIntegral = true;
+            for (int i = from; i < to; i++) {
+                double value = values[i];
+                total += value;
+                magnitude += Math.abs(value);
+                allIntegral &= value == Math.rint(value);
+            }
+            totals[c] = total;
+            magnitudes[c] = magnitude;
+            integral[c] = allIntegral;
+        });
+
+        double magnitude = 0;
+        boolean exact = true;
+        for (int c = 0; c < chunkCount; c++) {
+            magnitude += magnitudes[c];
+            exact &= integral[c];
+        }
+
+        if (!exact || !(magnitude < EXACT_LIMIT)) {
+            // Rounding depends on summation order - keep the sequential order
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += values[i];
+                prefix[i] = sum;
+            }
+            return prefix;
+        }
+
+        double[] offsets = new double[chunkCount];
+        for (int c = 1; c < chunkCount; c++) {
+            offsets[c] = offsets[c - 1] + totals[c - 1];
+        }
+        runAll(chunkCount, c -> {
+            int from = c * chunkSize, to = Math.min(size, from + chunkSize);
+            double sum = offsets[c];
+            for (int i = from; i < to; i++) {
+                sum += values[i];
+                prefix[i] = sum;
+            }
+        });
+        return prefix;
+    }
+
+    // --- Step 2: per-chunk occurrence tables ---
+
+    /**
+     * First and last prefix index of every distinct prefix sum inside one chunk,
+     * bucketed by owning partition: first[p] and last[p] hold only the keys of partition p.
+     */
+    private static class ChunkTables {
+        final DoubleIntHashMap[] first;
+        final DoubleIntHashMap[] last;
+
+        ChunkTables(int partitionCount, int expectedSize) {
+            this.first = new DoubleIntHashMap[partitionCount];
+            this.last = new DoubleIntHashMap[partitionCount];
+            int perPartition = expectedSize / partitionCount + 1;
+            for (int p = 0; p < partitionCount; p++) {
+                first[p] = new DoubleIntHashMap(perPartition);
+                last[p] = new DoubleIntHashMap(perPartition);
+            }
+        }
+    }
+
+    private List<ChunkTables> buildChunkTables(double[] prefix, int size, int chunkCount, int chunkSize,
+                                               int partitionCount) {
+        ChunkTables[] tables = new ChunkTables[chunkCount];
+        runAll(chunkCount, c -> {
+            int from = c * chunkSize, to = Math.min(size, from + chunkSize);
+            ChunkTables chunk = new ChunkTables(partitionCount, to - from);
+            for (int i = from; i < to; i++) {
+                int p = owner(prefix[i], partitionCount);
+                chunk.first[p].putIfAbsent(prefix[i], i);
+                chunk.last[p].put(prefix[i], i);
+            }
+            tables[c] = chunk;
+        });
+        return List.of(tables);
+    }
+
+    // --- Step 3: partitioned merge ---
+
+    /**
+     * Global first/last occurrences for the keys owned by one worker.
+     */
+    private static class Partition {
+        final DoubleIntHashMap first;
+        final DoubleIntHashMap last;
+        int bestLength, bestStart = -1, bestEnd = -1;
+
+        Partition(int expectedSize) {
+            this.first = new DoubleIntHashMap(expectedSize + 1);
+            this.last = new DoubleIntHashMap(expectedSize);
+        }
+    }
+
+    private Partition[] mergeByPartition(List<ChunkTables> chunks, int partitionCount) {
+        Partition[] partitions = new Partition[partitionCount];
+        runAll(partitionCount, p -> {
+            int expected = 0; // Upper bound on the partition's distinct keys
+            for (ChunkTables chunk : chunks) {
+                expected += chunk.last[p].size();
+            }
+            Partition partition = new Partition(expected);
+            if (owner(0.0, partitionCount) == p) {
+                partition.first.put(0.0, -1); // Empty prefix, so spans can start at index 0
+            }
+            // Chunks in index order: first occurrence = earliest chunk, last = latest chunk
+            for (ChunkTables chunk : chunks) {
+                chunk.first[p].forEach(partition.first::putIfAbsent);
+                chunk.last[p].forEach(partition.last::put);
+            }
+            partitions[p] = partition;
+        });
+        return partitions;
+    }
+
+    // --- Step 4: longest span ---
+
+    private SubarrayResult findLongestSpan(Partition[] partitions) {
+        int partitionCount = partitions.length;
+        runAll(partitionCount, p -> {
+            Partition partition = partitions[p];
+            partition.last.forEach((key, end) -> {
+                double wanted = key - target; // Same rounding as the sequential lookup
+                int previous = partitions[owner(wanted, partitionCount)].first.get(wanted, MISSING);
+                if (previous == MISSING || previous >= end) {
+                    return;
+                }
+                int length = end - previous;
+                if (length > partition.bestLength || (length == partition.bestLength && end < partition.bestEnd)) {
+                    partition.bestLength = length;
+                    partition.bestStart = previous + 1;
+                    partition.bestEnd = end;
+                }
+            });
+        });
+
+        Partition winner = null;
+        for (Partition partition : partitions) {
+            if (partition.bestLength == 0) {
+                continue;
+            }
+            if (winner == null || partition.bestLength > winner.bestLength
+                    || (partition.bestLength == winner.bestLength && partition.bestEnd < winner.bestEnd)) {
+                winner = partition;
+            }
+        }
+        return winner == null
+                ? new SubarrayResult(-1, -1, 0)
+                : new SubarrayResult(winner.bestStart, winner.bestEnd, target);
+    }
+
+    // --- Helpers ---
+
+    /**
+     * Partition owning a key. Uses the high bits of a Fibonacci hash so it stays independent
+     * of the slot hashing inside DoubleIntHashMap.
+     */
+    private static int owner(double key, int partitionCount) {
+        long bits = Double.doubleToLongBits(key) * 0x9E3779B97F4A7C15L;
+        return (int) ((bits >>> 32) % partitionCount);
+    }
+
+    private interface IndexedTask {
+        void run(int index);
+    }
+
+    // Runs task(0..count-1) on the pool and waits for all of them
+    private void runAll(int count, IndexedTask task) {
+        List<Callable<Void>> calls = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int index = i;
+            calls.add(() -> {
+                task.run(index);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(calls)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Prefix-sum analysis interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Prefix-sum analysis failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    public double getTarget() {
+        return target;
+    }
+}
@@ -0,0 +1,36 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Kadane's maximum subarray scan over a primitive array.
+ * Same results and tie-breaking as AlgorithmModule.KadaneAnalyzer, without unboxing per element.
+ */
+public class PrimitiveKadaneAnalyzer extends AbstractPrimitiveAnalyzer {
+
+    public PrimitiveKadaneAnalyzer() {
+        super("Kadane");
+    }
+
+    @Override
+    protected SubarrayResult analyze(double[] values, int size) {
+        double best = Double.NEGATIVE_INFINITY;
+        double current = 0;
+        int start = 0, end = 0, runStart = 0;
+
+        for (int i = 0; i < size; i++) {
+            current += values[i];
+            if (current > best) {
+                best = current;
+                start = runStart;
+                end = i;
+            }
+            // A negative running sum can only hurt what follows - restart after it
+            if (current < 0) {
+                current = 0;
+                runStart = i + 1;
+            }
+        }
+        return new SubarrayResult(start, end, best);
+    }
+}
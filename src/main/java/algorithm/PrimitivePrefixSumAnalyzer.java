@@ -0,0 +1,55 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.utils.DoubleIntHashMap;
+
+/**
+ * Longest subarray whose sum equals the target, using first occurrences of prefix sums.
+ * Same results as AlgorithmModule.PrefixSumAnalyzer, reading a primitive array and keeping
+ * the first-occurrence table in a DoubleIntHashMap instead of a boxed HashMap.
+ * With a positive epsilon, prefix sums within epsilon count as equal (floating-point drift).
+ */
+public class PrimitivePrefixSumAnalyzer extends AbstractPrimitiveAnalyzer {
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    private final double target;  // Required subarray sum (0 for zero-return periods)
+    private final double epsilon;  // Prefix-sum match tolerance (0 = exact)
+
+    public PrimitivePrefixSumAnalyzer(double target) {
+        this(target, 0);
+    }
+
+    public PrimitivePrefixSumAnalyzer(double target, double epsilon) {
+        super("PrefixSum");
+        this.target = target;
+        this.epsilon = epsilon;
+    }
+
+    @Override
+    protected SubarrayResult analyze(double[] values, int size) {
+        DoubleIntHashMap firstIndex = new DoubleIntHashMap(size + 1, epsilon);
+        firstIndex.put(0.0, -1); // Empty prefix, so subarrays can start at index 0
+        double sum = 0;
+        int bestLength = 0, start = 0, end = -1;
+
+        for (int i = 0; i < size; i++) {
+            sum += values[i];
+            int previous = firstIndex.getMin(sum - target, MISSING);
+            if (previous != MISSING && i - previous > bestLength) {
+                bestLength = i - previous;
+                start = previous + 1;
+                end = i;
+            }
+            firstIndex.putIfAbsent(sum, i);
+        }
+        return end == -1 ? new SubarrayResult(-1, -1, 0) : new SubarrayResult(start, end, target);
+    }
+
+    public double getTarget() {
+        return target;
+    }
+
+    public double getEpsilon() {
+        return epsilon;
+    }
+}
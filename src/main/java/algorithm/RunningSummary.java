@@ -0,0 +1,108 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.model.SeriesSummary;
+import main.java.utils.DoubleIntHashMap;
+
+/**
+ * Series summary maintained point by point: both Kadane runs (best and current, with indices),
+ * the prefix-sum first-occurrence table and the statistics. append() costs O(1) (amortized for the
+ * table) and snapshot() needs no re-scan, so a live feed can add one tick at a time.
+ * Results after n appends equal SeriesSummaryAnalyzer on the same n values, including tie-breaking.
+ * Not thread-safe; callers synchronize.
+ */
+public class RunningSummary {
+    private static final int MISSING = Integer.MIN_VALUE;
+
+    private final double target;   // Required subarray sum of the zeroReturn period
+    private final DoubleIntHashMap firstIndex; // First index of every prefix sum (-1 = empty prefix)
+
+    // Kadane states for the max and min scans
+    private double best = Double.NEGATIVE_INFINITY, worst = Double.POSITIVE_INFINITY;
+    private double high, low;
+    private int bestStart, bestEnd, highStart;
+    private int worstStart, worstEnd, lowStart;
+
+    // Longest target-sum period
+    private int spanLength, spanStart, spanEnd = -1;
+
+    // Statistics; the running total doubles as the prefix sum
+    private int count;
+    private double sum, min, max;
+    private double peak, maxDrawdown;
+
+    public RunningSummary(double target, double epsilon) {
+        this(target, epsilon, 16);
+    }
+
+    /**
+     * @param expectedSize points to hold before the prefix table resizes
+     */
+    public RunningSummary(double target, double epsilon, int expectedSize) {
+        this.target = target;
+        this.firstIndex = new DoubleIntHashMap(expectedSize + 1, epsilon);
+        firstIndex.put(0.0, -1); // Empty prefix, so periods can start at index 0
+    }
+
+    /**
+     * Adds the next point of the series.
+     */
+    public void append(double value) {
+        int i = count++;
+
+        high += value;
+        if (high > best) {
+            best = high;
+            bestStart = highStart;
+            bestEnd = i;
+        }
+        if (high < 0) {
+            high = 0;
+            highStart = i + 1;
+        }
+
+        low += value;
+        if (low < worst) {
+            worst = low;
+            worstStart = lowStart;
+            worstEnd = i;
+        }
+        if (low > 0) {
+            low = 0;
+            lowStart = i + 1;
+        }
+
+        sum += value;
+        int previous = firstIndex.getMin(sum - target, MISSING);
+        if (previous != MISSING && i - previous > spanLength) {
+            spanLength = i - previous;
+            spanStart = previous + 1;
+            spanEnd = i;
+        }
+        firstIndex.putIfAbsent(sum, i);
+
+        min = i == 0 ? value : Math.min(min, value);
+        max = i == 0 ? value : Math.max(max, value);
+        peak = Math.max(peak, sum);
+        maxDrawdown = Math.max(maxDrawdown, peak - sum);
+    }
+
+    /**
+     * Current results, without re-reading any point.
+     */
+    public SeriesSummary snapshot() {
+        if (count == 0) {
+            SubarrayResult none = new SubarrayResult(-1, -1, 0);
+            return new SeriesSummary(none, none, none, 0, 0, 0, 0, 0);
+        }
+        return new SeriesSummary(
+                new SubarrayResult(bestStart, bestEnd, best),
+                new SubarrayResult(worstStart, worstEnd, worst),
+                spanEnd == -1 ? new SubarrayResult(-1, -1, 0) : new SubarrayResult(spanStart, spanEnd, target),
+                count, sum, min, max, maxDrawdown);
+    }
+
+    public int getCount() {
+        return count;
+    }
+}
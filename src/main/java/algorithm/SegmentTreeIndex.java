@@ -0,0 +1,118 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.model.DoubleSeries;
+
+import java.util.Arrays;
+
+/**
+ * Range index over one series: answers "max profit / max loss between index from and to" in
+ * O(log n) without re-scanning the range. Built once in O(n).
+ *
+ * Two segment trees of SubarraySummary nodes (sum, best prefix, best suffix, best subarray with
+ * indices), one over the values and one over the negated values for max loss. Leaves cover blocks
+ * of BLOCK_SIZE points instead of single points, so each tree holds at most n / 8 nodes instead of
+ * up to 4n; the partial blocks at the two ends of a range are summarized directly from the values.
+ *
+ * Results equal PrimitiveKadaneAnalyzer (max) and MinSubarrayAnalyzer (min) run on the slice,
+ * with indices into the whole series and the same tie-breaking. Immutable, so thread-safe.
+ */
+public class SegmentTreeIndex {
+    public static final int BLOCK_SIZE = 32; // Points per leaf
+
+    private final int size;
+    private final Tree profit; // Over the values
+    private final Tree loss;   // Over the negated values
+
+    public SegmentTreeIndex(DoubleSeries series) {
+        if (series == null || series.size() == 0) {
+            throw new IllegalArgumentException("values must be a non-empty series");
+        }
+        this.size = series.size();
+        double[] values = Arrays.copyOf(series.array(), size); // The request's array is not kept
+        double[] negated = new double[size];
+        for (int i = 0; i < size; i++) {
+            negated[i] = -values[i];
+        }
+        this.profit = new Tree(values);
+        this.loss = new Tree(negated);
+    }
+
+    /**
+     * Highest-sum subarray of [from, to] (both inclusive).
+     */
+    public SubarrayResult maxProfit(int from, int to) {
+        checkRange(from, to);
+        return profit.query(from, to).toResult();
+    }
+
+    /**
+     * Lowest-sum subarray of [from, to] (both inclusive).
+     */
+    public SubarrayResult maxLoss(int from, int to) {
+        checkRange(from, to);
+        SubarraySummary summary = loss.query(from, to);
+        return new SubarrayResult(summary.bestStart, summary.bestEnd, -summary.best);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private void checkRange(int from, int to) {
+        if (from < 0 || to >= size || from > to) {
+            throw new IllegalArgumentException("Range [" + from + ", " + to + "] is outside the series (size " + size + ")");
+        }
+    }
+
+    /**
+     * Bottom-up segment tree over block summaries; nodes[leaves + b] covers block b,
+     * nodes[i] merges nodes[2i] and nodes[2i + 1]. Padding leaves are null.
+     */
+    private static final class Tree {
+        private final double[] values;
+        private final int leaves;              // Power of two >= block count
+        private final SubarraySummary[] nodes;
+
+        Tree(double[] values) {
+            this.values = values;
+            int blocks = (values.length + BLOCK_SIZE - 1) / BLOCK_SIZE;
+            this.leaves = Integer.highestOneBit(Math.max(1, blocks - 1)) << 1;
+            this.nodes = new SubarraySummary[2 * leaves];
+            for (int b = 0; b < blocks; b++) {
+                nodes[leaves + b] = SubarraySummary.of(values, b * BLOCK_SIZE, Math.min(values.length, (b + 1) * BLOCK_SIZE));
+            }
+            for (int i = leaves - 1; i >= 1; i--) {
+                nodes[i] = combine(nodes[2 * i], nodes[2 * i + 1]);
+            }
+        }
+
+        SubarraySummary query(int from, int to) {
+            int firstBlock = from / BLOCK_SIZE, lastBlock = to / BLOCK_SIZE;
+            if (lastBlock - firstBlock <= 1) {
+                return SubarraySummary.of(values, from, to + 1); // At most two blocks: scan them
+            }
+            SubarraySummary head = SubarraySummary.of(values, from, (firstBlock + 1) * BLOCK_SIZE);
+            SubarraySummary tail = SubarraySummary.of(values, lastBlock * BLOCK_SIZE, to + 1);
+            return SubarraySummary.merge(SubarraySummary.merge(head, blocks(firstBlock + 1, lastBlock)), tail);
+        }
+
+        // Merge of whole blocks [lo, hi) in order; lo < hi
+        private SubarraySummary blocks(int lo, int hi) {
+            SubarraySummary left = null, right = null;
+            for (int l = lo + leaves, r = hi + leaves; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    left = combine(left, nodes[l++]);
+                }
+                if ((r & 1) == 1) {
+                    right = combine(nodes[--r], right);
+                }
+            }
+            return combine(left, right);
+        }
+
+        private static SubarraySummary combine(SubarraySummary left, SubarraySummary right) {
+            return left == null ? right : right == null ? left : SubarraySummary.merge(left, right);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.model.DoubleSeries;
+import main.java.model.SeriesSummary;
+
+/**
+ * Computes max profit, max loss, the target-sum period and basic statistics in one traversal.
+ * Each point is read once and fed to a RunningSummary: both running Kadane states (as in
+ * PrimitiveKadaneAnalyzer and MinSubarrayAnalyzer), the prefix-sum table (as in PrimitivePrefixSumAnalyzer) and the
+ * statistics, so the results are identical to the separate analyzers, including tie-breaking.
+ */
+public class SeriesSummaryAnalyzer {
+    private final double target;   // Required subarray sum of the zeroReturn period
+    private final double epsilon;  // Prefix-sum match tolerance (0 = exact)
+
+    public SeriesSummaryAnalyzer() {
+        this(0, 0);
+    }
+
+    public SeriesSummaryAnalyzer(double target, double epsilon) {
+        this.target = target;
+        this.epsilon = epsilon;
+    }
+
+    public SeriesSummary analyze(DoubleSeries series) {
+        if (series == null || series.isEmpty()) {
+            SubarrayResult none = new SubarrayResult(-1, -1, 0);
+            return new SeriesSummary(none, none, none, 0, 0, 0, 0, 0);
+        }
+        double[] values = series.array();
+        int size = series.size();
+        RunningSummary summary = new RunningSummary(target, epsilon, size);
+        for (int i = 0; i < size; i++) {
+            summary.append(values[i]);
+        }
+        return summary.snapshot();
+    }
+
+    public String getName() {
+        return "SeriesSummary";
+    }
+}
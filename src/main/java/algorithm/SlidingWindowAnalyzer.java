@@ -0,0 +1,123 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.model.DoubleSeries;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Best (max profit) or worst (max loss) contiguous subarray inside a window of the last N points,
+ * for every window position as the window slides over the series.
+ *
+ * The window is a queue of SubarraySummary values kept as two stacks over the series itself:
+ * the back part [mid, hi) only keeps the running merge of its points, the front part [lo, mid)
+ * keeps the merged summary of every suffix up to mid. The window summary is one merge of the
+ * oldest front suffix and the back, and when the front runs empty the back is turned into
+ * suffixes in one backward pass. Every point is merged a constant number of times, so a slide
+ * costs amortized O(1) whatever the window size, and memory is O(window).
+ *
+ * Indices in the results refer to the whole series. Max loss runs on negated values, so its
+ * tie-breaking matches MinSubarrayAnalyzer.
+ */
+public class SlidingWindowAnalyzer {
+    private final int window;      // Points per window
+    private final boolean minimum; // true = lowest-sum subarray (max loss)
+
+    public SlidingWindowAnalyzer(int window, boolean minimum) {
+        if (window < 1) {
+            throw new IllegalArgumentException("window must be a positive number of points");
+        }
+        this.window = window;
+        this.minimum = minimum;
+    }
+
+    /**
+     * Results of the windows ending at window - 1, window - 1 + step, ... (one window covering
+     * the whole series if it is shorter than the window). Computed lazily as the stream is read.
+     */
+    public Stream<SubarrayResult> analyze(DoubleSeries series, int step) {
+        if (step < 1) {
+            throw new IllegalArgumentException("step must be a positive number of points");
+        }
+        int size = series != null ? series.size() : 0;
+        Iterator<SubarrayResult> windows = size == 0 ? Collections.emptyIterator()
+                : new WindowIterator(series.array(), size, step);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(windows,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    public int getWindow() {
+        return window;
+    }
+
+    private final class WindowIterator implements Iterator<SubarrayResult> {
+        private final double[] values;
+        private final int size;
+        private final int step;
+        // suffixes[i % length] = summary of [i, mid); the back holds at most width + 1 points when it is converted
+        private final SubarraySummary[] suffixes;
+        private int lo, mid, hi;    // Window is [lo, hi); front [lo, mid), back [mid, hi)
+        private SubarraySummary back; // Merge of [mid, hi), null when empty
+        private int nextEnd;        // Exclusive end of the next window to report
+
+        WindowIterator(double[] values, int size, int step) {
+            this.values = values;
+            this.size = size;
+            this.step = step;
+            int width = Math.min(window, size); // Sized from the series, not from the requested window
+            this.suffixes = new SubarraySummary[width + 1];
+            this.nextEnd = width;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextEnd <= size;
+        }
+
+        @Override
+        public SubarrayResult next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            while (hi < nextEnd) {
+                push();
+                if (hi - lo > window) {
+                    pop();
+                }
+            }
+            nextEnd = (int) Math.min((long) nextEnd + step, size + 1L);
+            SubarraySummary front = lo < mid ? suffixes[lo % suffixes.length] : null;
+            SubarraySummary summary = front == null ? back : back == null ? front : SubarraySummary.merge(front, back);
+            SubarrayResult result = summary.toResult();
+            return minimum ? new SubarrayResult(result.getStartIndex(), result.getEndIndex(), -result.getTotal()) : result;
+        }
+
+        private void push() {
+            SubarraySummary point = SubarraySummary.of(minimum ? -values[hi] : values[hi], hi);
+            back = back == null ? point : SubarraySummary.merge(back, point);
+            hi++;
+        }
+
+        private void pop() {
+            if (lo == mid) {
+                // Front is empty: turn the back into suffix summaries, newest first
+                SubarraySummary suffix = null;
+                for (int i = hi - 1; i >= mid; i--) {
+                    SubarraySummary point = SubarraySummary.of(minimum ? -values[i] : values[i], i);
+                    suffix = suffix == null ? point : SubarraySummary.merge(point, suffix);
+                    suffixes[i % suffixes.length] = suffix;
+                }
+                mid = hi;
+                back = null;
+            }
+            suffixes[lo % suffixes.length] = null;
+            lo++;
+        }
+    }
+}
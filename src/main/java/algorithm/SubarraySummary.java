@@ -0,0 +1,132 @@
+package main.java.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Max-subarray summary of one contiguous segment, mergeable with its right neighbour.
+ * Holds the segment total, best prefix, best suffix and best inner subarray with indices,
+ * which is all that is needed to combine segments in any grouping (divide and conquer,
+ * segment trees, sliding windows).
+ *
+ * Ties follow KadaneAnalyzer: highest total, then earliest end, then earliest start.
+ */
+public final class SubarraySummary {
+    final double sum;      // Total of the whole segment
+    final double prefix;   // Best non-empty prefix sum
+    final int prefixEnd;   // End index of the best prefix (earliest on ties)
+    final double suffix;   // Best non-empty suffix sum
+    final int suffixStart; // Start index of the best suffix (earliest on ties)
+    final double best;     // Best non-empty subarray sum
+    final int bestStart;
+    final int bestEnd;
+
+    SubarraySummary(double sum, double prefix, int prefixEnd, double suffix, int suffixStart,
+                    double best, int bestStart, int bestEnd) {
+        this.sum = sum;
+        this.prefix = prefix;
+        this.prefixEnd = prefixEnd;
+        this.suffix = suffix;
+        this.suffixStart = suffixStart;
+        this.best = best;
+        this.bestStart = bestStart;
+        this.bestEnd = bestEnd;
+    }
+
+    /**
+     * Summary of a single point.
+     */
+    public static SubarraySummary of(double value, int index) {
+        return new SubarraySummary(value, value, index, value, index, value, index, index);
+    }
+
+    /**
+     * Summary of values[from, to) computed sequentially (to > from).
+     */
+    public static SubarraySummary of(double[] values, int from, int to) {
+        double sum = 0, prefix = Double.NEGATIVE_INFINITY;
+        double best = Double.NEGATIVE_INFINITY, current = 0;
+        int prefixEnd = from, bestStart = from, bestEnd = from, runStart = from;
+
+        // Forward pass: total, best prefix and Kadane's best inner subarray
+        for (int i = from; i < to; i++) {
+            double value = values[i];
+            sum += value;
+            if (sum > prefix) {
+                prefix = sum;
+                prefixEnd = i;
+            }
+            current += value;
+            if (current > best) {
+                best = current;
+                bestStart = runStart;
+                bestEnd = i;
+            }
+            if (current < 0) {
+                current = 0;
+                runStart = i + 1;
+            }
+        }
+
+        // Backward pass: best suffix, preferring the earliest start on ties
+        double suffix = Double.NEGATIVE_INFINITY, tail = 0;
+        int suffixStart = to - 1;
+        for (int i = to - 1; i >= from; i--) {
+            tail += values[i];
+            if (tail >= suffix) {
+                suffix = tail;
+                suffixStart = i;
+            }
+        }
+        return new SubarraySummary(sum, prefix, prefixEnd, suffix, suffixStart, best, bestStart, bestEnd);
+    }
+
+    /**
+     * Combines two adjacent summaries (left immediately precedes right).
+     */
+    public static SubarraySummary merge(SubarraySummary left, SubarraySummary right) {
+        double sum = left.sum + right.sum;
+
+        // Prefix may extend into the right segment; on ties the shorter (earlier end) wins
+        double prefix = left.prefix;
+        int prefixEnd = left.prefixEnd;
+        double extendedPrefix = left.sum + right.prefix;
+        if (extendedPrefix > prefix) {
+            prefix = extendedPrefix;
+            prefixEnd = right.prefixEnd;
+        }
+
+        // Suffix may extend into the left segment; on ties the longer (earlier start) wins
+        double suffix = right.suffix;
+        int suffixStart = right.suffixStart;
+        double extendedSuffix = right.sum + left.suffix;
+        if (extendedSuffix >= suffix) {
+            suffix = extendedSuffix;
+            suffixStart = left.suffixStart;
+        }
+
+        // Best is inside left, across the boundary, or inside right
+        double best = left.best;
+        int bestStart = left.bestStart, bestEnd = left.bestEnd;
+        double cross = left.suffix + right.prefix;
+        if (cross > best) {
+            best = cross;
+            bestStart = left.suffixStart;
+            bestEnd = right.prefixEnd;
+        }
+        if (right.best > best || (right.best == best && right.bestEnd < bestEnd)) {
+            best = right.best;
+            bestStart = right.bestStart;
+            bestEnd = right.bestEnd;
+        }
+        return new SubarraySummary(sum, prefix, prefixEnd, suffix, suffixStart, best, bestStart, bestEnd);
+    }
+
+    public SubarrayResult toResult() {
+        return new SubarrayResult(bestStart, bestEnd, best);
+    }
+
+    public double getSum() { return sum; }
+    public double getBest() { return best; }
+    public int getBestStart() { return bestStart; }
+    public int getBestEnd() { return bestEnd; }
+}
@@ -1,15 +1,38 @@
 package main.java.controller;
 
+import main.java.algorithm.MinSubarrayAnalyzer;
+import main.java.algorithm.ParallelPrefixSumAnalyzer;
+import main.java.algorithm.SeriesSummaryAnalyzer;
+import main.java.algorithm.SlidingWindowAnalyzer;
+import main.java.service.AnalysisResultCache;
 import main.java.service.AnalysisService;
+import main.java.service.AnalysisSessionManager;
+import main.java.service.SeriesIndexManager;
 import main.java.model.AnalysisRequest;
+import main.java.model.BatchItemResult;
+import main.java.model.DoubleSeries;
+import main.java.model.IndexSummary;
+import main.java.model.ResultPage;
+import main.java.model.SeriesSummary;
+import main.java.model.SessionSummary;
 import main.java.enums.AnalysisType;
 import main.java.enums.DataMode;
 import main.java.network.Response;
-import AlgorithmModule.*;
+import main.java.utils.CalculateClosingPrices;
+import AlgorithmModule.SubarrayResult;
 import com.google.gson.Gson;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Web layer controller that handles HTTP-like requests for financial analysis.
@@ -17,24 +40,117 @@ import java.util.UUID;
  */
 public class AnalysisController {
     private final AnalysisService service; // Business logic delegation
+    private final AnalysisSessionManager sessions; // Live tick-feed sessions
+    private final SeriesIndexManager indexes;      // Series indexed for range queries
+    private static final int MAX_PAGE_SIZE = 10000; // Largest getAll page
+    private static final int MAX_BATCH_JOBS = 10000; // Largest analysis/batch request
+    private static final int MAX_WINDOW = 10_000_000; // Largest window of the windowed actions
+    private static final int BATCH_THREADS = Runtime.getRuntime().availableProcessors(); // Threads working on one batch
     private final Gson gson = new Gson();  // JSON serialization
+    private final ExecutorService batchPool = newBatchPool(); // Runs batch jobs, never the common ForkJoinPool
 
     public AnalysisController(AnalysisService service) {
+        this(service, new AnalysisSessionManager(), new SeriesIndexManager());
+    }
+
+    public AnalysisController(AnalysisService service, AnalysisSessionManager sessions) {
+        this(service, sessions, new SeriesIndexManager());
+    }
+
+    public AnalysisController(AnalysisService service, AnalysisSessionManager sessions, SeriesIndexManager indexes) {
         this.service = service;
+        this.sessions = sessions;
+        this.indexes = indexes;
+    }
+
+    // Fixed number of daemon threads that time out when no batch is running
+    private static ExecutorService newBatchPool() {
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(BATCH_THREADS, BATCH_THREADS, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), task -> {
+                    Thread thread = new Thread(task, "batch-worker-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
     }
 
     /**
-     * Main routing method - dispatches actions to specific handlers.
+     * Main routing method for a body still in JSON form - parses it, then dispatches.
      * Returns standardized Response objects for consistent API.
      */
     public Response<?> handle(String action, String bodyJson) {
+        Object body;
+        try {
+            Class<?> type = getBodyType(action);
+            body = type != null ? gson.fromJson(bodyJson, type) : null;
+        } catch (Exception e) {
+            return Response.error("Error processing request: " + e.getMessage());
+        }
+        return handleBody(action, body);
+    }
+
+    /**
+     * Body class the action expects, or null when it takes none (or is unknown).
+     * Lets RequestDispatcher decode the body straight from the request JSON in one pass.
+     */
+    public Class<?> getBodyType(String action) {
+        if (action == null) {
+            return null;
+        }
+        return switch (action) {
+            case "analysis/maxProfit", "analysis/maxLoss", "analysis/zeroReturn", "analysis/summary",
+                 "analysis/windowMaxProfit", "analysis/windowMaxLoss" -> AnalysisRequestDto.class;
+            case "analysis/batch" -> BatchDto.class;
+            case "analysis/getAll" -> GetAllDto.class;
+            case "analysis/get" -> GetDto.class;
+            case "analysis/session/open", "analysis/session/append", "analysis/session/query",
+                 "analysis/session/close" -> SessionDto.class;
+            case "analysis/index/create", "analysis/index/maxProfit", "analysis/index/maxLoss",
+                 "analysis/index/drop" -> IndexDto.class;
+            default -> null;
+        };
+    }
+
+    /**
+     * Body for maxProfit, maxLoss or zeroReturn built from series that are already decoded
+     * (the binary wire protocol), to be passed to handleBody.
+     */
+    public Object createSeriesBody(DoubleSeries values, DataMode dataMode, DoubleSeries closingPrices, Double epsilon) {
+        AnalysisRequestDto dto = new AnalysisRequestDto();
+        dto.values = values;
+        dto.dataMode = dataMode;
+        dto.closingPrices = closingPrices;
+        dto.epsilon = epsilon;
+        return dto;
+    }
+
+    /**
+     * Dispatches an action whose body is already decoded into getBodyType(action).
+     */
+    public Response<?> handleBody(String action, Object body) {
         try {
             return switch (action) {
-                case "analysis/maxProfit" -> handleMaxProfit(bodyJson);
-                case "analysis/maxLoss" -> handleMaxLoss(bodyJson);
-                case "analysis/zeroReturn" -> handleZeroReturn(bodyJson);
+                case "analysis/maxProfit" -> handleMaxProfit((AnalysisRequestDto) body);
+                case "analysis/maxLoss" -> handleMaxLoss((AnalysisRequestDto) body);
+                case "analysis/zeroReturn" -> handleZeroReturn((AnalysisRequestDto) body);
+                case "analysis/batch" -> handleBatch((BatchDto) body);
+                case "analysis/summary" -> handleSummary((AnalysisRequestDto) body);
+                case "analysis/windowMaxProfit" -> handleWindow((AnalysisRequestDto) body, AnalysisType.WINDOW_MAX_PROFIT);
+                case "analysis/windowMaxLoss" -> handleWindow((AnalysisRequestDto) body, AnalysisType.WINDOW_MAX_LOSS);
                 case "analysis/clear" -> handleClear();
-                case "analysis/getAll" -> handleGetAll();
+                case "analysis/getAll" -> handleGetAll((GetAllDto) body);
+                case "analysis/get" -> handleGet((GetDto) body);
+                case "analysis/cacheStats" -> handleCacheStats();
+                case "analysis/session/open" -> handleSessionOpen((SessionDto) body);
+                case "analysis/session/append" -> handleSessionAppend((SessionDto) body);
+                case "analysis/session/query" -> Response.success(sessions.query(sessionId((SessionDto) body)));
+                case "analysis/session/close" -> Response.success(sessions.close(sessionId((SessionDto) body)));
+                case "analysis/index/create" -> handleIndexCreate((IndexDto) body);
+                case "analysis/index/maxProfit" -> handleIndexQuery((IndexDto) body, false);
+                case "analysis/index/maxLoss" -> handleIndexQuery((IndexDto) body, true);
+                case "analysis/index/drop" -> Response.success(indexes.drop(body != null ? ((IndexDto) body).indexId : null));
                 default -> Response.error("Unknown action: " + action);
             };
         } catch (Exception e) {
@@ -46,50 +162,181 @@ public class AnalysisController {
      * Uses default Kadane algorithm for maximum profit analysis.
      * Standard flow: parse JSON → create request → delegate to service.
      */
-    private Response<SubarrayResult> handleMaxProfit(String bodyJson) {
-        AnalysisRequestDto dto = gson.fromJson(bodyJson, AnalysisRequestDto.class);
+    private Response<SubarrayResult> handleMaxProfit(AnalysisRequestDto dto) {
         AnalysisRequest request = createRequest(dto, AnalysisType.MAX_PROFIT);
-        SubarrayResult result = service.analyzeAndSave(request);
-        return Response.success(result);
+        SubarrayResult result = analyze(request);
+        return saved(request, result);
     }
 
     /**
-     * Special handling for max loss using mathematical trick.
-     * Flips values to negative, finds max profit, then corrects result.
+     * Max loss is the minimum-sum subarray, found directly on the original data.
+     * No flipped copy of the series and no corrected result object are needed.
      */
-    private Response<SubarrayResult> handleMaxLoss(String bodyJson) {
-        AnalysisRequestDto dto = gson.fromJson(bodyJson, AnalysisRequestDto.class);
-
-        // Convert max loss problem to max profit on flipped data
-        List<Double> flipped = dto.values.stream().map(v -> -v).toList();
-        KadaneAnalyzer kadane = new KadaneAnalyzer();
-        SubarrayResult flippedResult = kadane.analyze(flipped);
-
-        // Correct the result: flip total back to get actual loss
-        SubarrayResult corrected = new SubarrayResult(
-                flippedResult.getStartIndex(),
-                flippedResult.getEndIndex(),
-                -flippedResult.getTotal()
-        );
-
+    private Response<SubarrayResult> handleMaxLoss(AnalysisRequestDto dto) {
         AnalysisRequest request = createRequest(dto, AnalysisType.MAX_LOSS);
-        service.getDao().save(request, corrected);
-        return Response.success(corrected);
+
+        SubarrayResult result = analyze(request);
+        return saved(request, result);
     }
 
     /**
      * Uses PrefixSumAnalyzer to find longest subarray with zero sum.
      * Different algorithm needed for target-sum problems.
      */
-    private Response<SubarrayResult> handleZeroReturn(String bodyJson) {
-        AnalysisRequestDto dto = gson.fromJson(bodyJson, AnalysisRequestDto.class);
+    private Response<SubarrayResult> handleZeroReturn(AnalysisRequestDto dto) {
+        double epsilon = dto.epsilon != null ? dto.epsilon : 0; // Optional tolerance for rounding drift
+        AnalysisRequest request = createRequest(dto, AnalysisType.ZERO_RETURN, 0, epsilon);
+        SubarrayResult result = analyze(request);
+        return saved(request, result);
+    }
+
+    /**
+     * Max profit, max loss, the zero-return (or target-sum) period and basic statistics of one
+     * series from a single traversal. A read-only query: the summary is not saved.
+     */
+    private Response<SeriesSummary> handleSummary(AnalysisRequestDto dto) {
+        DoubleSeries values = seriesOf(dto);
+        if (values == null) {
+            return Response.error("values or closingPrices is required");
+        }
+        SeriesSummaryAnalyzer analyzer = new SeriesSummaryAnalyzer(
+                dto.target != null ? dto.target : 0, dto.epsilon != null ? dto.epsilon : 0);
+        return Response.success(analyzer.analyze(values));
+    }
+
+    /**
+     * Best or worst subarray inside every window of the last "window" points (every "step"-th
+     * window position), streamed to the client as it is computed. The window slides in amortized
+     * O(1) per point, whatever its size. A read-only query: the results are not saved.
+     */
+    private Response<List<SubarrayResult>> handleWindow(AnalysisRequestDto dto, AnalysisType type) {
+        if (dto.window == null || dto.window < 1 || dto.window > MAX_WINDOW) {
+            return Response.error("window must be between 1 and " + MAX_WINDOW + " points");
+        }
+        int step = dto.step != null ? dto.step : 1;
+        if (step < 1) {
+            return Response.error("step must be a positive number of points");
+        }
+        DoubleSeries values = seriesOf(dto);
+        if (values == null) {
+            return Response.error("values or closingPrices is required");
+        }
+        SlidingWindowAnalyzer analyzer = new SlidingWindowAnalyzer(dto.window, type == AnalysisType.WINDOW_MAX_LOSS);
+        return Response.stream(analyzer.analyze(values, step));
+    }
+
+    /**
+     * Opens a live session that is fed tick by tick with analysis/session/append and answers
+     * analysis/session/query from running state, without re-scanning the series. Not saved.
+     */
+    private Response<SessionSummary> handleSessionOpen(SessionDto dto) {
+        SessionDto options = dto != null ? dto : new SessionDto();
+        return Response.success(sessions.open(options.dataMode,
+                options.target != null ? options.target : 0, options.epsilon != null ? options.epsilon : 0));
+    }
+
+    /**
+     * Feeds ticks to a session; the cost depends on the ticks sent, not on the session length.
+     */
+    private Response<SessionSummary> handleSessionAppend(SessionDto dto) {
+        return Response.success(sessions.append(sessionId(dto), dto != null ? dto.values : null));
+    }
+
+    private static String sessionId(SessionDto dto) {
+        return dto != null ? dto.sessionId : null;
+    }
+
+    /**
+     * Uploads a series once and builds its range index, so later "between day i and day j"
+     * queries need neither the values nor a re-scan. Kept in memory, not saved.
+     */
+    private Response<IndexSummary> handleIndexCreate(IndexDto dto) {
+        return Response.success(indexes.create(dto != null ? dto.values : null));
+    }
+
+    /**
+     * Max profit or max loss within [from, to] of an indexed series, in O(log n).
+     * A read-only query: the result is not saved.
+     */
+    private Response<SubarrayResult> handleIndexQuery(IndexDto dto, boolean minimum) {
+        if (dto == null || dto.from == null || dto.to == null) {
+            return Response.error("from and to are required");
+        }
+        return Response.success(indexes.query(dto.indexId, dto.from, dto.to, minimum));
+    }
+
+    /**
+     * Runs many independent analyses from one envelope, in parallel on the controller's batch
+     * pool rather than the common ForkJoinPool, which the parallel analyzers use and blocking saves
+     * would starve. Every job is saved like a single request and gets its own status, so one bad
+     * series does not fail the batch.
+     */
+    private Response<List<BatchItemResult>> handleBatch(BatchDto dto) {
+        if (dto == null || dto.jobs == null || dto.jobs.isEmpty()) {
+            return Response.error("jobs must be a non-empty list");
+        }
+        if (dto.jobs.size() > MAX_BATCH_JOBS) {
+            return Response.error("At most " + MAX_BATCH_JOBS + " jobs per batch");
+        }
+        int size = dto.jobs.size();
+        BatchItemResult[] results = new BatchItemResult[size];
+        AtomicInteger next = new AtomicInteger();
+        Runnable worker = () -> {
+            for (int i; (i = next.getAndIncrement()) < size; ) {
+                results[i] = runJob(i, dto.jobs.get(i));
+            }
+        };
+        // At most BATCH_THREADS - 1 pool tasks per batch; the calling thread works too, so a busy pool only slows it down
+        List<Future<?>> helpers = new ArrayList<>();
+        for (int i = 1; i < Math.min(BATCH_THREADS, size); i++) {
+            helpers.add(batchPool.submit(worker));
+        }
+        worker.run();
+        try {
+            for (Future<?> helper : helpers) {
+                helper.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            helpers.forEach(helper -> helper.cancel(true));
+            return Response.error("Batch interrupted");
+        } catch (ExecutionException e) {
+            return Response.error("Error processing batch: " + e.getCause().getMessage());
+        }
+        return Response.success(Arrays.asList(results));
+    }
 
-        // Create specialized analyzer for zero-sum detection
-        PrefixSumAnalyzer prefixAnalyzer = new PrefixSumAnalyzer(0);
-        AnalysisRequest request = createRequest(dto, AnalysisType.ZERO_RETURN);
-        SubarrayResult result = prefixAnalyzer.analyze(dto.values);
-        service.getDao().save(request, result);
-        return Response.success(result);
+    private BatchItemResult runJob(int index, BatchJobDto job) {
+        if (job == null || job.type == null) {
+            return BatchItemResult.error(index, "type is required (MAX_PROFIT, MAX_LOSS or ZERO_RETURN)");
+        }
+        if (job.values == null && job.closingPrices == null) {
+            return BatchItemResult.error(index, "values or closingPrices is required");
+        }
+        try {
+            AnalysisRequest request = createRequest(job, job.type,
+                    job.target != null ? job.target : 0, job.epsilon != null ? job.epsilon : 0);
+            return BatchItemResult.success(index, request.getRequestId(), analyze(request));
+        } catch (Exception e) {
+            return BatchItemResult.error(index, "Error processing job: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Analyzes and saves the request with the strategy for its type: the default Kadane analyzer
+     * for max profit, the minimum-sum analyzer for max loss (directly on the original data, no
+     * flipped copy), and the prefix-sum analyzer for target-sum periods.
+     */
+    private SubarrayResult analyze(AnalysisRequest request) {
+        return switch (request.getType()) {
+            case MAX_PROFIT -> service.analyzeAndSave(request);
+            case MAX_LOSS -> service.analyzeAndSave(request, new MinSubarrayAnalyzer());
+            // Parallel for very long series
+            case ZERO_RETURN -> service.analyzeAndSave(request,
+                    new ParallelPrefixSumAnalyzer(request.getTarget(), request.getEpsilon()));
+            case WINDOW_MAX_PROFIT, WINDOW_MAX_LOSS -> throw new IllegalArgumentException(
+                    "Windowed analysis has its own actions (analysis/windowMaxProfit, analysis/windowMaxLoss)");
+        };
     }
 
     /**
@@ -101,11 +348,55 @@ public class AnalysisController {
     }
 
     /**
-     * Retrieval function to get all previously saved analysis results.
+     * Retrieval function to get previously saved analysis results.
+     * With "limit" (plus optional "cursor" or "offset", all counting whole records) one page is
+     * returned with the next cursor;
+     * otherwise all results are streamed to the client entry by entry instead of loaded at once.
      */
-    private Response<List<String>> handleGetAll() {
-        List<String> results = service.getDao().loadAll();
-        return Response.success(results);
+    private Response<?> handleGetAll(GetAllDto dto) {
+        if (dto == null || dto.limit == null) {
+            return Response.stream(service.getDao().stream());
+        }
+        if (dto.limit < 1 || dto.limit > MAX_PAGE_SIZE) {
+            return Response.error("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        if (dto.offset != null && dto.offset < 0) {
+            return Response.error("offset must not be negative");
+        }
+        ResultPage page = service.getDao().readPage(dto.cursor, dto.offset != null ? dto.offset : 0, dto.limit);
+        return Response.success(page);
+    }
+
+    /**
+     * Returns the saved lines of one result, looked up by the request ID from its analysis response.
+     */
+    private Response<List<String>> handleGet(GetDto dto) {
+        if (dto == null || dto.requestId == null || dto.requestId.isEmpty()) {
+            return Response.error("requestId is required");
+        }
+        List<String> record = service.getDao().loadById(dto.requestId);
+        if (record.isEmpty()) {
+            return Response.error("No result for request ID: " + dto.requestId);
+        }
+        return Response.success(record);
+    }
+
+    /**
+     * Reports result cache hits, misses and evictions.
+     */
+    private Response<AnalysisResultCache.Stats> handleCacheStats() {
+        AnalysisResultCache.Stats stats = service.getCacheStats();
+        if (stats == null) {
+            return Response.error("Result cache is disabled");
+        }
+        return Response.success(stats);
+    }
+
+    // Success response that tells the client which ID to use with analysis/get
+    private Response<SubarrayResult> saved(AnalysisRequest request, SubarrayResult result) {
+        Response<SubarrayResult> response = Response.success(result);
+        response.setRequestId(request.getRequestId());
+        return response;
     }
 
     /**
@@ -113,22 +404,112 @@ public class AnalysisController {
      * Handles default values for optional fields.
      */
     private AnalysisRequest createRequest(AnalysisRequestDto dto, AnalysisType type) {
+        return createRequest(dto, type, 0, 0);
+    }
+
+    /**
+     * Builds the domain request from seriesOf(dto); a request sent as closing prices defaults to
+     * the CLOSING_PRICES data mode.
+     */
+    private AnalysisRequest createRequest(AnalysisRequestDto dto, AnalysisType type, double target, double epsilon) {
+        DataMode dataMode = dto.dataMode;
+        if (dataMode == null) {
+            dataMode = fromClosingPrices(dto) ? DataMode.CLOSING_PRICES : DataMode.DAILY_CHANGES; // Default mode
+        }
         return new AnalysisRequest(
                 UUID.randomUUID().toString(), // Generate unique tracking ID
-                dto.values,
+                seriesOf(dto),
                 type,
-                dto.dataMode != null ? dto.dataMode : DataMode.DAILY_CHANGES, // Default mode
-                dto.closingPrices
+                dataMode,
+                dto.closingPrices,
+                target, // Target sum (ZERO_RETURN only, 0 = zero return)
+                epsilon
         );
     }
 
+    /**
+     * The series to analyze: values, or the daily changes of closingPrices when only those were
+     * sent (as the console app does). Null when neither is present.
+     */
+    private static DoubleSeries seriesOf(AnalysisRequestDto dto) {
+        if (!fromClosingPrices(dto)) {
+            return dto.values;
+        }
+        if (dto.closingPrices.size() < 2) {
+            throw new IllegalArgumentException("closingPrices needs at least two prices");
+        }
+        return CalculateClosingPrices.computeDeltas(dto.closingPrices);
+    }
+
+    private static boolean fromClosingPrices(AnalysisRequestDto dto) {
+        return (dto.values == null || dto.values.isEmpty()) && dto.closingPrices != null;
+    }
+
     /**
      * Simple DTO for JSON deserialization.
      * Separates JSON structure from rich domain model.
+     * Number arrays are parsed straight into primitive series by DoubleSeriesAdapter.
      */
     private static class AnalysisRequestDto {
-        List<Double> values;
+        DoubleSeries values;
         DataMode dataMode;
-        List<Double> closingPrices;
+        DoubleSeries closingPrices;
+        Double epsilon; // zeroReturn only: treat prefix sums within epsilon as equal
+        Double target;  // ZERO_RETURN batch jobs and summary only: required subarray sum (default 0)
+        Integer window; // Windowed actions only: points per window
+        Integer step;   // Windowed actions only: report every step-th window (default 1)
+    }
+
+    /**
+     * Body of analysis/batch.
+     */
+    private static class BatchDto {
+        List<BatchJobDto> jobs;
+    }
+
+    /**
+     * One batch job: a single-series request plus its analysis type.
+     */
+    private static class BatchJobDto extends AnalysisRequestDto {
+        AnalysisType type;
+    }
+
+    /**
+     * Optional paging parameters of analysis/getAll.
+     */
+    private static class GetAllDto {
+        Integer limit;  // Page size; absent = stream everything
+        String cursor;  // nextCursor of the previous page
+        Long offset;    // Entries to skip (after the cursor, if any)
+    }
+
+    /**
+     * Body of the analysis/session actions (open: dataMode, target, epsilon; append: sessionId,
+     * values; query and close: sessionId).
+     */
+    private static class SessionDto {
+        String sessionId;
+        DataMode dataMode;
+        Double target;
+        Double epsilon;
+        DoubleSeries values; // Changes, or closing prices in CLOSING_PRICES mode
+    }
+
+    /**
+     * Body of the analysis/index actions (create: values; maxProfit and maxLoss: indexId, from,
+     * to, both inclusive; drop: indexId).
+     */
+    private static class IndexDto {
+        String indexId;
+        DoubleSeries values;
+        Integer from;
+        Integer to;
+    }
+
+    /**
+     * Parameters of analysis/get.
+     */
+    private static class GetDto {
+        String requestId;
     }
 }
\ No newline at end of file
@@ -1,34 +1,97 @@
 package main.java.controller;
 
+import main.java.service.AnalysisResultCache;
 import main.java.service.AnalysisService;
+import main.java.service.AnalysisSessionManager;
+import main.java.service.SeriesIndexManager;
+import main.java.enums.PersistenceMode;
+import main.java.enums.PersistencePolicy;
+import main.java.network.ServerConfig;
 import main.java.repository.AnalysisDaoImpl;
-import AlgorithmModule.*;
+import main.java.repository.AsyncAnalysisDaoImpl;
+import main.java.repository.BinaryAnalysisDaoImpl;
+import main.java.repository.IAnalysisDao;
+import main.java.repository.SegmentedAnalysisDaoImpl;
+import main.java.algorithm.ParallelKadaneAnalyzer;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Factory pattern implementation for controller creation and dependency injection.
- * Pre-configures controllers with all required dependencies at application startup.
+ * Pre-configures controllers with all required dependencies on first use.
  */
 public class FactoryController {
-    private static final Map<String, Object> controllers = new HashMap<>(); // Controller registry
+    private static final String DATA_FILE = "src/main/resources/datasource.txt";
+    private static final String BINARY_DATA_FILE = "src/main/resources/datasource.bin";
+    private static final String HISTORY_DIRECTORY = "src/main/resources/history";
+    private static volatile ServerConfig config = new ServerConfig(); // Settings used when wiring
+    private static volatile boolean initialized;
 
     /**
-     * Static initialization block - runs once when class is first loaded.
+     * Sets the startup configuration (persistence mode etc.).
+     * Must be called before the first controller is requested; ServerDriver does this at startup.
+     */
+    public static void configure(ServerConfig serverConfig) {
+        if (initialized) {
+            throw new IllegalStateException("Controllers are already initialized");
+        }
+        config = serverConfig;
+    }
+
+    /**
+     * Holder class - initialized once, when the first controller is requested.
      * Sets up complete dependency chain: Algorithm → Service → Controller.
      */
-    static {
-        // Create data access layer with file path
-        AnalysisDaoImpl dao = new AnalysisDaoImpl("src/main/resources/datasource.txt");
+    private static class Registry {
+        static final Map<String, Object> controllers = new HashMap<>(); // Controller registry
+
+        static {
+            initialized = true;
+
+            // Create data access layer for the configured persistence mode (text, async text or binary log)
+            IAnalysisDao dao = createDao(config);
 
-        // Create default algorithm strategy (Kadane handles most use cases)
-        KadaneAnalyzer kadaneAnalyzer = new KadaneAnalyzer();
+            // Create default algorithm strategy: Kadane on primitive arrays, split across cores
+            // for series in the millions of points (sequential below the threshold)
+            ParallelKadaneAnalyzer kadaneAnalyzer = new ParallelKadaneAnalyzer();
 
-        // Wire dependencies: inject algorithm and DAO into service
-        AnalysisService kadaneService = new AnalysisService(kadaneAnalyzer, dao);
+            // Bounded result cache for series that several clients request repeatedly
+            AnalysisResultCache cache = new AnalysisResultCache();
+
+            // Wire dependencies: inject algorithm, DAO and cache into service (every request is still saved)
+            AnalysisService kadaneService = new AnalysisService(kadaneAnalyzer, dao, cache, PersistencePolicy.ALWAYS);
+
+            // In-memory sessions for live tick feeds (O(1) state per append)
+            AnalysisSessionManager sessions = new AnalysisSessionManager();
+
+            // Segment-tree indexes of uploaded series for O(log n) range queries
+            SeriesIndexManager indexes = new SeriesIndexManager();
+
+            // Create controller with configured service and store in registry
+            controllers.put("analysis", new AnalysisController(kadaneService, sessions, indexes));
+        }
+    }
 
-        // Create controller with configured service and store in registry
-        controllers.put("analysis", new AnalysisController(kadaneService));
+    private static IAnalysisDao createDao(ServerConfig config) {
+        if (config.getPersistenceMode() == PersistenceMode.BINARY) {
+            BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(BINARY_DATA_FILE);
+            Runtime.getRuntime().addShutdownHook(new Thread(dao::close, "result-log-shutdown"));
+            return dao;
+        }
+        if (config.getPersistenceMode() == PersistenceMode.SEGMENTED) {
+            return new SegmentedAnalysisDaoImpl(HISTORY_DIRECTORY, config.getSegmentBytes(),
+                    TimeUnit.MINUTES.toMillis(config.getSegmentMinutes()), TimeUnit.DAYS.toMillis(config.getRetentionDays()),
+                    config.getRetentionSegments(), config.isMappedReads());
+        }
+        if (config.getPersistenceMode() != PersistenceMode.ASYNC) {
+            return new AnalysisDaoImpl(DATA_FILE, config.isMappedReads());
+        }
+        AsyncAnalysisDaoImpl dao = new AsyncAnalysisDaoImpl(DATA_FILE, AsyncAnalysisDaoImpl.DEFAULT_QUEUE_CAPACITY,
+                config.getFlushIntervalMs(), config.getFlushBytes(), config.getFsyncPolicy(), config.isMappedReads());
+        // Write out batched records when the JVM exits
+        Runtime.getRuntime().addShutdownHook(new Thread(dao::close, "analysis-writer-shutdown"));
+        return dao;
     }
 
     /**
@@ -36,7 +99,7 @@ public class FactoryController {
      * Used by HandleRequest to get ready-to-use controller.
      */
     public static AnalysisController getAnalysisController() {
-        return (AnalysisController) controllers.get("analysis");
+        return (AnalysisController) Registry.controllers.get("analysis");
     }
 
     /**
@@ -44,6 +107,6 @@ public class FactoryController {
      * Allows adding new controller types without changing interface.
      */
     public static Object getController(String name) {
-        return controllers.get(name);
+        return Registry.controllers.get(name);
     }
-}
\ No newline at end of file
+}
@@ -6,5 +6,7 @@ package main.java.enums;
 public enum AnalysisType {
     MAX_PROFIT,
     MAX_LOSS,
-    ZERO_RETURN
+    ZERO_RETURN,
+    WINDOW_MAX_PROFIT, // Max profit inside each window of the last N points
+    WINDOW_MAX_LOSS    // Max loss inside each window of the last N points
 }
\ No newline at end of file
@@ -0,0 +1,12 @@
+package main.java.enums;
+
+/**
+ * Specifies how the server executes accepted client connections.
+ */
+public enum ExecutionMode {
+    // Fixed-size worker pool with a bounded wait queue (rejects when full); an idle keep-alive connection holds its worker
+    BOUNDED_POOL,
+
+    // One lightweight virtual thread per connection (default)
+    VIRTUAL_THREADS
+}
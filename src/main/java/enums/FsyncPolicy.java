@@ -0,0 +1,12 @@
+package main.java.enums;
+
+/**
+ * Specifies when the asynchronous writer forces written data to the storage device.
+ */
+public enum FsyncPolicy {
+    // Leave it to the operating system (fastest, recent records may be lost on power failure)
+    NEVER,
+
+    // Force after every group commit
+    EVERY_FLUSH
+}
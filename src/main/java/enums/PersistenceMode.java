@@ -0,0 +1,18 @@
+package main.java.enums;
+
+/**
+ * Specifies how and in which format analysis results are written to the data file.
+ */
+public enum PersistenceMode {
+    // Each request appends its record on the request thread
+    SYNC,
+
+    // Records are queued and group-committed by a single writer thread
+    ASYNC,
+
+    // Compact binary record log with a request ID index (text available as export)
+    BINARY,
+
+    // Text history split into rotating segments with retention and compaction
+    SEGMENTED
+}
@@ -0,0 +1,12 @@
+package main.java.enums;
+
+/**
+ * Specifies when analysis results are written to the data store.
+ */
+public enum PersistencePolicy {
+    // Every request is saved, including results served from the cache
+    ALWAYS,
+
+    // Only freshly computed results are saved (cache hits are not stored again)
+    ON_MISS
+}
@@ -0,0 +1,12 @@
+package main.java.enums;
+
+/**
+ * Selects the networking front end used to accept and read client connections.
+ */
+public enum ServerFrontEnd {
+    // Blocking sockets, one handler per connection (Server + HandleRequest)
+    CLASSIC,
+
+    // Non-blocking selector event loops (NioServer)
+    NIO
+}
@@ -0,0 +1,27 @@
+package main.java.model;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * One persisted analysis: the request as stored and its result.
+ * Returned by repositories that keep structured records instead of text lines.
+ */
+public class AnalysisRecord {
+    private final AnalysisRequest request; // Request ID, type, data mode and series
+    private final SubarrayResult result;   // Analysis outcome
+
+    public AnalysisRecord(AnalysisRequest request, SubarrayResult result) {
+        this.request = request;
+        this.result = result;
+    }
+
+    public AnalysisRequest getRequest() { return request; }
+    public SubarrayResult getResult() { return result; }
+    public String getRequestId() { return request.getRequestId(); }
+
+    @Override
+    public String toString() {
+        return "AnalysisRecord[requestId=" + request.getRequestId() + ", type=" + request.getType() +
+                ", result=" + result + "]";
+    }
+}
@@ -7,24 +7,45 @@ import java.util.List;
 /**
  * Domain model representing a financial analysis request.
  * Contains all data needed to perform subarray analysis on stock data.
+ * Series are stored as primitive DoubleSeries; the List getters are compatibility views.
  */
 public class AnalysisRequest {
-    private final String requestId;        // Unique identifier for tracking
-    private final List<Double> values;     // Daily changes or computed deltas
-    private final AnalysisType type;       // MAX_PROFIT, MAX_LOSS, ZERO_RETURN
-    private final DataMode dataMode;       // DAILY_CHANGES or CLOSING_PRICES
-    private final List<Double> closingPrices; // Original prices (optional)
+    private final String requestId;           // Unique identifier for tracking
+    private final DoubleSeries values;        // Daily changes or computed deltas
+    private final AnalysisType type;          // MAX_PROFIT, MAX_LOSS, ZERO_RETURN
+    private final DataMode dataMode;          // DAILY_CHANGES or CLOSING_PRICES
+    private final DoubleSeries closingPrices; // Original prices (optional)
+    private final double target;              // Required sum for target-sum analysis (0 = zero return)
+    private final double epsilon;             // Prefix-sum match tolerance (0 = exact)
 
     /**
-     * Full constructor for requests with both data modes.
-     * Used when client provides closing prices that need conversion to daily changes.
+     * Full constructor including the target-sum parameters.
+     * Used for ZERO_RETURN requests that carry a match tolerance.
      */
-    public AnalysisRequest(String requestId, List<Double> values, AnalysisType type, DataMode dataMode, List<Double> closingPrices) {
+    public AnalysisRequest(String requestId, DoubleSeries values, AnalysisType type, DataMode dataMode,
+                           DoubleSeries closingPrices, double target, double epsilon) {
         this.requestId = requestId;
         this.values = values;
         this.type = type;
         this.dataMode = dataMode;
         this.closingPrices = closingPrices;
+        this.target = target;
+        this.epsilon = epsilon;
+    }
+
+    /**
+     * Full constructor for requests with both data modes, on primitive series.
+     * Used when client provides closing prices that need conversion to daily changes.
+     */
+    public AnalysisRequest(String requestId, DoubleSeries values, AnalysisType type, DataMode dataMode, DoubleSeries closingPrices) {
+        this(requestId, values, type, dataMode, closingPrices, 0, 0);
+    }
+
+    /**
+     * Full constructor taking boxed lists (converted once to primitive series).
+     */
+    public AnalysisRequest(String requestId, List<Double> values, AnalysisType type, DataMode dataMode, List<Double> closingPrices) {
+        this(requestId, DoubleSeries.from(values), type, dataMode, DoubleSeries.from(closingPrices));
     }
 
     /**
@@ -32,15 +53,19 @@ public class AnalysisRequest {
      * Most common use case - client provides daily changes directly.
      */
     public AnalysisRequest(String requestId, List<Double> values, AnalysisType type) {
-        this(requestId, values, type, DataMode.DAILY_CHANGES, null);
+        this(requestId, DoubleSeries.from(values), type, DataMode.DAILY_CHANGES, null);
     }
 
     // Immutable getters - all fields are final
     public String getRequestId() { return requestId; }
-    public List<Double> getValues() { return values; }
+    public DoubleSeries getSeries() { return values; }
+    public List<Double> getValues() { return values != null ? values.asList() : null; }
     public AnalysisType getType() { return type; }
     public DataMode getDataMode() { return dataMode; }
-    public List<Double> getClosingPrices() { return closingPrices; }
+    public DoubleSeries getClosingPriceSeries() { return closingPrices; }
+    public List<Double> getClosingPrices() { return closingPrices != null ? closingPrices.asList() : null; }
+    public double getTarget() { return target; }
+    public double getEpsilon() { return epsilon; }
 
     /**
      * Custom toString that conditionally includes closing prices.
@@ -55,4 +80,4 @@ public class AnalysisRequest {
         }
         return base + "]";
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,37 @@
+package main.java.model;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Outcome of one job of an analysis/batch request.
+ * Failed jobs carry an error message instead of a result; other jobs are not affected.
+ */
+public class BatchItemResult {
+    private final int index;            // Position of the job in the request
+    private final String status;        // "SUCCESS" or "ERROR"
+    private final String message;       // Error description (null on success)
+    private final String requestId;     // ID the result was saved under (null on error)
+    private final SubarrayResult data;  // Analysis result (null on error)
+
+    private BatchItemResult(int index, String status, String message, String requestId, SubarrayResult data) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+        this.requestId = requestId;
+        this.data = data;
+    }
+
+    public static BatchItemResult success(int index, String requestId, SubarrayResult data) {
+        return new BatchItemResult(index, "SUCCESS", null, requestId, data);
+    }
+
+    public static BatchItemResult error(int index, String message) {
+        return new BatchItemResult(index, "ERROR", message, null, null);
+    }
+
+    public int getIndex() { return index; }
+    public String getStatus() { return status; }
+    public String getMessage() { return message; }
+    public String getRequestId() { return requestId; }
+    public SubarrayResult getData() { return data; }
+}
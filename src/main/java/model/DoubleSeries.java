@@ -0,0 +1,180 @@
+package main.java.model;
+
+import main.java.utils.DoubleSeriesAdapter;
+import com.google.gson.annotations.JsonAdapter;
+
+import java.nio.DoubleBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable series of primitive doubles backed by a double[].
+ * Replaces List<Double> on the analysis path: 8 bytes per point instead of a boxed Double
+ * plus a reference. asList() keeps a List view for code that still expects the old API.
+ */
+@JsonAdapter(DoubleSeriesAdapter.class)
+public final class DoubleSeries {
+    private static final DoubleSeries EMPTY = new DoubleSeries(new double[0], 0);
+
+    private final double[] values; // Backing array (may be longer than size)
+    private final int size;        // Number of valid points
+
+    private DoubleSeries(double[] values, int size) {
+        this.values = values;
+        this.size = size;
+    }
+
+    /**
+     * Copies the given values into a new series.
+     */
+    public static DoubleSeries of(double... values) {
+        return new DoubleSeries(values.clone(), values.length);
+    }
+
+    /**
+     * Wraps an array without copying. The caller must not modify it afterwards.
+     */
+    public static DoubleSeries wrap(double[] values, int size) {
+        if (size < 0 || size > values.length) {
+            throw new IllegalArgumentException("Invalid series size: " + size);
+        }
+        return new DoubleSeries(values, size);
+    }
+
+    /**
+     * Converts a boxed list. Returns the original series for lists created by asList(),
+     * and null for null so optional fields stay optional.
+     */
+    public static DoubleSeries from(List<Double> list) {
+        if (list == null) {
+            return null;
+        }
+        if (list instanceof ListView view) {
+            return view.series();
+        }
+        double[] values = new double[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = list.get(i);
+        }
+        return new DoubleSeries(values, values.length);
+    }
+
+    public static DoubleSeries empty() {
+        return EMPTY;
+    }
+
+    public double get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return values[index];
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+
+    /**
+     * Direct access to the backing array for tight loops. Only the first size() entries are valid
+     * and the array must be treated as read-only.
+     */
+    public double[] array() {
+        return values;
+    }
+
+    // Exact-length copy of the values
+    public double[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    // Read-only NIO view, e.g. for bulk transfers into channels
+    public DoubleBuffer asDoubleBuffer() {
+        return DoubleBuffer.wrap(values, 0, size).slice().asReadOnlyBuffer();
+    }
+
+    // Unmodifiable List<Double> view (boxes on access) for the legacy List-based API
+    public List<Double> asList() {
+        return new ListView(this);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof DoubleSeries other)) return false;
+        return Arrays.equals(values, 0, size, other.values, 0, other.size);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < size; i++) {
+            long bits = Double.doubleToLongBits(values[i]);
+            hash = 31 * hash + (int) (bits ^ (bits >>> 32));
+        }
+        return hash;
+    }
+
+    /**
+     * Same format as List.toString() so stored results look unchanged.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder(size * 6 + 2).append('[');
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(", ");
+            sb.append(values[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    /**
+     * Growable double buffer used while parsing, so no boxed intermediate list is needed.
+     */
+    public static class Builder {
+        private double[] buffer;
+        private int size;
+
+        public Builder() {
+            this(16);
+        }
+
+        public Builder(int initialCapacity) {
+            this.buffer = new double[Math.max(initialCapacity, 1)];
+        }
+
+        public Builder add(double value) {
+            if (size == buffer.length) {
+                buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            }
+            buffer[size++] = value;
+            return this;
+        }
+
+        public int size() { return size; }
+
+        // The builder must not be used after build() - the buffer is handed over without copying
+        public DoubleSeries build() {
+            return size == 0 ? EMPTY : new DoubleSeries(buffer, size);
+        }
+    }
+
+    /**
+     * List adapter over the primitive array.
+     */
+    private static final class ListView extends AbstractList<Double> implements RandomAccess {
+        private final DoubleSeries series;
+
+        ListView(DoubleSeries series) {
+            this.series = series;
+        }
+
+        DoubleSeries series() { return series; }
+
+        @Override
+        public Double get(int index) { return series.get(index); }
+
+        @Override
+        public int size() { return series.size; }
+    }
+}
@@ -0,0 +1,17 @@
+package main.java.model;
+
+/**
+ * A range index held by the server, as reported by the analysis/index actions.
+ */
+public class IndexSummary {
+    private final String indexId; // ID to pass to the range queries and drop
+    private final int size;       // Points in the indexed series (valid indices 0 .. size - 1)
+
+    public IndexSummary(String indexId, int size) {
+        this.indexId = indexId;
+        this.size = size;
+    }
+
+    public String getIndexId() { return indexId; }
+    public int getSize() { return size; }
+}
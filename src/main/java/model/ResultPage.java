@@ -0,0 +1,21 @@
+package main.java.model;
+
+import java.util.List;
+
+/**
+ * One page of saved entries plus the cursor for the next page.
+ * nextCursor is null (and omitted from JSON) when there are no more entries.
+ */
+public class ResultPage {
+    private final List<String> entries; // Entries of this page, in save order
+    private final String nextCursor;    // Opaque position of the next entry
+
+    public ResultPage(List<String> entries, String nextCursor) {
+        this.entries = entries;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<String> getEntries() { return entries; }
+    public String getNextCursor() { return nextCursor; }
+    public boolean hasMore() { return nextCursor != null; }
+}
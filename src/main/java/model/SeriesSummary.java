@@ -0,0 +1,42 @@
+package main.java.model;
+
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Everything analysis/summary reports for one series, computed in a single pass.
+ * Empty series give (-1, -1, 0) results and zero statistics.
+ */
+public class SeriesSummary {
+    private final SubarrayResult maxProfit;  // Highest-sum subarray
+    private final SubarrayResult maxLoss;    // Lowest-sum subarray
+    private final SubarrayResult zeroReturn; // Longest subarray summing to the target (0 by default)
+    private final int count;                 // Number of values
+    private final double total;              // Sum of all values
+    private final double min;                // Smallest value
+    private final double max;                // Largest value
+    private final double mean;               // total / count
+    private final double maxDrawdown;        // Largest decline of the running total from its previous peak
+
+    public SeriesSummary(SubarrayResult maxProfit, SubarrayResult maxLoss, SubarrayResult zeroReturn,
+                         int count, double total, double min, double max, double maxDrawdown) {
+        this.maxProfit = maxProfit;
+        this.maxLoss = maxLoss;
+        this.zeroReturn = zeroReturn;
+        this.count = count;
+        this.total = total;
+        this.min = min;
+        this.max = max;
+        this.mean = count > 0 ? total / count : 0;
+        this.maxDrawdown = maxDrawdown;
+    }
+
+    public SubarrayResult getMaxProfit() { return maxProfit; }
+    public SubarrayResult getMaxLoss() { return maxLoss; }
+    public SubarrayResult getZeroReturn() { return zeroReturn; }
+    public int getCount() { return count; }
+    public double getTotal() { return total; }
+    public double getMin() { return min; }
+    public double getMax() { return max; }
+    public double getMean() { return mean; }
+    public double getMaxDrawdown() { return maxDrawdown; }
+}
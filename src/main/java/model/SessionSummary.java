@@ -0,0 +1,22 @@
+package main.java.model;
+
+import main.java.enums.DataMode;
+
+/**
+ * State of a live analysis session, as reported by the analysis/session actions.
+ */
+public class SessionSummary {
+    private final String sessionId;      // ID to pass to append, query and close
+    private final DataMode dataMode;     // Whether appended values are changes or closing prices
+    private final SeriesSummary summary; // Results over every change appended so far
+
+    public SessionSummary(String sessionId, DataMode dataMode, SeriesSummary summary) {
+        this.sessionId = sessionId;
+        this.dataMode = dataMode;
+        this.summary = summary;
+    }
+
+    public String getSessionId() { return sessionId; }
+    public DataMode getDataMode() { return dataMode; }
+    public SeriesSummary getSummary() { return summary; }
+}
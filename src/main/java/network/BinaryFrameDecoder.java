@@ -0,0 +1,73 @@
+package main.java.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Collection;
+
+/**
+ * Incremental framer for binary connections (see BinaryWireCodec): reads the two handshake
+ * bytes, then length-prefixed frames. Keeps its state between reads like JsonFrameDecoder,
+ * but payloads are copied in bulk instead of being scanned byte by byte.
+ */
+public class BinaryFrameDecoder {
+    private int handshakeRead;       // Handshake bytes consumed (magic, then version)
+    private int clientVersion = -1;  // Version offered by the client, -1 until read
+    private final ByteBuffer lengthPrefix = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+    private ByteBuffer frame;        // Payload being filled, null while reading a length prefix
+
+    /**
+     * True once the client's version byte has been read.
+     */
+    public boolean hasHandshake() {
+        return clientVersion >= 0;
+    }
+
+    public int getClientVersion() {
+        return clientVersion;
+    }
+
+    /**
+     * Heap held by the payload being read (allocated at its full length), 0 between frames.
+     */
+    public int bufferedBytes() {
+        return frame != null ? frame.capacity() : 0;
+    }
+
+    /**
+     * Consumes all remaining bytes of the buffer and adds every completed payload
+     * (little-endian, positioned at its start) to the collection.
+     */
+    public void decode(ByteBuffer buffer, Collection<? super ByteBuffer> frames) throws IOException {
+        while (handshakeRead < 2 && buffer.hasRemaining()) {
+            byte b = buffer.get();
+            if (handshakeRead++ == 0) {
+                if (b != BinaryWireCodec.MAGIC) {
+                    throw new IOException("Binary connection must start with the protocol magic byte");
+                }
+            } else {
+                clientVersion = b & 0xFF;
+            }
+        }
+        while (buffer.hasRemaining()) {
+            if (frame == null) {
+                while (lengthPrefix.hasRemaining() && buffer.hasRemaining()) {
+                    lengthPrefix.put(buffer.get());
+                }
+                if (lengthPrefix.hasRemaining()) {
+                    return;
+                }
+                frame = ByteBuffer.allocate(BinaryWireCodec.checkLength(lengthPrefix.getInt(0)));
+                lengthPrefix.clear();
+            }
+            int n = Math.min(frame.remaining(), buffer.remaining());
+            frame.put(frame.position(), buffer, buffer.position(), n);
+            frame.position(frame.position() + n);
+            buffer.position(buffer.position() + n);
+            if (!frame.hasRemaining()) {
+                frames.add(frame.flip().order(ByteOrder.LITTLE_ENDIAN));
+                frame = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package main.java.network;
+
+import main.java.controller.AnalysisController;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.model.DoubleSeries;
+import AlgorithmModule.SubarrayResult;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Length-prefixed binary wire protocol, negotiated per connection as an alternative to JSON.
+ * Values travel as raw doubles, so large series skip decimal parsing and formatting, and a
+ * frame is delimited by its length instead of a scan over every character.
+ *
+ * Handshake: the client opens with [byte MAGIC][byte version]; the server answers
+ *            [byte MAGIC][byte accepted version], 0 = refused (the connection is then closed).
+ * Frame:     [int payloadLength][payload], all numbers little-endian.
+ * Request:   action (byte ACTION_* code), data mode (byte MODE_* code, -1 = null),
+ *            epsilon (double, NaN = not set), values and closing prices (int count, -1 = null, then raw doubles).
+ * Reply:     status (byte 0 = SUCCESS, 1 = ERROR). SUCCESS is followed by the result
+ *            (int start, int end, double total) and the request ID, ERROR by the message
+ *            (both strings as int length, -1 = null, then UTF-8).
+ * Binary connections stay open until the client closes them or the per-connection request cap is reached.
+ * Action and data mode codes are fixed here, independent of the enums' declaration order.
+ */
+public final class BinaryWireCodec {
+    public static final byte MAGIC = (byte) 0xB1; // Never the first byte of a JSON request
+    public static final byte VERSION = 1;
+    public static final int MAX_FRAME_BYTES = JsonFrameDecoder.DEFAULT_MAX_FRAME_BYTES;
+    public static final byte ACTION_MAX_PROFIT = 0;
+    public static final byte ACTION_MAX_LOSS = 1;
+    public static final byte ACTION_ZERO_RETURN = 2;
+    public static final byte MODE_DAILY_CHANGES = 0;
+    public static final byte MODE_CLOSING_PRICES = 1;
+    private static final byte SUCCESS = 0;
+    private static final byte ERROR = 1;
+
+    private BinaryWireCodec() {}
+
+    /**
+     * Version the server speaks with a client offering clientVersion, 0 if it cannot serve it.
+     */
+    public static byte negotiate(int clientVersion) {
+        return clientVersion >= 1 ? VERSION : 0;
+    }
+
+    /**
+     * Handshake bytes announcing a version (sent by the client, answered by the server).
+     */
+    public static ByteBuffer handshake(byte version) {
+        return ByteBuffer.wrap(new byte[] {MAGIC, version});
+    }
+
+    /**
+     * Reads one frame payload from a blocking stream; returns null when the client closed the
+     * connection between frames.
+     */
+    public static ByteBuffer readFrame(InputStream in) throws IOException {
+        byte[] prefix = in.readNBytes(4);
+        if (prefix.length == 0) {
+            return null;
+        }
+        if (prefix.length < 4) {
+            throw new EOFException("Connection closed inside a frame header");
+        }
+        int length = checkLength(ByteBuffer.wrap(prefix).order(ByteOrder.LITTLE_ENDIAN).getInt());
+        byte[] payload = in.readNBytes(length);
+        if (payload.length < length) {
+            throw new EOFException("Connection closed inside a frame");
+        }
+        return ByteBuffer.wrap(payload).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Validates a frame length read from the wire.
+     */
+    static int checkLength(int length) throws IOException {
+        if (length < 0 || length > MAX_FRAME_BYTES) {
+            throw new IOException("Invalid frame length: " + length);
+        }
+        return length;
+    }
+
+    /**
+     * Encodes a complete request frame (client side).
+     */
+    public static ByteBuffer encodeRequest(AnalysisType type, DataMode dataMode, double[] values,
+                                           double[] closingPrices, Double epsilon) {
+        int payloadLength = 2 + 8 + seriesLength(values) + seriesLength(closingPrices);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + payloadLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(payloadLength);
+        buffer.put(code(type));
+        buffer.put(dataMode == null ? -1 : dataMode == DataMode.CLOSING_PRICES ? MODE_CLOSING_PRICES : MODE_DAILY_CHANGES);
+        buffer.putDouble(epsilon != null ? epsilon : Double.NaN);
+        putSeries(buffer, values);
+        putSeries(buffer, closingPrices);
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a request payload into the same action and body the JSON path produces.
+     * Binary requests always ask for keep-alive; the dispatcher still applies the request cap.
+     */
+    public static Request<Object> decodeRequest(ByteBuffer payload, AnalysisController controller) {
+        ByteBuffer in = payload.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        try {
+            String action = action(in.get());
+            DataMode dataMode = dataMode(in.get());
+            double epsilon = in.getDouble();
+            DoubleSeries values = getSeries(in);
+            DoubleSeries closingPrices = getSeries(in);
+
+            Object body = controller.createSeriesBody(values, dataMode, closingPrices, Double.isNaN(epsilon) ? null : epsilon);
+            return new Request<>(new Request.Headers(action, Request.Headers.KEEP_ALIVE), body);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated request frame");
+        }
+    }
+
+    /**
+     * Encodes a complete reply frame. Only results of the single-series actions have a binary form.
+     */
+    public static ByteBuffer encodeReply(Response<?> response) {
+        if ("SUCCESS".equals(response.getStatus()) && !(response.getData() instanceof SubarrayResult)) {
+            return encodeReply(Response.error("Response has no binary form"));
+        }
+        boolean success = "SUCCESS".equals(response.getStatus());
+        byte[] text = utf8(success ? response.getRequestId() : response.getMessage());
+        int payloadLength = 1 + (success ? 16 : 0) + 4 + (text != null ? text.length : 0);
+        ByteBuffer buffer = ByteBuffer.allocate(4 + payloadLength).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(payloadLength);
+        buffer.put(success ? SUCCESS : ERROR);
+        if (success) {
+            SubarrayResult result = (SubarrayResult) response.getData();
+            buffer.putInt(result.getStartIndex()).putInt(result.getEndIndex()).putDouble(result.getTotal());
+        }
+        buffer.putInt(text != null ? text.length : -1);
+        if (text != null) {
+            buffer.put(text);
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * Decodes a reply payload (client side).
+     */
+    public static Response<SubarrayResult> decodeReply(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        if (in.get() == ERROR) {
+            return Response.error(getString(in));
+        }
+        SubarrayResult result = new SubarrayResult(in.getInt(), in.getInt(), in.getDouble());
+        Response<SubarrayResult> response = Response.success(result);
+        response.setRequestId(getString(in));
+        return response;
+    }
+
+    private static byte code(AnalysisType type) {
+        return switch (type) {
+            case MAX_PROFIT -> ACTION_MAX_PROFIT;
+            case MAX_LOSS -> ACTION_MAX_LOSS;
+            case ZERO_RETURN -> ACTION_ZERO_RETURN;
+            case WINDOW_MAX_PROFIT, WINDOW_MAX_LOSS ->
+                    throw new IllegalArgumentException("Windowed analysis is not available over the binary protocol");
+        };
+    }
+
+    private static String action(byte code) {
+        return switch (code) {
+            case ACTION_MAX_PROFIT -> "analysis/maxProfit";
+            case ACTION_MAX_LOSS -> "analysis/maxLoss";
+            case ACTION_ZERO_RETURN -> "analysis/zeroReturn";
+            default -> throw new IllegalArgumentException("Unknown action code: " + code);
+        };
+    }
+
+    private static DataMode dataMode(byte code) {
+        return switch (code) {
+            case -1 -> null;
+            case MODE_DAILY_CHANGES -> DataMode.DAILY_CHANGES;
+            case MODE_CLOSING_PRICES -> DataMode.CLOSING_PRICES;
+            default -> throw new IllegalArgumentException("Unknown data mode: " + code);
+        };
+    }
+
+    private static int seriesLength(double[] series) {
+        return 4 + (series != null ? series.length * Double.BYTES : 0);
+    }
+
+    // Bulk copy of the primitive array
+    private static void putSeries(ByteBuffer buffer, double[] series) {
+        if (series == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(series.length);
+        buffer.asDoubleBuffer().put(series);
+        buffer.position(buffer.position() + series.length * Double.BYTES);
+    }
+
+    private static DoubleSeries getSeries(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+        if (count > in.remaining() / Double.BYTES) {
+            throw new BufferUnderflowException();
+        }
+        double[] values = new double[count];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + count * Double.BYTES);
+        return DoubleSeries.wrap(values, count);
+    }
+
+    private static byte[] utf8(String text) {
+        return text != null ? text.getBytes(StandardCharsets.UTF_8) : null;
+    }
+
+    private static String getString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package main.java.network;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size worker pool with a bounded wait queue.
+ * When all workers are busy and the queue is full, new connections are rejected
+ * with an error response instead of spawning more threads (backpressure).
+ */
+public class BoundedPoolExecutor implements ConnectionExecutor {
+    private final ThreadPoolExecutor pool; // Worker threads + bounded queue
+
+    public BoundedPoolExecutor(int poolSize, int queueCapacity) {
+        if (poolSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Pool size and queue capacity must be positive");
+        }
+        this.pool = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new WorkerThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy() // Surface saturation as RejectedExecutionException
+        );
+    }
+
+    /**
+     * Queues the task, or reports the rejection so the client can be answered with an error.
+     */
+    @Override
+    public void execute(Runnable task, Consumer<String> onReject) {
+        try {
+            pool.execute(task);
+        } catch (RejectedExecutionException e) {
+            onReject.accept("Server busy: connection limit reached, please retry later");
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Names worker threads so they are easy to identify in thread dumps.
+     */
+    private static class WorkerThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "connection-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
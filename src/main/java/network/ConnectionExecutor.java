@@ -0,0 +1,31 @@
+package main.java.network;
+
+import java.util.function.Consumer;
+
+/**
+ * Execution layer for accepted client connections.
+ * Decouples the accept loop in Server from the threading model used to run handlers.
+ */
+public interface ConnectionExecutor {
+
+    // Run a connection task, or call onReject with a reason if the executor is saturated.
+    void execute(Runnable task, Consumer<String> onReject);
+
+    // Run the handler for one accepted connection (or reject it if the executor is saturated).
+    default void execute(HandleRequest handler) {
+        execute(handler, handler::reject);
+    }
+
+    // Stop accepting new work and release executor threads.
+    void shutdown();
+
+    /**
+     * Creates the executor selected by the startup configuration.
+     */
+    static ConnectionExecutor create(ServerConfig config) {
+        return switch (config.getExecutionMode()) {
+            case BOUNDED_POOL -> new BoundedPoolExecutor(config.getPoolSize(), config.getQueueCapacity());
+            case VIRTUAL_THREADS -> new VirtualThreadExecutor(config.getMaxConnections());
+        };
+    }
+}
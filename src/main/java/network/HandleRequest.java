@@ -1,64 +1,106 @@
 package main.java.network;
 
-import main.java.controller.AnalysisController;
-import main.java.controller.FactoryController;
 import com.google.gson.Gson;
-import com.google.gson.reflect.TypeToken;
-import java.lang.reflect.Type;
 import java.io.*;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.ByteBuffer;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.nio.charset.StandardCharsets;
 
 /**
  * Handles individual client requests in separate threads.
- * Each instance processes one client connection from start to finish.
+ * Each instance processes one client connection from start to finish: a single request,
+ * or a sequence of requests when the client sends "connection": "keep-alive".
  */
 public class HandleRequest implements Runnable {
+    private static final int OUTPUT_BUFFER_BYTES = 64 * 1024; // Large responses reach the socket in chunks of this size
+    private static final int MAX_PIPELINED_IN_FLIGHT = 16;     // Requests running at once on a pipelined connection
 
     private final Socket socket;        // Connection to specific client
     private final Gson gson = new Gson(); // JSON converter (thread-safe)
+    private final RequestDispatcher dispatcher = new RequestDispatcher(); // Parse → controller → JSON
 
-    public HandleRequest(Socket socket) {
+    private final int keepAliveTimeoutMs; // Idle time allowed between keep-alive requests
+    private final int maxRequests;        // Requests served before a keep-alive connection is closed
+    private final ConnectionExecutor executor; // Runs pipelined requests (the server's shared executor)
+
+    public HandleRequest(Socket socket, ServerConfig config, ConnectionExecutor executor) {
         this.socket = socket;
+        this.keepAliveTimeoutMs = config.getKeepAliveTimeoutMs();
+        this.maxRequests = config.getMaxRequestsPerConnection();
+        this.executor = executor;
     }
 
     @Override
     public void run() {
         // Try-with-resources ensures streams auto-close
         try (
+                // Raw input, so the first byte can select the protocol before any text is decoded
+                InputStream input = new BufferedInputStream(socket.getInputStream());
                 // Read FROM client - using InputStreamReader directly for better control
-                BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream()));
-                // Write TO client (autoFlush=true sends data immediately)
-                PrintWriter writer = new PrintWriter(socket.getOutputStream(), true)
+                BufferedReader reader = new BufferedReader(new InputStreamReader(input));
+                // Write TO client - responses are serialized straight into this buffer, which
+                // passes each full chunk to the socket while the rest is still being written
+                Writer writer = new BufferedWriter(new OutputStreamWriter(
+                        new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_BYTES), StandardCharsets.UTF_8))
         ) {
+            // Binary wire protocol (see BinaryWireCodec) - the JSON reader is never used
+            input.mark(1);
+            int first = input.read();
+            input.reset();
+            if (first == (BinaryWireCodec.MAGIC & 0xFF)) {
+                serveBinary(input);
+                return;
+            }
 
-            // Step 1: Read JSON request from client
-            String jsonRequest = readCompleteJson(reader);
-            System.out.println("Received request: " + jsonRequest);
+            int served = 0;
+            boolean keepAlive;
 
-            // Validate that we received actual JSON
-            if (jsonRequest == null || jsonRequest.trim().isEmpty()) {
-                throw new IOException("Received empty or null request");
-            }
+            // One iteration per request; plain clients leave after the first one
+            do {
+                // Step 1: Read JSON request from client
+                String jsonRequest = readCompleteJson(reader);
 
-            // Step 2: Parse JSON to Request object
-            // TypeToken needed because Request<Object> is generic type
-            Type requestType = new TypeToken<Request<Object>>(){}.getType();
-            Request<Object> request = gson.fromJson(jsonRequest, requestType);
+                // Keep-alive client closed the connection between requests
+                if (served > 0 && (jsonRequest == null || jsonRequest.trim().isEmpty())) {
+                    break;
+                }
+                System.out.println("Received request: " + jsonRequest);
 
-            // Step 3: Extract action and body data
-            String action = request.getHeaders().getAction(); // "analysis/maxProfit"
-            String bodyJson = gson.toJson(request.getBody()); // Convert back to JSON for controller
+                // Validate that we received actual JSON
+                if (jsonRequest == null || jsonRequest.trim().isEmpty()) {
+                    throw new IOException("Received empty or null request");
+                }
 
-            // Step 4: Get controller and process request
-            AnalysisController controller = FactoryController.getAnalysisController();
-            Response<?> response = controller.handle(action, bodyJson);
+                // Step 2: Parse JSON to Request object
+                Request<Object> request = dispatcher.parse(jsonRequest);
 
-            // Step 5: Send response back to client
-            String responseJson = gson.toJson(response);
-            writer.println(responseJson);
-            writer.flush(); // Ensure data is sent immediately
-            System.out.println("Sent response: " + responseJson);
+                // Pipelined client: the rest of the connection runs requests concurrently
+                if (request.getHeaders().isPipelined()) {
+                    servePipelined(reader, writer, request, served);
+                    break;
+                }
+
+                // Step 3: Route action and body to the controller
+                Response<?> response = dispatcher.dispatch(request);
+                served++;
+
+                // Keep the socket open only if the client asked for it and the cap is not reached
+                keepAlive = dispatcher.keepAlive(request, response, served, maxRequests);
+                if (keepAlive) {
+                    socket.setSoTimeout(keepAliveTimeoutMs); // Idle limit while waiting for the next request
+                }
 
+                // Step 4: Send response back to client, never held as one string
+                send(writer, response);
+            } while (keepAlive);
+
+        } catch (SocketTimeoutException e) {
+            // Keep-alive connection stayed idle too long - close it quietly
+            System.out.println("Keep-alive connection idle for " + keepAliveTimeoutMs + " ms");
         } catch (Exception e) {
             System.err.println("Error handling request: " + e.getMessage());
             e.printStackTrace();
@@ -85,6 +127,221 @@ public class HandleRequest implements Runnable {
         }
     }
 
+    /**
+     * Serves the rest of a pipelined connection: keeps reading requests while earlier ones run on
+     * the server's executor, whose pool size and queue bound them like connections do, and writes
+     * each response as soon as it is ready, tagged with the request's correlationId. A request that
+     * cannot be parsed or that the executor rejects gets an error response with its correlationId,
+     * and the connection goes on. The connection is closed only after every started request has
+     * been answered.
+     */
+    private void servePipelined(BufferedReader reader, Writer writer, Request<Object> first, int served)
+            throws IOException, InterruptedException {
+        socket.setSoTimeout(keepAliveTimeoutMs); // Idle limit while waiting for the next request
+        Pipeline pipeline = new Pipeline(writer);
+        try {
+            pipeline.submit(first, ++served);
+            while (served < maxRequests) { // Past the cap, the last response says "close"
+                if (!hasBufferedRequest(reader)) {
+                    pipeline.runQueued(); // Client is waiting: answer what no worker has picked up yet
+                }
+                String jsonRequest = readCompleteJson(reader);
+                if (jsonRequest == null || jsonRequest.trim().isEmpty()) {
+                    break;
+                }
+                System.out.println("Received request: " + jsonRequest);
+                int sequence = ++served;
+                Request<Object> request;
+                try {
+                    request = dispatcher.parse(jsonRequest);
+                } catch (RuntimeException e) {
+                    Response<?> error = dispatcher.parseError(jsonRequest, e);
+                    error.setConnection(sequence < maxRequests ? Request.Headers.PIPELINE : Request.Headers.CLOSE);
+                    send(writer, error);
+                    continue;
+                }
+                pipeline.submit(request, sequence);
+            }
+        } finally {
+            pipeline.finish();
+        }
+    }
+
+    // True if part of another request has already arrived; line breaks between requests are consumed
+    private static boolean hasBufferedRequest(BufferedReader reader) throws IOException {
+        while (reader.ready()) {
+            reader.mark(1);
+            if (!Character.isWhitespace(reader.read())) {
+                reader.reset();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Writes one response line; pipelined responses finish on several threads, one at a time
+    private void send(Writer writer, Response<?> response) throws IOException {
+        synchronized (writer) {
+            dispatcher.writeJson(response, writer);
+            writer.write(System.lineSeparator());
+            writer.flush(); // Send the last chunk immediately
+        }
+        System.out.println("Sent response: " + response.getStatus()
+                + (response.isStreaming() ? " (streamed)" : "")
+                + (response.getCorrelationId() != null ? " [" + response.getCorrelationId() + "]" : ""));
+    }
+
+    /**
+     * Serves a connection that opened with the binary handshake: length-prefixed frames, each
+     * routed through the same dispatcher and controller as JSON, until the client closes the
+     * connection or the request cap is reached.
+     */
+    private void serveBinary(InputStream input) throws IOException {
+        OutputStream out = new BufferedOutputStream(socket.getOutputStream(), OUTPUT_BUFFER_BYTES);
+        input.read(); // Magic byte
+        byte version = BinaryWireCodec.negotiate(input.read());
+        writeFully(out, BinaryWireCodec.handshake(version));
+        if (version == 0) {
+            System.out.println("Refused binary client: unsupported protocol version");
+            return;
+        }
+        socket.setSoTimeout(keepAliveTimeoutMs); // Idle limit while waiting for the next frame
+
+        int served = 0;
+        boolean keepAlive = true;
+        while (keepAlive) {
+            ByteBuffer payload;
+            try {
+                payload = BinaryWireCodec.readFrame(input);
+            } catch (SocketTimeoutException e) {
+                throw e;
+            } catch (IOException e) {
+                // Framing is lost: answer in binary, then close
+                writeFully(out, BinaryWireCodec.encodeReply(Response.error("Server error: " + e.getMessage())));
+                return;
+            }
+            if (payload == null) {
+                break; // Client closed the connection
+            }
+            served++;
+
+            Response<?> response;
+            try {
+                Request<Object> request = dispatcher.parseBinary(payload);
+                response = dispatcher.dispatch(request);
+                keepAlive = dispatcher.keepAlive(request, response, served, maxRequests);
+            } catch (IllegalArgumentException e) {
+                response = Response.error("Error processing request: " + e.getMessage());
+                keepAlive = served < maxRequests;
+            }
+            writeFully(out, BinaryWireCodec.encodeReply(response));
+            System.out.println("Sent binary response: " + response.getStatus());
+        }
+    }
+
+    private static void writeFully(OutputStream out, ByteBuffer frame) throws IOException {
+        out.write(frame.array(), frame.arrayOffset() + frame.position(), frame.remaining());
+        out.flush();
+    }
+
+    /**
+     * Requests of one pipelined connection. Each submitted request is queued here and the executor
+     * gets a task that runs the next queued one. When MAX_PIPELINED_IN_FLIGHT requests are
+     * unanswered, or the client has nothing more to send, the reading thread runs queued requests
+     * itself instead of waiting, so a bounded pool whose workers are all reading pipelined
+     * connections still makes progress.
+     */
+    private final class Pipeline {
+        private final Writer writer;
+        private final Queue<Job> queued = new ConcurrentLinkedQueue<>(); // Not yet picked up by a worker
+        private final Semaphore slots = new Semaphore(MAX_PIPELINED_IN_FLIGHT);
+
+        Pipeline(Writer writer) {
+            this.writer = writer;
+        }
+
+        void submit(Request<Object> request, int sequence) throws InterruptedException {
+            while (!slots.tryAcquire()) {
+                Job next = queued.poll();
+                if (next == null) {
+                    slots.acquire(); // Every unanswered request is running on a worker
+                    break;
+                }
+                next.run(null);
+            }
+            queued.add(new Job(request, sequence));
+            executor.execute(() -> runNext(null), this::runNext);
+        }
+
+        // Runs the requests no worker has picked up yet on this thread
+        void runQueued() {
+            for (Job next; (next = queued.poll()) != null; ) {
+                next.run(null);
+            }
+        }
+
+        // Answers the queued requests, then waits for those still running on workers
+        void finish() throws InterruptedException {
+            runQueued();
+            slots.acquire(MAX_PIPELINED_IN_FLIGHT);
+        }
+
+        // Executor task, or its rejection with the reason
+        private void runNext(String rejection) {
+            Job next = queued.poll();
+            if (next != null) {
+                next.run(rejection);
+            }
+        }
+
+        private final class Job {
+            private final Request<Object> request;
+            private final int sequence; // Position on the connection, for the request cap
+
+            Job(Request<Object> request, int sequence) {
+                this.request = request;
+                this.sequence = sequence;
+            }
+
+            void run(String rejection) {
+                try {
+                    Response<?> response;
+                    if (rejection == null) {
+                        response = dispatcher.dispatch(request);
+                    } else {
+                        response = Response.error(rejection);
+                        response.setCorrelationId(request.getHeaders().getCorrelationId());
+                    }
+                    dispatcher.keepAlive(request, response, sequence, maxRequests);
+                    send(writer, response);
+                } catch (IOException e) {
+                    System.err.println("Error writing response: " + e.getMessage());
+                } finally {
+                    slots.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Answers the client with an error and closes the connection without processing it.
+     * Used by the executor when it cannot accept more work (backpressure).
+     */
+    public void reject(String message) {
+        try (PrintWriter writer = new PrintWriter(socket.getOutputStream(), true)) {
+            writer.println(gson.toJson(Response.error(message)));
+            System.out.println("Rejected client: " + message);
+        } catch (IOException e) {
+            System.err.println("Failed to send rejection: " + e.getMessage());
+        } finally {
+            try {
+                socket.close();
+            } catch (IOException e) {
+                System.err.println("Error closing socket: " + e.getMessage());
+            }
+        }
+    }
+
     /**
      * Read complete JSON from client - handles multi-line JSON and ensures complete transmission
      */
@@ -0,0 +1,123 @@
+package main.java.network;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Incremental framer that splits a byte stream into complete JSON objects.
+ * Uses the same brace/quote counting as HandleRequest.readCompleteJson, but keeps its state
+ * between reads so partial frames from a non-blocking channel can be resumed.
+ * Input that does not start with '{' is collected up to the next newline and passed on as-is,
+ * so the dispatcher can answer it with a parse error.
+ */
+public class JsonFrameDecoder {
+    public static final int DEFAULT_MAX_FRAME_BYTES = 128 * 1024 * 1024;
+
+    private final int maxFrameBytes; // Protects the heap from unbounded frames
+    private byte[] frame = new byte[1024];
+    private int length;
+    private int braceCount;
+    private boolean jsonStarted;
+    private boolean rawLine;         // Non-JSON input, framed by newline
+    private boolean inString;
+    private boolean escaped;
+
+    public JsonFrameDecoder() {
+        this(DEFAULT_MAX_FRAME_BYTES);
+    }
+
+    public JsonFrameDecoder(int maxFrameBytes) {
+        this.maxFrameBytes = maxFrameBytes;
+    }
+
+    /**
+     * Consumes all remaining bytes of the buffer and adds every completed frame to the collection.
+     * Braces and quotes are ASCII, so counting on raw UTF-8 bytes is safe.
+     */
+    public void decode(ByteBuffer buffer, Collection<? super String> frames) throws IOException {
+        while (buffer.hasRemaining()) {
+            byte b = buffer.get();
+
+            // Skip whitespace between frames and decide how the next frame is delimited
+            if (!jsonStarted && !rawLine) {
+                if (b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                    continue;
+                }
+                if (b == '{') {
+                    jsonStarted = true;
+                } else {
+                    rawLine = true;
+                }
+            }
+
+            append(b);
+
+            if (rawLine) {
+                if (b == '\n') {
+                    frames.add(emit());
+                }
+                continue;
+            }
+
+            // Handle string escaping
+            if (escaped) {
+                escaped = false;
+                continue;
+            }
+            if (b == '\\' && inString) {
+                escaped = true;
+                continue;
+            }
+
+            // Handle strings (ignore braces inside strings)
+            if (b == '"') {
+                inString = !inString;
+                continue;
+            }
+            if (inString) {
+                continue;
+            }
+
+            // Count braces to determine when JSON is complete
+            if (b == '{') {
+                braceCount++;
+            } else if (b == '}' && --braceCount == 0) {
+                frames.add(emit());
+            }
+        }
+    }
+
+    /**
+     * Bytes of the frame decoded so far (0 between frames).
+     */
+    public int bufferedBytes() {
+        return length;
+    }
+
+    private void append(byte b) throws IOException {
+        if (length == frame.length) {
+            if (length >= maxFrameBytes) {
+                throw new IOException("Request exceeds " + maxFrameBytes + " bytes");
+            }
+            frame = Arrays.copyOf(frame, (int) Math.min((long) length * 2, maxFrameBytes));
+        }
+        frame[length++] = b;
+    }
+
+    private String emit() {
+        String json = new String(frame, 0, length, StandardCharsets.UTF_8).trim();
+        length = 0;
+        braceCount = 0;
+        jsonStarted = false;
+        rawLine = false;
+        inString = false;
+        escaped = false;
+        if (frame.length > 64 * 1024) {
+            frame = new byte[1024]; // Don't pin a large buffer after one big request
+        }
+        return json;
+    }
+}
@@ -0,0 +1,595 @@
+package main.java.network;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking alternative to Server built on java.nio selectors.
+ * The calling thread accepts connections and spreads them over a few event-loop threads;
+ * each loop reads into a direct buffer, frames requests with JsonFrameDecoder and hands
+ * complete frames to the worker executor. Protocol (single request or keep-alive) matches
+ * the classic server, so both front ends can be compared under the same load.
+ */
+public class NioServer {
+    private static final int READ_BUFFER_BYTES = 64 * 1024; // Direct buffer per event loop
+    private static final int MAX_PENDING_FRAMES = 64;        // Stop reading when a client runs this far ahead
+    private static final int MAX_PENDING_BYTES = 8 * 1024 * 1024; // ... or has this much queued and partly read
+    private static final long IDLE_CHECK_MS = 1000;
+    private static final int STREAM_CHUNK_BYTES = 64 * 1024; // Streamed responses are queued in chunks of this size
+    private static final int STREAM_CHUNKS_IN_FLIGHT = 4;    // Unwritten chunks before the worker waits
+    private static final int MAX_PIPELINED_IN_FLIGHT = 16;   // Requests running at once on a pipelined connection
+
+    private final ServerConfig config;                 // Port, loops, keep-alive limits
+    private final ConnectionExecutor workers;          // Runs controller calls off the event loops
+    private final RequestDispatcher dispatcher = new RequestDispatcher();
+    private final EventLoop[] loops;
+
+    public NioServer(ServerConfig config) {
+        this.config = config;
+        this.workers = ConnectionExecutor.create(config);
+        this.loops = new EventLoop[config.getEventLoops()];
+    }
+
+    /**
+     * Starts the event loops, then accepts clients on the calling thread.
+     * Runs indefinitely until IOException occurs.
+     */
+    public void start() {
+        try (ServerSocketChannel serverChannel = ServerSocketChannel.open()) {
+            serverChannel.bind(new InetSocketAddress(config.getPort()));
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new EventLoop();
+                Thread thread = new Thread(loops[i], "nio-event-loop-" + (i + 1));
+                thread.setDaemon(true);
+                thread.start();
+            }
+
+            System.out.println("✅ NIO server started successfully!");
+            System.out.println("📡 Listening on port: " + config.getPort());
+            System.out.println("🔁 Event loops: " + loops.length + ", execution mode: " + config.getExecutionMode());
+            System.out.println("🔄 Ready to accept client connections...");
+
+            // Blocking accept; connections are distributed round-robin over the loops
+            int next = 0;
+            while (true) {
+                SocketChannel channel = serverChannel.accept();
+                System.out.println("New client connected: " + channel.getRemoteAddress());
+                loops[next].register(channel);
+                next = (next + 1) % loops.length;
+            }
+        } catch (IOException e) {
+            System.err.println("Server error: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            workers.shutdown();
+        }
+    }
+
+    /**
+     * Per-connection state, only touched by the owning event loop thread.
+     */
+    private static class Connection {
+        final SocketChannel channel;
+        final JsonFrameDecoder decoder = new JsonFrameDecoder();
+        final Queue<Object> pendingFrames = new ArrayDeque<>(); // Framed requests waiting their turn (JSON text or binary payload)
+        long pendingBytes;         // Size of pendingFrames
+        BinaryFrameDecoder binary; // Set when the connection opened with BinaryWireCodec.MAGIC
+        boolean protocolKnown;     // First byte has been seen
+        final Queue<ByteBuffer> outbound = new ArrayDeque<>();  // Encoded responses not yet written
+        SelectionKey key;
+        int served;               // Requests answered so far
+        int started;              // Requests handed to workers so far
+        int inFlight;             // Requests running on workers (at most one unless pipelined, so responses stay in order)
+        boolean pipelined;        // Client asked for pipelining: requests run concurrently, answered as they complete
+        boolean inputClosed;      // Client shut down its side
+        boolean closeAfterWrite;  // Last response queued - close once it is flushed
+        Semaphore streamCredits;  // Set while a streamed response is being produced (released per written chunk)
+        long lastActivity = System.currentTimeMillis();
+
+        Connection(SocketChannel channel) {
+            this.channel = channel;
+        }
+    }
+
+    /**
+     * Result of running one request on a worker thread.
+     */
+    // Heap held by a queued frame (JSON text or binary payload)
+    private static long frameBytes(Object frame) {
+        return frame instanceof ByteBuffer payload ? payload.remaining() : ((String) frame).length();
+    }
+
+    private static class Reply {
+        final ByteBuffer payload; // Remaining bytes of the response, including the line break
+        final String log;         // What to print as sent
+        final boolean keepAlive;
+
+        Reply(String json, boolean keepAlive) {
+            this(ByteBuffer.wrap((json + System.lineSeparator()).getBytes(StandardCharsets.UTF_8)), json, keepAlive);
+        }
+
+        Reply(ByteBuffer payload, String log, boolean keepAlive) {
+            this.payload = payload;
+            this.log = log;
+            this.keepAlive = keepAlive;
+        }
+    }
+
+    /**
+     * Collects a serialized response into fixed-size chunks and hands each full chunk to a sink.
+     */
+    private static class ChunkedOutputStream extends OutputStream {
+        interface ChunkSink {
+            void accept(ByteBuffer chunk) throws IOException;
+        }
+
+        private final ChunkSink sink;
+        private byte[] buffer = new byte[STREAM_CHUNK_BYTES];
+        private int count;
+        private boolean emitted; // At least one chunk was handed to the sink
+
+        ChunkedOutputStream(ChunkSink sink) {
+            this.sink = sink;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (count == buffer.length) {
+                emit();
+            }
+            buffer[count++] = (byte) b;
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                if (count == buffer.length) {
+                    emit();
+                }
+                int n = Math.min(length, buffer.length - count);
+                System.arraycopy(bytes, offset, buffer, count, n);
+                count += n;
+                offset += n;
+                length -= n;
+            }
+        }
+
+        private void emit() throws IOException {
+            sink.accept(ByteBuffer.wrap(buffer, 0, count));
+            emitted = true;
+            buffer = new byte[STREAM_CHUNK_BYTES]; // Queued chunk is still being written
+            count = 0;
+        }
+
+        boolean emitted() {
+            return emitted;
+        }
+
+        // Bytes not yet handed to the sink, followed by the line break
+        ByteBuffer tail() {
+            byte[] lineBreak = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+            ByteBuffer tail = ByteBuffer.allocate(count + lineBreak.length);
+            tail.put(buffer, 0, count).put(lineBreak).flip();
+            return tail;
+        }
+    }
+
+    /**
+     * Single-threaded selector loop owning a subset of the connections.
+     * Other threads interact with it only through the register/submit queues.
+     */
+    private class EventLoop implements Runnable {
+        private final Selector selector;
+        private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_BYTES);
+        private long lastIdleCheck = System.currentTimeMillis();
+
+        EventLoop() throws IOException {
+            this.selector = Selector.open();
+        }
+
+        void register(SocketChannel channel) {
+            newChannels.add(channel);
+            selector.wakeup();
+        }
+
+        void submit(Runnable task) {
+            tasks.add(task);
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                try {
+                    selector.select(IDLE_CHECK_MS);
+                    registerNewChannels();
+                    runTasks();
+
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        if (key.isValid() && key.isReadable()) {
+                            read(connection);
+                        }
+                        if (key.isValid() && key.isWritable()) {
+                            flush(connection);
+                        }
+                    }
+                    closeIdleConnections();
+                } catch (Exception e) {
+                    System.err.println("Event loop error: " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+        }
+
+        private void registerNewChannels() {
+            SocketChannel channel;
+            while ((channel = newChannels.poll()) != null) {
+                Connection connection = new Connection(channel);
+                try {
+                    channel.configureBlocking(false);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    System.err.println("Failed to register client: " + e.getMessage());
+                    close(connection);
+                }
+            }
+        }
+
+        private void runTasks() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+
+        private void read(Connection connection) {
+            try {
+                readBuffer.clear();
+                int read = connection.channel.read(readBuffer);
+                if (read < 0) {
+                    connection.inputClosed = true;
+                    if (connection.inFlight == 0 && connection.outbound.isEmpty()) {
+                        close(connection);
+                        return;
+                    }
+                } else {
+                    readBuffer.flip();
+                    decode(connection);
+                    connection.lastActivity = System.currentTimeMillis();
+                }
+                dispatchNext(connection);
+                updateInterest(connection);
+            } catch (IOException e) {
+                // Oversized frame or broken socket: answer if possible, then close
+                respond(connection, errorReply(connection, "Server error: " + e.getMessage()));
+            }
+        }
+
+        /**
+         * Frames the bytes just read. The first byte of a connection selects the protocol:
+         * the binary magic byte, or JSON for anything else.
+         */
+        private void decode(Connection connection) throws IOException {
+            if (!connection.protocolKnown && readBuffer.hasRemaining()) {
+                connection.protocolKnown = true;
+                if (readBuffer.get(readBuffer.position()) == BinaryWireCodec.MAGIC) {
+                    connection.binary = new BinaryFrameDecoder();
+                }
+            }
+            List<Object> framed = new ArrayList<>();
+            if (connection.binary == null) {
+                connection.decoder.decode(readBuffer, framed);
+                queueFrames(connection, framed);
+                return;
+            }
+            boolean negotiated = connection.binary.hasHandshake();
+            connection.binary.decode(readBuffer, framed);
+            queueFrames(connection, framed);
+            if (!negotiated && connection.binary.hasHandshake()) {
+                byte version = BinaryWireCodec.negotiate(connection.binary.getClientVersion());
+                connection.outbound.add(BinaryWireCodec.handshake(version));
+                if (version == 0) {
+                    connection.closeAfterWrite = true; // Unsupported version: answer, then close
+                    clearPending(connection);
+                }
+            }
+        }
+
+        private void queueFrames(Connection connection, List<Object> framed) {
+            for (Object frame : framed) {
+                connection.pendingFrames.add(frame);
+                connection.pendingBytes += frameBytes(frame);
+            }
+        }
+
+        private void clearPending(Connection connection) {
+            connection.pendingFrames.clear();
+            connection.pendingBytes = 0;
+        }
+
+        private Reply errorReply(Connection connection, String message) {
+            Response<?> error = Response.error(message);
+            if (connection.binary != null) {
+                return new Reply(BinaryWireCodec.encodeReply(error), message, false);
+            }
+            return new Reply(dispatcher.toJson(error), false);
+        }
+
+        /**
+         * Starts queued requests: the next one once none is running, keeping responses in request
+         * order, or up to MAX_PIPELINED_IN_FLIGHT at once on a pipelined connection.
+         */
+        private void dispatchNext(Connection connection) {
+            while (!connection.closeAfterWrite && !connection.pendingFrames.isEmpty()
+                    && (connection.pipelined
+                        ? connection.inFlight < MAX_PIPELINED_IN_FLIGHT && connection.started < config.getMaxRequestsPerConnection()
+                        : connection.inFlight == 0)) {
+                Object frame = connection.pendingFrames.poll();
+                connection.pendingBytes -= frameBytes(frame);
+                int served = ++connection.started;
+                boolean pipelined = connection.pipelined;
+                connection.inFlight++;
+                System.out.println(frame instanceof ByteBuffer payload
+                        ? "Received binary request: " + payload.remaining() + " bytes"
+                        : "Received request: " + frame);
+
+                workers.execute(
+                        () -> {
+                            Reply reply = frame instanceof ByteBuffer payload
+                                    ? processBinary(payload, served)
+                                    : process(connection, (String) frame, served, pipelined);
+                            submit(() -> complete(connection, reply));
+                        },
+                        reason -> submit(() -> complete(connection, errorReply(connection, reason)))
+                );
+            }
+        }
+
+        /**
+         * Runs on a worker thread: parse, route to the controller, serialize.
+         * Pipelined responses are serialized whole, so chunks of concurrent responses never interleave.
+         * A pipelined request that cannot be parsed gets an error carrying its correlationId.
+         */
+        private Reply process(Connection connection, String json, int served, boolean pipelined) {
+            Request<Object> request;
+            try {
+                request = dispatcher.parse(json);
+            } catch (RuntimeException e) {
+                if (!pipelined) {
+                    return new Reply(dispatcher.toJson(Response.error("Server error: " + e.getMessage())), false);
+                }
+                // Framing is intact: answer this request by its correlationId and keep serving the connection
+                Response<?> error = dispatcher.parseError(json, e);
+                boolean keepAlive = served < config.getMaxRequestsPerConnection();
+                error.setConnection(keepAlive ? Request.Headers.PIPELINE : Request.Headers.CLOSE);
+                return new Reply(dispatcher.toJson(error), keepAlive);
+            }
+            try {
+                if (request.getHeaders().isPipelined() && !pipelined) {
+                    submit(() -> startPipelining(connection)); // Later frames may start while this one runs
+                }
+                Response<?> response = dispatcher.dispatch(request);
+                boolean keepAlive = dispatcher.keepAlive(request, response, served, config.getMaxRequestsPerConnection());
+                if (pipelined || request.getHeaders().isPipelined()) {
+                    return buffered(response, keepAlive);
+                }
+                return stream(connection, response, keepAlive);
+            } catch (Exception e) {
+                return new Reply(dispatcher.toJson(Response.error("Server error: " + e.getMessage())), false);
+            }
+        }
+
+        private void startPipelining(Connection connection) {
+            if (!connection.channel.isOpen() || connection.pipelined) {
+                return;
+            }
+            connection.pipelined = true;
+            dispatchNext(connection);
+            updateInterest(connection);
+        }
+
+        private Reply buffered(Response<?> response, boolean keepAlive) throws IOException {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            dispatcher.writeJson(response, writer);
+            writer.write(System.lineSeparator());
+            writer.flush();
+            return new Reply(ByteBuffer.wrap(out.toByteArray()),
+                    "[" + response.getStatus() + " " + response.getCorrelationId() + "]", keepAlive);
+        }
+
+        /**
+         * Runs on a worker thread for a binary frame: same controller call, binary reply.
+         * A frame that cannot be decoded gets an error reply; framing is intact, so the connection stays usable.
+         */
+        private Reply processBinary(ByteBuffer payload, int served) {
+            Response<?> response;
+            boolean keepAlive;
+            try {
+                Request<Object> request = dispatcher.parseBinary(payload);
+                response = dispatcher.dispatch(request);
+                keepAlive = dispatcher.keepAlive(request, response, served, config.getMaxRequestsPerConnection());
+            } catch (Exception e) {
+                response = Response.error("Error processing request: " + e.getMessage());
+                keepAlive = served < config.getMaxRequestsPerConnection();
+            }
+            return new Reply(BinaryWireCodec.encodeReply(response), "[binary " + response.getStatus() + "]", keepAlive);
+        }
+
+        /**
+         * Runs on a worker thread: serializes the response in chunks that the loop sends
+         * while the rest is produced. The worker waits when too many chunks are unwritten,
+         * so a slow client holds back the producer instead of filling memory.
+         * Small responses fit in one chunk and go out with the reply.
+         */
+        private Reply stream(Connection connection, Response<?> response, boolean keepAlive) throws IOException {
+            Semaphore credits = new Semaphore(STREAM_CHUNKS_IN_FLIGHT);
+            ChunkedOutputStream out = new ChunkedOutputStream(chunk -> {
+                credits.acquireUninterruptibly();
+                if (!connection.channel.isOpen()) {
+                    throw new IOException("Connection closed while streaming");
+                }
+                submit(() -> queueChunk(connection, credits, chunk));
+            });
+            Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            dispatcher.writeJson(response, writer);
+            writer.flush();
+            ByteBuffer tail = out.tail();
+            String log = out.emitted() ? "[streamed response]"
+                    : new String(tail.array(), 0, tail.limit(), StandardCharsets.UTF_8).stripTrailing();
+            return new Reply(tail, log, keepAlive);
+        }
+
+        private void queueChunk(Connection connection, Semaphore credits, ByteBuffer chunk) {
+            if (!connection.channel.isOpen()) {
+                credits.release(STREAM_CHUNKS_IN_FLIGHT); // Let the worker notice and stop
+                return;
+            }
+            connection.streamCredits = credits;
+            connection.outbound.add(chunk);
+            flush(connection);
+        }
+
+        /**
+         * Back on the loop thread: queue the response and decide whether the connection lives on.
+         */
+        private void complete(Connection connection, Reply reply) {
+            if (!connection.channel.isOpen()) {
+                return;
+            }
+            connection.inFlight--;
+            connection.served++;
+            respond(connection, reply);
+        }
+
+        private void respond(Connection connection, Reply reply) {
+            if (!reply.keepAlive) {
+                connection.closeAfterWrite = true;
+                clearPending(connection);
+            }
+            connection.streamCredits = null;
+            connection.outbound.add(reply.payload);
+            System.out.println("Sent response: " + reply.log);
+            flush(connection);
+        }
+
+        private void flush(Connection connection) {
+            try {
+                while (!connection.outbound.isEmpty()) {
+                    ByteBuffer buffer = connection.outbound.peek();
+                    connection.channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        updateInterest(connection); // Socket buffer full - wait for OP_WRITE
+                        return;
+                    }
+                    connection.outbound.poll();
+                    if (connection.streamCredits != null) {
+                        connection.streamCredits.release(); // Worker may queue another chunk
+                    }
+                }
+                connection.lastActivity = System.currentTimeMillis();
+                // Responses still running on workers are written before closing
+                if (connection.inFlight == 0 && (connection.closeAfterWrite
+                        || (connection.inputClosed && connection.pendingFrames.isEmpty()))) {
+                    close(connection);
+                    return;
+                }
+                dispatchNext(connection);
+                updateInterest(connection);
+            } catch (IOException e) {
+                System.err.println("Error writing response: " + e.getMessage());
+                close(connection);
+            }
+        }
+
+        private void updateInterest(Connection connection) {
+            if (!connection.key.isValid()) {
+                return;
+            }
+            int ops = 0;
+            if (!connection.outbound.isEmpty()) {
+                ops |= SelectionKey.OP_WRITE;
+            }
+            if (!connection.inputClosed && !connection.closeAfterWrite && hasRoom(connection)) {
+                ops |= SelectionKey.OP_READ;
+            }
+            connection.key.interestOps(ops);
+        }
+
+        /**
+         * Whether to read more from the client. Queued frames and the frame being decoded share
+         * one byte budget, so a client running ahead holds at most about MAX_PENDING_BYTES plus
+         * one frame; with nothing queued, a single frame may still grow to the decoder's limit.
+         */
+        private boolean hasRoom(Connection connection) {
+            if (connection.pendingFrames.isEmpty()) {
+                return true;
+            }
+            long partial = connection.binary != null ? connection.binary.bufferedBytes() : connection.decoder.bufferedBytes();
+            return connection.pendingFrames.size() < MAX_PENDING_FRAMES
+                    && connection.pendingBytes + partial < MAX_PENDING_BYTES;
+        }
+
+        /**
+         * Closes connections that have been waiting longer than the idle timeout, counted from
+         * accept for a client that has not sent a request yet.
+         */
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheck < IDLE_CHECK_MS) {
+                return;
+            }
+            lastIdleCheck = now;
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                boolean waiting = connection.inFlight == 0
+                        && connection.pendingFrames.isEmpty() && connection.outbound.isEmpty();
+                if (waiting && now - connection.lastActivity > config.getKeepAliveTimeoutMs()) {
+                    System.out.println("Connection idle for " + config.getKeepAliveTimeoutMs() + " ms");
+                    close(connection);
+                }
+            }
+        }
+
+        private void close(Connection connection) {
+            try {
+                if (connection.key != null) {
+                    connection.key.cancel();
+                }
+                connection.channel.close();
+                if (connection.streamCredits != null) {
+                    connection.streamCredits.release(STREAM_CHUNKS_IN_FLIGHT); // Unblock a streaming worker
+                }
+                System.out.println("Client connection closed");
+            } catch (ClosedChannelException ignored) {
+                // Already closed
+            } catch (IOException e) {
+                System.err.println("Error closing socket: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -2,7 +2,7 @@ package main.java.network;
 
 /**
  * Generic request wrapper for client-server communication.
- * Structure: {"headers": {"action": "..."}, "body": {...}}
+ * Structure: {"headers": {"action": "...", "connection": "keep-alive", "correlationId": "..."}, "body": {...}}
  */
 public class Request<T> {
     private Headers headers;  // Contains routing information (action)
@@ -27,12 +27,37 @@ public class Request<T> {
      * Contains metadata about what action to perform.
      */
     public static class Headers {
-        private String action;  // Route identifier: "analysis/maxProfit", "analysis/clear", etc.
+        public static final String KEEP_ALIVE = "keep-alive";
+        public static final String CLOSE = "close";
+        public static final String PIPELINE = "pipeline";
+
+        private String action;        // Route identifier: "analysis/maxProfit", "analysis/clear", etc.
+        private String connection;    // Optional: "keep-alive" to send more requests on the same socket,
+                                      // "pipeline" to also have several in flight (answered as they complete)
+        private String correlationId; // Optional: client's tag, echoed in the response
 
         public Headers() {}
         public Headers(String action) { this.action = action; }
+        public Headers(String action, String connection) {
+            this.action = action;
+            this.connection = connection;
+        }
+        public Headers(String action, String connection, String correlationId) {
+            this(action, connection);
+            this.correlationId = correlationId;
+        }
 
         public String getAction() { return action; }
         public void setAction(String action) { this.action = action; }
+        public String getConnection() { return connection; }
+        public void setConnection(String connection) { this.connection = connection; }
+        public String getCorrelationId() { return correlationId; }
+        public void setCorrelationId(String correlationId) { this.correlationId = correlationId; }
+
+        // True when the client asked to keep the connection open after this request (pipelining implies it)
+        public boolean isKeepAlive() { return KEEP_ALIVE.equalsIgnoreCase(connection) || isPipelined(); }
+
+        // True when responses may come back out of order, matched to requests by correlationId
+        public boolean isPipelined() { return PIPELINE.equalsIgnoreCase(connection); }
     }
 }
\ No newline at end of file
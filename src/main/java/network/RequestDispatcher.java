@@ -0,0 +1,217 @@
+package main.java.network;
+
+import main.java.controller.AnalysisController;
+import main.java.controller.FactoryController;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Turns raw JSON requests into controller calls and responses back into JSON.
+ * Shared by the blocking HandleRequest and the NIO front end so both speak the same protocol.
+ */
+public class RequestDispatcher {
+    private final Gson gson = new Gson(); // JSON converter (thread-safe)
+
+    /**
+     * Parses one complete JSON envelope into a Request object in a single streaming pass.
+     * Once headers.action is known the body is decoded straight into the controller's body
+     * class, so number arrays go directly into primitive series (DoubleSeriesAdapter) without an
+     * intermediate tree or a second parse. A body sent before the headers is kept as a tree
+     * until the action is known.
+     */
+    public Request<Object> parse(String jsonRequest) {
+        AnalysisController controller = FactoryController.getAnalysisController();
+        Request.Headers headers = null;
+        Object body = null;
+        JsonElement earlyBody = null;
+        try {
+            JsonReader in = new JsonReader(new StringReader(jsonRequest));
+            in.beginObject();
+            while (in.hasNext()) {
+                switch (in.nextName()) {
+                    case "headers" -> headers = gson.fromJson(in, Request.Headers.class);
+                    case "body" -> {
+                        if (headers == null) {
+                            earlyBody = JsonParser.parseReader(in);
+                        } else {
+                            body = readBody(in, controller.getBodyType(headers.getAction()));
+                            if (body instanceof InvalidBody) {
+                                return new Request<>(headers, body); // Rest of the envelope is not needed
+                            }
+                        }
+                    }
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
+        if (headers == null) {
+            throw new IllegalArgumentException("Request is missing headers");
+        }
+        if (earlyBody != null) {
+            Class<?> type = controller.getBodyType(headers.getAction());
+            try {
+                body = type != null ? gson.fromJson(earlyBody, type) : null;
+            } catch (JsonParseException e) {
+                body = new InvalidBody(e.getMessage());
+            }
+        }
+        return new Request<>(headers, body);
+    }
+
+    /**
+     * Error response for a request that parse rejected, tagged with the correlationId from its
+     * headers when they can still be read, so a pipelined client can match it.
+     */
+    public Response<?> parseError(String jsonRequest, Exception e) {
+        Response<?> response = Response.error("Error processing request: " + e.getMessage());
+        response.setCorrelationId(correlationIdOf(jsonRequest));
+        return response;
+    }
+
+    // headers.correlationId as far as the JSON is well formed, or null
+    private static String correlationIdOf(String jsonRequest) {
+        try {
+            JsonReader in = new JsonReader(new StringReader(jsonRequest));
+            in.beginObject();
+            while (in.hasNext()) {
+                if (!in.nextName().equals("headers")) {
+                    in.skipValue();
+                    continue;
+                }
+                in.beginObject();
+                while (in.hasNext()) {
+                    if (in.nextName().equals("correlationId") && in.peek() == JsonToken.STRING) {
+                        return in.nextString();
+                    }
+                    in.skipValue();
+                }
+                return null;
+            }
+        } catch (IOException | RuntimeException e) {
+            // Malformed before the correlationId
+        }
+        return null;
+    }
+
+    // Decodes the body, or skips it for actions that take none; a malformed body is reported by dispatch
+    private Object readBody(JsonReader in, Class<?> type) throws IOException {
+        if (type == null) {
+            in.skipValue();
+            return null;
+        }
+        try {
+            return gson.fromJson(in, type);
+        } catch (JsonParseException | IllegalStateException | NumberFormatException e) {
+            return new InvalidBody(e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes a binary frame payload (see BinaryWireCodec) into the same request the JSON path builds.
+     */
+    public Request<Object> parseBinary(ByteBuffer payload) {
+        return BinaryWireCodec.decodeRequest(payload, FactoryController.getAnalysisController());
+    }
+
+    /**
+     * Routes the request to the analysis controller.
+     */
+    public Response<?> dispatch(Request<Object> request) {
+        Response<?> response = route(request);
+        response.setCorrelationId(request.getHeaders().getCorrelationId());
+        return response;
+    }
+
+    private Response<?> route(Request<Object> request) {
+        Request.Headers headers = request.getHeaders();
+        String action = headers.getAction(); // "analysis/maxProfit"
+        if (headers.isPipelined() && headers.getCorrelationId() == null) {
+            return Response.error("Pipelined requests need a correlationId");
+        }
+        if (request.getBody() instanceof InvalidBody invalid) {
+            return Response.error("Error processing request: " + invalid.message);
+        }
+
+        AnalysisController controller = FactoryController.getAnalysisController();
+        return controller.handleBody(action, request.getBody());
+    }
+
+    /**
+     * Decides whether the connection stays open after this request and stamps the response.
+     * Open only if the client asked for keep-alive and the per-connection cap is not reached.
+     */
+    public boolean keepAlive(Request<Object> request, Response<?> response, int served, int maxRequests) {
+        boolean requested = request.getHeaders().isKeepAlive();
+        boolean keepAlive = requested && served < maxRequests;
+        if (requested) {
+            String mode = request.getHeaders().isPipelined() ? Request.Headers.PIPELINE : Request.Headers.KEEP_ALIVE;
+            response.setConnection(keepAlive ? mode : Request.Headers.CLOSE);
+        }
+        return keepAlive;
+    }
+
+    /**
+     * Serializes a response into one string. Only for small replies such as errors;
+     * the servers send results with writeJson.
+     */
+    public String toJson(Response<?> response) {
+        return gson.toJson(response);
+    }
+
+    /**
+     * Writes a response as JSON to the writer, without building it as a string first, so a
+     * buffered socket writer sends the first chunk while the rest is still being serialized.
+     * Streaming responses produce the same JSON as toJson would for the materialized list, but
+     * entries are written as they are read and the stream is closed afterwards.
+     * The caller flushes and adds the line break.
+     */
+    public void writeJson(Response<?> response, Writer out) throws IOException {
+        if (!response.isStreaming()) {
+            gson.toJson(response, out);
+            return;
+        }
+        JsonWriter json = gson.newJsonWriter(out); // Same escaping and null handling as toJson
+        json.beginObject();
+        json.name("status").value(response.getStatus());
+        json.name("message").value(response.getMessage());
+        json.name("data").beginArray();
+        try (Stream<?> entries = response.getDataStream()) {
+            Iterator<?> iterator = entries.iterator();
+            while (iterator.hasNext()) {
+                Object entry = iterator.next();
+                gson.toJson(entry, entry.getClass(), json);
+            }
+        }
+        json.endArray();
+        json.name("correlationId").value(response.getCorrelationId());
+        json.name("connection").value(response.getConnection());
+        json.endObject();
+        json.flush();
+    }
+
+    /**
+     * Placeholder body for a request whose body could not be decoded.
+     */
+    private static final class InvalidBody {
+        final String message;
+
+        InvalidBody(String message) {
+            this.message = message;
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package main.java.network;
 
+import java.util.List;
+import java.util.stream.Stream;
+
 /**
  * Standardized response wrapper for all server responses.
  * Structure: {"status": "SUCCESS/ERROR", "message": "...", "data": {...}}
@@ -8,6 +11,10 @@ public class Response<T> {
     private String status;   // "SUCCESS" or "ERROR"
     private String message;  // Human-readable description
     private T data;         // Actual response data (null for errors)
+    private String requestId;  // ID the result was saved under, for analysis/get (omitted otherwise)
+    private String correlationId; // Echo of the request's headers.correlationId (omitted if it had none)
+    private String connection; // Keep-alive only: "keep-alive" or "close" (omitted otherwise)
+    private transient Stream<?> dataStream; // Streamed "data" array, written entry by entry (not held in memory)
 
     // Default constructor for JSON deserialization
     public Response() {}
@@ -23,6 +30,13 @@ public class Response<T> {
         return new Response<>("SUCCESS", "Operation completed successfully", data);
     }
 
+    // Factory method for large results: "data" is written as a JSON array while the stream is read
+    public static <T> Response<List<T>> stream(Stream<T> entries) {
+        Response<List<T>> response = new Response<>("SUCCESS", "Operation completed successfully", null);
+        response.dataStream = entries;
+        return response;
+    }
+
     // Factory method for error responses
     public static <T> Response<T> error(String message) {
         return new Response<>("ERROR", message, null);
@@ -35,4 +49,12 @@ public class Response<T> {
     public void setMessage(String message) { this.message = message; }
     public T getData() { return data; }
     public void setData(T data) { this.data = data; }
+    public String getRequestId() { return requestId; }
+    public void setRequestId(String requestId) { this.requestId = requestId; }
+    public String getCorrelationId() { return correlationId; }
+    public void setCorrelationId(String correlationId) { this.correlationId = correlationId; }
+    public String getConnection() { return connection; }
+    public void setConnection(String connection) { this.connection = connection; }
+    public Stream<?> getDataStream() { return dataStream; }
+    public boolean isStreaming() { return dataStream != null; }
 }
\ No newline at end of file
@@ -1,29 +1,43 @@
 package main.java.network;
 
+import main.java.enums.ExecutionMode;
+
 import java.io.IOException;
 import java.net.ServerSocket;
 import java.net.Socket;
 
 /**
  * TCP Server that accepts client connections and handles them concurrently.
- * Each client gets its own thread for parallel processing.
+ * Connections are handed to a pluggable ConnectionExecutor (bounded pool or virtual threads).
  */
 public class Server {
-    private final int port;  // Port number to listen on
+    private final ServerConfig config;         // Port and execution settings
+    private final ConnectionExecutor executor; // Runs one HandleRequest per connection, and pipelined requests
 
     public Server(int port) {
-        this.port = port;
+        this(new ServerConfig(port));
+    }
+
+    public Server(ServerConfig config) {
+        this.config = config;
+        this.executor = ConnectionExecutor.create(config);
     }
 
     /**
-     * Main server loop - accepts clients and creates handler threads.
+     * Main server loop - accepts clients and hands them to the executor.
      * Runs indefinitely until IOException occurs.
      */
     public void start() {
         // Try-with-resources ensures ServerSocket is closed properly
-        try (ServerSocket serverSocket = new ServerSocket(port)) {
+        try (ServerSocket serverSocket = new ServerSocket(config.getPort())) {
             System.out.println("✅ Server started successfully!");
-            System.out.println("📡 Listening on port: " + port);
+            System.out.println("📡 Listening on port: " + config.getPort());
+            System.out.println("🧵 Execution mode: " + config.getExecutionMode());
+            if (config.getExecutionMode() == ExecutionMode.BOUNDED_POOL) {
+                System.err.println("[WARN] Idle keep-alive clients hold a pool worker for up to "
+                        + config.getKeepAliveTimeoutMs() + " ms; " + config.getPoolSize()
+                        + " of them stall the server (lower --keep-alive-timeout or use --executor=virtual)");
+            }
             System.out.println("🔄 Ready to accept client connections...");
 
             // Infinite loop - accept clients continuously
@@ -33,14 +47,16 @@ public class Server {
                 System.out.println("New client connected: " + clientSocket.getRemoteSocketAddress());
 
                 // Create handler for this specific client
-                HandleRequest requestHandler = new HandleRequest(clientSocket);
+                HandleRequest requestHandler = new HandleRequest(clientSocket, config, executor);
 
-                // Start new thread - allows concurrent client handling
-                new Thread(requestHandler).start();
+                // Executor decides where it runs (or rejects it when saturated)
+                executor.execute(requestHandler);
             }
         } catch (IOException e) {
             System.err.println("Server error: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            executor.shutdown();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,180 @@
+package main.java.network;
+
+import main.java.enums.ExecutionMode;
+import main.java.enums.FsyncPolicy;
+import main.java.enums.PersistenceMode;
+import main.java.enums.ServerFrontEnd;
+
+/**
+ * Startup configuration for the analysis server.
+ * Defaults reproduce the standard setup; ServerDriver overrides them from command-line switches.
+ * Connections default to virtual threads: a keep-alive client waiting up to keepAliveTimeoutMs
+ * between requests holds a whole worker in BOUNDED_POOL mode, so poolSize idle clients would
+ * stall the server.
+ */
+public class ServerConfig {
+    public static final int DEFAULT_PORT = 34567;
+
+    private int port = DEFAULT_PORT;                                 // Port number to listen on
+    private ServerFrontEnd frontEnd = ServerFrontEnd.CLASSIC;        // Blocking or selector-based networking
+    private int eventLoops = Math.max(1, Runtime.getRuntime().availableProcessors() / 2); // NIO only
+    private ExecutionMode executionMode = ExecutionMode.VIRTUAL_THREADS; // Idle keep-alive clients pin no worker
+    private int poolSize = 200;                                      // Worker threads (BOUNDED_POOL only)
+    private int queueCapacity = 1000;                                // Waiting connections (BOUNDED_POOL only)
+    private int maxConnections = 10000;                              // Running connections (VIRTUAL_THREADS only)
+    private int keepAliveTimeoutMs = 30000;                          // Idle time between keep-alive requests
+    private int maxRequestsPerConnection = 10000;                    // Keep-alive request cap per socket
+    private PersistenceMode persistenceMode = PersistenceMode.SYNC;  // How results reach the data file
+    private int flushIntervalMs = 50;                                // Max batching delay (ASYNC only)
+    private int flushBytes = 64 * 1024;                              // Batch size that forces a write (ASYNC only)
+    private FsyncPolicy fsyncPolicy = FsyncPolicy.NEVER;             // Force batches to disk (ASYNC only)
+    private boolean mappedReads;                                     // Memory-mapped history reads (text store)
+    private int segmentBytes = 64 * 1024 * 1024;                     // Size that seals a segment (SEGMENTED only)
+    private int segmentMinutes = 24 * 60;                            // Age that seals a segment (SEGMENTED only)
+    private int retentionDays;                                       // Drop older segments, 0 = keep (SEGMENTED only)
+    private int retentionSegments;                                   // Segments to keep, 0 = all (SEGMENTED only)
+
+    public ServerConfig() {}
+
+    public ServerConfig(int port) {
+        this.port = port;
+    }
+
+    /**
+     * Parses switches of the form --name=value.
+     * Supported: --port, --server (classic|nio), --event-loops, --executor (pool|virtual),
+     * --pool-size, --queue-capacity, --max-connections, --keep-alive-timeout (ms), --max-requests (per keep-alive connection),
+     * --persistence (sync|async|binary|segmented), --flush-interval (ms), --flush-bytes, --fsync (never|flush),
+     * --history-reads (buffered|mapped), --segment-bytes, --segment-minutes, --retention-days, --retention-segments.
+     */
+    public static ServerConfig fromArgs(String[] args) {
+        ServerConfig config = new ServerConfig();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                throw new IllegalArgumentException("Invalid option: " + arg);
+            }
+            String name = arg.substring(2, eq);
+            String value = arg.substring(eq + 1);
+            switch (name) {
+                case "port" -> config.setPort(parsePositive(name, value));
+                case "server" -> config.setFrontEnd(parseFrontEnd(value));
+                case "event-loops" -> config.setEventLoops(parsePositive(name, value));
+                case "executor" -> config.setExecutionMode(parseExecutionMode(value));
+                case "pool-size" -> config.setPoolSize(parsePositive(name, value));
+                case "queue-capacity" -> config.setQueueCapacity(parsePositive(name, value));
+                case "max-connections" -> config.setMaxConnections(parsePositive(name, value));
+                case "keep-alive-timeout" -> config.setKeepAliveTimeoutMs(parsePositive(name, value));
+                case "max-requests" -> config.setMaxRequestsPerConnection(parsePositive(name, value));
+                case "persistence" -> config.setPersistenceMode(parsePersistenceMode(value));
+                case "flush-interval" -> config.setFlushIntervalMs(parsePositive(name, value));
+                case "flush-bytes" -> config.setFlushBytes(parsePositive(name, value));
+                case "fsync" -> config.setFsyncPolicy(parseFsyncPolicy(value));
+                case "history-reads" -> config.setMappedReads(parseHistoryReads(value));
+                case "segment-bytes" -> config.setSegmentBytes(parsePositive(name, value));
+                case "segment-minutes" -> config.setSegmentMinutes(parsePositive(name, value));
+                case "retention-days" -> config.setRetentionDays(parsePositive(name, value));
+                case "retention-segments" -> config.setRetentionSegments(parsePositive(name, value));
+                default -> throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+        }
+        return config;
+    }
+
+    private static ServerFrontEnd parseFrontEnd(String value) {
+        return switch (value) {
+            case "classic" -> ServerFrontEnd.CLASSIC;
+            case "nio" -> ServerFrontEnd.NIO;
+            default -> throw new IllegalArgumentException("Unknown server: " + value + " (expected classic or nio)");
+        };
+    }
+
+    /**
+     * "pool" bounds threads, but with the classic front end an idle keep-alive client keeps its
+     * worker for up to keepAliveTimeoutMs, so poolSize idle clients stall every other connection.
+     * Server warns about this at startup.
+     */
+    private static ExecutionMode parseExecutionMode(String value) {
+        return switch (value) {
+            case "pool" -> ExecutionMode.BOUNDED_POOL;
+            case "virtual" -> ExecutionMode.VIRTUAL_THREADS;
+            default -> throw new IllegalArgumentException("Unknown executor: " + value + " (expected pool or virtual)");
+        };
+    }
+
+    private static PersistenceMode parsePersistenceMode(String value) {
+        return switch (value) {
+            case "sync" -> PersistenceMode.SYNC;
+            case "async" -> PersistenceMode.ASYNC;
+            case "binary" -> PersistenceMode.BINARY;
+            case "segmented" -> PersistenceMode.SEGMENTED;
+            default -> throw new IllegalArgumentException("Unknown persistence: " + value + " (expected sync, async, binary or segmented)");
+        };
+    }
+
+    private static FsyncPolicy parseFsyncPolicy(String value) {
+        return switch (value) {
+            case "never" -> FsyncPolicy.NEVER;
+            case "flush" -> FsyncPolicy.EVERY_FLUSH;
+            default -> throw new IllegalArgumentException("Unknown fsync policy: " + value + " (expected never or flush)");
+        };
+    }
+
+    private static boolean parseHistoryReads(String value) {
+        return switch (value) {
+            case "buffered" -> false;
+            case "mapped" -> true;
+            default -> throw new IllegalArgumentException("Unknown history reads: " + value + " (expected buffered or mapped)");
+        };
+    }
+
+    private static int parsePositive(String name, String value) {
+        try {
+            int parsed = Integer.parseInt(value);
+            if (parsed < 1) {
+                throw new IllegalArgumentException("--" + name + " must be positive");
+            }
+            return parsed;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("--" + name + " expects a number, got: " + value);
+        }
+    }
+
+    // Standard getters and setters
+    public int getPort() { return port; }
+    public void setPort(int port) { this.port = port; }
+    public ServerFrontEnd getFrontEnd() { return frontEnd; }
+    public void setFrontEnd(ServerFrontEnd frontEnd) { this.frontEnd = frontEnd; }
+    public int getEventLoops() { return eventLoops; }
+    public void setEventLoops(int eventLoops) { this.eventLoops = eventLoops; }
+    public ExecutionMode getExecutionMode() { return executionMode; }
+    public void setExecutionMode(ExecutionMode executionMode) { this.executionMode = executionMode; }
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+    public int getMaxConnections() { return maxConnections; }
+    public void setMaxConnections(int maxConnections) { this.maxConnections = maxConnections; }
+    public int getKeepAliveTimeoutMs() { return keepAliveTimeoutMs; }
+    public void setKeepAliveTimeoutMs(int keepAliveTimeoutMs) { this.keepAliveTimeoutMs = keepAliveTimeoutMs; }
+    public int getMaxRequestsPerConnection() { return maxRequestsPerConnection; }
+    public void setMaxRequestsPerConnection(int maxRequestsPerConnection) { this.maxRequestsPerConnection = maxRequestsPerConnection; }
+    public PersistenceMode getPersistenceMode() { return persistenceMode; }
+    public void setPersistenceMode(PersistenceMode persistenceMode) { this.persistenceMode = persistenceMode; }
+    public int getFlushIntervalMs() { return flushIntervalMs; }
+    public void setFlushIntervalMs(int flushIntervalMs) { this.flushIntervalMs = flushIntervalMs; }
+    public int getFlushBytes() { return flushBytes; }
+    public void setFlushBytes(int flushBytes) { this.flushBytes = flushBytes; }
+    public FsyncPolicy getFsyncPolicy() { return fsyncPolicy; }
+    public void setFsyncPolicy(FsyncPolicy fsyncPolicy) { this.fsyncPolicy = fsyncPolicy; }
+    public boolean isMappedReads() { return mappedReads; }
+    public void setMappedReads(boolean mappedReads) { this.mappedReads = mappedReads; }
+    public int getSegmentBytes() { return segmentBytes; }
+    public void setSegmentBytes(int segmentBytes) { this.segmentBytes = segmentBytes; }
+    public int getSegmentMinutes() { return segmentMinutes; }
+    public void setSegmentMinutes(int segmentMinutes) { this.segmentMinutes = segmentMinutes; }
+    public int getRetentionDays() { return retentionDays; }
+    public void setRetentionDays(int retentionDays) { this.retentionDays = retentionDays; }
+    public int getRetentionSegments() { return retentionSegments; }
+    public void setRetentionSegments(int retentionSegments) { this.retentionSegments = retentionSegments; }
+}
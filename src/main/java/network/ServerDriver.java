@@ -1,15 +1,34 @@
 package main.java.network;
 
+import main.java.controller.FactoryController;
+import main.java.enums.ServerFrontEnd;
+
 /**
  * Entry point for the analysis server application.
  * Starts the server on port 34567 as required by the project specification.
+ * Optional switches: --server=classic|nio --event-loops=N --executor=pool|virtual
+ * --pool-size=N --queue-capacity=N --port=N --keep-alive-timeout=MS --max-requests=N
+ * --persistence=sync|async|binary --flush-interval=MS --flush-bytes=N --fsync=never|flush
+ * --history-reads=buffered|mapped
  */
 public class ServerDriver {
     public static void main(String[] args) {
-        // Create server instance with specified port
-        Server server = new Server(34567);
+        ServerConfig config;
+        try {
+            config = ServerConfig.fromArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println("❌ " + e.getMessage());
+            return;
+        }
+
+        // Controllers are wired lazily with these settings (persistence mode etc.)
+        FactoryController.configure(config);
 
-        // Start server - this will block and run indefinitely
-        server.start();
+        // Start the selected front end - this will block and run indefinitely
+        if (config.getFrontEnd() == ServerFrontEnd.NIO) {
+            new NioServer(config).start();
+        } else {
+            new Server(config).start();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,52 @@
+package main.java.network;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+
+/**
+ * Runs every connection on its own virtual thread.
+ * Blocking socket I/O parks the virtual thread instead of pinning a platform thread,
+ * so tens of thousands of concurrent connections stay cheap. Tasks beyond maxConnections
+ * are rejected with an error response, so a burst of clients cannot exhaust the heap.
+ */
+public class VirtualThreadExecutor implements ConnectionExecutor {
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore permits; // One per running task
+
+    public VirtualThreadExecutor(int maxConnections) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("Max connections must be positive");
+        }
+        this.permits = new Semaphore(maxConnections);
+    }
+
+    /**
+     * Starts the task on a new virtual thread, or reports the rejection when maxConnections are running.
+     */
+    @Override
+    public void execute(Runnable task, Consumer<String> onReject) {
+        if (!permits.tryAcquire()) {
+            onReject.accept("Server busy: connection limit reached, please retry later");
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            permits.release(); // Shut down: the task never ran
+            throw e;
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
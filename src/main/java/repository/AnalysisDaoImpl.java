@@ -1,73 +1,164 @@
 package main.java.repository;
 
-import main.java.enums.DataMode;
 import main.java.model.AnalysisRequest;
+import main.java.model.ResultPage;
 import AlgorithmModule.SubarrayResult;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * File-based repository implementation for persisting analysis results.
  * Uses a simple text file format with structured output for easy reading.
+ * An in-memory index from request ID to record offset (rebuilt on startup, extended on save)
+ * lets loadById read a single record without scanning the file.
  */
 public class AnalysisDaoImpl implements IAnalysisDao {
-    private final String filePath; // Path to data storage file
+    private static final byte[] DIVIDER_BYTES = AnalysisRecordFormatter.DIVIDER.getBytes(StandardCharsets.UTF_8);
+
+    private final String filePath;      // Path to data storage file
+    private final boolean mappedReads;  // Read through MappedHistoryReader instead of a BufferedReader
+    private final Map<String, Long> index = new ConcurrentHashMap<>(); // Request ID → byte offset of its record
+    private long indexedBytes;          // File prefix covered by the index; anything after it is scanned on a miss
+    private final Queue<PendingWrite> pendingWrites = new ConcurrentLinkedQueue<>(); // Formatted records awaiting append
+    private final ReentrantLock appendLock = new ReentrantLock(); // Held by the thread appending for everyone
+    private volatile long appendedBytes; // File size after this DAO's last append (0 before the first)
 
     public AnalysisDaoImpl(String filePath) {
+        this(filePath, false);
+    }
+
+    /**
+     * Memory-mapped reads avoid per-line reader copies on large histories. Note that on Windows
+     * a file cannot be replaced or truncated (clear) while an old mapping is still alive.
+     */
+    public AnalysisDaoImpl(String filePath, boolean mappedReads) {
+        this(filePath, mappedReads, true);
+    }
+
+    /**
+     * Without indexOnOpen the index is only built by the first loadById that misses
+     * (used for short-lived readers of files that are not looked up by ID).
+     */
+    AnalysisDaoImpl(String filePath, boolean mappedReads, boolean indexOnOpen) {
         this.filePath = filePath;
+        this.mappedReads = mappedReads;
+        if (indexOnOpen) {
+            rebuildIndex();
+        }
     }
 
     /**
      * Appends analysis request and result to file in formatted structure.
-     * Creates header if file is new, then writes all request details.
+     * Each caller formats its record on its own thread and queues the bytes; whichever caller
+     * holds the append lock writes every queued record in one append (flat combining), so
+     * concurrent saves never interleave and do not each take a turn on the file.
+     * Returns once the record is written.
      */
     @Override
     public void save(AnalysisRequest request, SubarrayResult result) {
-        File file = new File(filePath);
-        // Append mode (true) preserves existing content
-        try (FileWriter writer = new FileWriter(file, true)) {
-
-            // Add header section only for new/empty files
-            if (!file.exists() || file.length() == 0) {
-                writer.write("--------------------------------------------------------" + System.lineSeparator());
-                writer.write("Profit Analyzer - Calculates profit in stock trading" + System.lineSeparator());
-                writer.write("--------------------------------------------------------" + System.lineSeparator());
+        PendingWrite write = new PendingWrite(request.getRequestId(),
+                AnalysisRecordFormatter.format(request, result).getBytes(StandardCharsets.UTF_8));
+        pendingWrites.add(write);
+        while (!write.done.isDone()) {
+            if (appendLock.tryLock()) {
+                try {
+                    appendPending();
+                } finally {
+                    appendLock.unlock();
+                }
+            } else {
+                try {
+                    // Usually completed by the current lock holder; retry in case it drained before we queued
+                    write.done.get(1, TimeUnit.MILLISECONDS);
+                } catch (TimeoutException e) {
+                    // Take the lock ourselves
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    return; // Already reported by the writer
+                }
             }
+        }
+    }
 
-            // Write request metadata
-            writer.write("Request ID: " + request.getRequestId() + System.lineSeparator());
-            writer.write("Analysis Type: " + request.getType() + System.lineSeparator());
-
-            // Write data mode and conditionally include original input
-            DataMode mode = request.getDataMode();
-            writer.write("Data Mode: " + mode + System.lineSeparator());
+    // Writes all queued records in one append, creating the header if the file is new (append lock held)
+    private void appendPending() {
+        List<PendingWrite> batch = new ArrayList<>();
+        for (PendingWrite next; (next = pendingWrites.poll()) != null; ) {
+            batch.add(next);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        File file = new File(filePath);
+        long start = file.length();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        if (start == 0) {
+            bytes.writeBytes(AnalysisRecordFormatter.header().getBytes(StandardCharsets.UTF_8));
+        }
+        long[] offsets = new long[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            offsets[i] = start + bytes.size();
+            bytes.writeBytes(batch.get(i).bytes);
+        }
 
-            // Show original closing prices only when relevant
-            List<Double> rawInput = request.getClosingPrices();
-            if (mode == DataMode.CLOSING_PRICES && rawInput != null) {
-                writer.write("User Input: " + rawInput + System.lineSeparator());
+        // Append mode (true) preserves existing content
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            bytes.writeTo(out);
+            for (int i = 0; i < batch.size(); i++) {
+                indexRecord(batch.get(i).requestId, offsets[i]);
             }
-
-            // Write processed values and analysis result
-            writer.write("Values Used for Analysis: " + request.getValues() + System.lineSeparator());
-            writer.write("Result: " + result + System.lineSeparator());
-            writer.write("------------------------------------------------------ --" + System.lineSeparator());
-
+            advanceIndex(start, start + bytes.size());
+            appendedBytes = start + bytes.size();
+            batch.forEach(write -> write.done.complete(null));
         } catch (IOException e) {
             System.err.println("[ERROR] Failed to save result: " + e.getMessage());
+            batch.forEach(write -> write.done.completeExceptionally(e));
         }
     }
 
+    /**
+     * Size of the file as of this DAO's last save, without asking the file system.
+     */
+    long appendedBytes() {
+        return appendedBytes;
+    }
+
     /**
      * Reads entire file content and returns as list of strings.
      * Each line becomes one list element for easy display.
      */
     @Override
     public List<String> loadAll() {
+        if (mappedReads) {
+            try (Stream<String> lines = stream()) {
+                return lines.collect(Collectors.toCollection(ArrayList::new));
+            }
+        }
         List<String> lines = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8))) {
             String line;
             // Read all lines until end of file
             while ((line = reader.readLine()) != null) {
@@ -80,15 +171,339 @@ public class AnalysisDaoImpl implements IAnalysisDao {
     }
 
     /**
-     * Empties the file by opening it in write mode without writing content.
-     * FileWriter in write mode (not append) truncates the file.
+     * Streams the lines of the file without loading them all into memory.
+     */
+    @Override
+    public Stream<String> stream() {
+        if (mappedReads) {
+            MappedHistoryReader reader = openMapped();
+            return reader != null ? reader.lines().onClose(reader::close) : Stream.empty();
+        }
+        try {
+            BufferedReader reader = new BufferedReader(new FileReader(filePath, StandardCharsets.UTF_8));
+            return reader.lines().onClose(() -> {
+                try {
+                    reader.close();
+                } catch (IOException e) {
+                    System.err.println("[ERROR] Failed to close data file: " + e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to load data: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Reads one page of whole records: offset and limit count records, like count(), and the
+     * lines before the first record (the file header) come with it. The cursor is the byte offset
+     * after the last record returned, so following pages seek straight to it.
+     * A trailing record without its divider (save in progress) is left for the next page.
+     */
+    @Override
+    public ResultPage readPage(String cursor, long offset, int limit) {
+        long position = IAnalysisDao.parseCursor(cursor);
+        if (mappedReads) {
+            try (MappedHistoryReader reader = openMapped()) {
+                return reader != null ? reader.page(position, offset, limit) : new ResultPage(new ArrayList<>(), null);
+            }
+        }
+        List<String> page = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            if (position > file.length()) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            InputStream in = new BufferedInputStream(Channels.newInputStream(file.getChannel().position(position)));
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            List<String> record = new ArrayList<>(); // Lines of the record being read
+            long skipped = 0;
+            int records = 0;
+            int b;
+            while (records < limit && (b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                boolean divider = isDivider(line);
+                if (skipped < offset) {
+                    skipped += divider ? 1 : 0; // Skipped records are never decoded
+                } else {
+                    record.add(decodeLine(line));
+                    if (divider) {
+                        page.addAll(record);
+                        record.clear();
+                        records++;
+                    }
+                }
+                line.reset();
+            }
+            return new ResultPage(page, records == limit && hasCompleteRecord(in) ? String.valueOf(position) : null);
+        } catch (FileNotFoundException e) {
+            return new ResultPage(page, null); // Nothing saved yet
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to load data: " + e.getMessage());
+            return new ResultPage(page, null);
+        }
+    }
+
+    /**
+     * Counts records; mapped mode does it on the raw bytes.
+     */
+    @Override
+    public long count() {
+        if (!mappedReads) {
+            return IAnalysisDao.super.count();
+        }
+        try (MappedHistoryReader reader = openMapped()) {
+            return reader != null ? reader.countRecords() : 0;
+        }
+    }
+
+    /**
+     * Index lookup: seeks to the record's offset and reads only its lines.
+     * An unknown ID first indexes records appended by other writers; a record that no longer
+     * matches its offset (file rewritten elsewhere) triggers one full rebuild.
+     */
+    @Override
+    public List<String> loadById(String requestId) {
+        Long offset = index.get(requestId);
+        if (offset == null) {
+            catchUpIndex();
+            offset = index.get(requestId);
+            if (offset == null) {
+                return new ArrayList<>();
+            }
+        }
+        List<String> record = readRecordAt(offset);
+        if (record.isEmpty() || !record.get(0).equals(AnalysisRecordFormatter.REQUEST_ID_PREFIX + requestId)) {
+            rebuildIndex();
+            offset = index.get(requestId);
+            record = offset != null ? readRecordAt(offset) : new ArrayList<>();
+        }
+        return record;
+    }
+
+    /**
+     * Adds a record to the index. Subclasses that write the file themselves call this.
+     */
+    protected final void indexRecord(String requestId, long offset) {
+        if (requestId != null) {
+            index.put(requestId, offset);
+        }
+    }
+
+    /**
+     * Marks [start, end) as indexed when it directly follows the indexed prefix.
+     * Subclasses that write the file themselves call this after each write.
+     */
+    protected final synchronized void advanceIndex(long start, long end) {
+        if (indexedBytes == start) {
+            indexedBytes = end;
+        }
+    }
+
+    /**
+     * Empties the index (the file was truncated).
+     */
+    protected final synchronized void clearIndex() {
+        index.clear();
+        indexedBytes = 0;
+    }
+
+    /**
+     * Rebuilds the index from the whole file.
+     */
+    protected final synchronized void rebuildIndex() {
+        clearIndex();
+        catchUpIndex();
+    }
+
+    // Indexes the "Request ID" lines after the indexed prefix, up to the last complete line
+    private synchronized void catchUpIndex() {
+        File file = new File(filePath);
+        if (file.length() < indexedBytes) {
+            clearIndex(); // Truncated elsewhere
+        }
+        if (file.length() == indexedBytes) {
+            return;
+        }
+        if (mappedReads) {
+            try (MappedHistoryReader reader = openMapped()) {
+                if (reader != null) {
+                    indexedBytes = reader.forEachRecord(indexedBytes, this::indexRecord);
+                }
+            }
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            InputStream in = new BufferedInputStream(Channels.newInputStream(raf.getChannel().position(indexedBytes)));
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            long position = indexedBytes;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String text = decodeLine(line);
+                if (text.startsWith(AnalysisRecordFormatter.REQUEST_ID_PREFIX)) {
+                    indexRecord(text.substring(AnalysisRecordFormatter.REQUEST_ID_PREFIX.length()), indexedBytes);
+                }
+                line.reset();
+                indexedBytes = position;
+            }
+        } catch (FileNotFoundException e) {
+            // Nothing saved yet
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to index data file: " + e.getMessage());
+        }
+    }
+
+    // Reads the lines from offset through the record's divider line
+    private List<String> readRecordAt(long offset) {
+        List<String> record = new ArrayList<>();
+        try (RandomAccessFile file = new RandomAccessFile(filePath, "r")) {
+            if (offset >= file.length()) {
+                return record;
+            }
+            InputStream in = new BufferedInputStream(Channels.newInputStream(file.getChannel().position(offset)), 1024);
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int b;
+            while ((b = in.read()) != -1) {
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                String text = decodeLine(line);
+                record.add(text);
+                line.reset();
+                if (text.equals(AnalysisRecordFormatter.DIVIDER)) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to load data: " + e.getMessage());
+        }
+        return record;
+    }
+
+    /**
+     * Exports the history; in mapped mode the bytes go from the mapping to the target without decoding.
+     */
+    @Override
+    public void exportText(String targetPath) throws IOException {
+        if (!mappedReads) {
+            IAnalysisDao.super.exportText(targetPath);
+            return;
+        }
+        try (MappedHistoryReader reader = MappedHistoryReader.open(Path.of(filePath));
+             FileChannel target = FileChannel.open(Path.of(targetPath), StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            reader.transferTo(target);
+        }
+    }
+
+    // Maps the current file, or returns null after reporting an error
+    private MappedHistoryReader openMapped() {
+        try {
+            return MappedHistoryReader.open(Path.of(filePath));
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to load data: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static String decodeLine(ByteArrayOutputStream line) {
+        byte[] bytes = line.toByteArray();
+        int length = bytes.length > 0 && bytes[bytes.length - 1] == '\r' ? bytes.length - 1 : bytes.length;
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private static boolean isDivider(ByteArrayOutputStream line) {
+        int length = line.size();
+        return (length == DIVIDER_BYTES.length || length == DIVIDER_BYTES.length + 1)
+                && decodeLine(line).equals(AnalysisRecordFormatter.DIVIDER);
+    }
+
+    // True once a divider line follows: a whole record is left to read
+    private static boolean hasCompleteRecord(InputStream in) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        int b;
+        while ((b = in.read()) != -1) {
+            if (b != '\n') {
+                line.write(b);
+            } else if (isDivider(line)) {
+                return true;
+            } else {
+                line.reset();
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Empties the history by swapping in a new empty file (see swapInEmptyFile).
+     * Runs under the append lock, so it is ordered with saves and never cuts one in half.
      */
     @Override
     public void clear() {
-        try (FileWriter writer = new FileWriter(filePath)) {
-            // Opening in write mode clears file, writing nothing keeps it empty
+        appendLock.lock();
+        try {
+            swapInEmptyFile();
+            clearIndex();
+            appendedBytes = 0;
         } catch (IOException e) {
             System.err.println("[ERROR] Failed to clear file: " + e.getMessage());
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Atomically replaces the data file with a new empty one. Readers that already opened the
+     * old file (a streamed getAll, for example) finish reading it instead of seeing it truncated.
+     */
+    protected void swapInEmptyFile() throws IOException {
+        replaceWithEmptyFile(Path.of(filePath));
+    }
+
+    /**
+     * Replaces the file with a new empty one by an atomic rename. The new file gets the old
+     * file's POSIX permissions (temp files are created owner-only).
+     * Where an open file cannot be replaced (Windows), the file is truncated instead.
+     */
+    static void replaceWithEmptyFile(Path path) throws IOException {
+        Path target = path.toAbsolutePath();
+        Path empty = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".new");
+        try {
+            copyPermissions(target, empty);
+            Files.move(empty, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(empty);
+            try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                channel.truncate(0);
+            }
+        }
+    }
+
+    private static void copyPermissions(Path from, Path to) throws IOException {
+        PosixFileAttributeView source = Files.getFileAttributeView(from, PosixFileAttributeView.class);
+        PosixFileAttributeView copy = Files.getFileAttributeView(to, PosixFileAttributeView.class);
+        if (source != null && copy != null && Files.exists(from)) {
+            copy.setPermissions(source.readAttributes().permissions());
+        }
+    }
+
+    private static final class PendingWrite {
+        final String requestId;
+        final byte[] bytes;                                       // Formatted record
+        final CompletableFuture<Void> done = new CompletableFuture<>(); // Completed once written
+
+        PendingWrite(String requestId, byte[] bytes) {
+            this.requestId = requestId;
+            this.bytes = bytes;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,50 @@
+package main.java.repository;
+
+import main.java.enums.DataMode;
+import main.java.model.AnalysisRequest;
+import AlgorithmModule.SubarrayResult;
+
+/**
+ * Builds the text layout of the data file, shared by the synchronous and asynchronous DAOs.
+ * Each record is produced as one string so it can be written with a single call.
+ */
+public final class AnalysisRecordFormatter {
+    public static final String REQUEST_ID_PREFIX = "Request ID: "; // First line of every record
+    public static final String DIVIDER = "------------------------------------------------------ --"; // Last line
+    private static final String NL = System.lineSeparator();
+
+    private AnalysisRecordFormatter() {}
+
+    /**
+     * File header written once at the top of a new or empty file.
+     */
+    public static String header() {
+        return "--------------------------------------------------------" + NL +
+                "Profit Analyzer - Calculates profit in stock trading" + NL +
+                "--------------------------------------------------------" + NL;
+    }
+
+    /**
+     * One request/result record including the trailing divider line.
+     */
+    public static String format(AnalysisRequest request, SubarrayResult result) {
+        StringBuilder record = new StringBuilder(128);
+
+        // Request metadata
+        record.append(REQUEST_ID_PREFIX).append(request.getRequestId()).append(NL);
+        record.append("Analysis Type: ").append(request.getType()).append(NL);
+
+        // Data mode, with the original input only when relevant
+        DataMode mode = request.getDataMode();
+        record.append("Data Mode: ").append(mode).append(NL);
+        if (mode == DataMode.CLOSING_PRICES && request.getClosingPriceSeries() != null) {
+            record.append("User Input: ").append(request.getClosingPriceSeries()).append(NL);
+        }
+
+        // Processed values and analysis result
+        record.append("Values Used for Analysis: ").append(request.getSeries()).append(NL);
+        record.append("Result: ").append(result).append(NL);
+        record.append(DIVIDER).append(NL);
+        return record.toString();
+    }
+}
@@ -0,0 +1,479 @@
+package main.java.repository;
+
+import main.java.enums.FsyncPolicy;
+import main.java.model.AnalysisRequest;
+import AlgorithmModule.SubarrayResult;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Asynchronous variant of the file repository with the same text format.
+ * save() only enqueues the record; a single writer thread drains the bounded queue and
+ * group-commits records through one FileChannel, flushing when the batch reaches flushBytes
+ * or flushIntervalMs after its first record.
+ *
+ * Paged and streamed reads, count() and lookups of committed records read the file as it is,
+ * without waiting behind the write queue; records become visible to them within the flush
+ * interval. loadById() of a record that is still queued, loadAll(), exportText() and clear()
+ * are ordered with pending saves.
+ *
+ * A failed write keeps its batch and is retried every flush interval; until a retry succeeds, new
+ * saves are rejected and flushes (loadAll, close, ...) throw. If the writer thread itself fails,
+ * queued and later operations fail with its error instead of waiting for it.
+ */
+public final class AsyncAnalysisDaoImpl extends AnalysisDaoImpl implements AutoCloseable {
+    public static final int DEFAULT_QUEUE_CAPACITY = 10000;
+    public static final int DEFAULT_FLUSH_INTERVAL_MS = 50;
+    public static final int DEFAULT_FLUSH_BYTES = 64 * 1024;
+    private static final int DRAIN_LIMIT = 256;
+    private static final long WAIT_CHECK_MS = 100; // How often blocked callers check that the writer is alive
+
+    private final BlockingQueue<Object> queue;   // PendingRecord or Command, in save order
+    private final long flushIntervalNanos;       // Max time a record waits in the batch
+    private final int flushBytes;                // Batch size that triggers a write
+    private final FsyncPolicy fsyncPolicy;       // Whether each write is forced to disk
+    private final Path path;                     // Data file location
+    private FileChannel channel;                 // Append-only channel, used by the writer thread only
+    private final Thread writer;
+    private volatile boolean closed;
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock(); // Enqueue (read) vs close (write)
+    private final Set<String> pendingIds = ConcurrentHashMap.newKeySet(); // Saved but not yet written
+    private volatile IOException writeFailure;  // Failed write being retried; cleared once one succeeds
+    private volatile RuntimeException writerFailure; // What stopped the writer thread, if it died
+
+    // Writer thread state
+    private final StringBuilder batch = new StringBuilder();
+    private long batchStartedAt;   // System.nanoTime() of the first record in the batch
+    private boolean fileEmpty;     // Header must precede the next record
+    private long committedBytes;   // File size after the last flush
+    private long batchBytes;       // UTF-8 size of the batch, for the offsets of batched records
+    private final List<String> batchIds = new ArrayList<>();   // Request IDs in the batch
+    private final List<Long> batchOffsets = new ArrayList<>(); // Their file offsets once written
+
+    public AsyncAnalysisDaoImpl(String filePath) {
+        this(filePath, DEFAULT_QUEUE_CAPACITY, DEFAULT_FLUSH_INTERVAL_MS, DEFAULT_FLUSH_BYTES, FsyncPolicy.NEVER);
+    }
+
+    public AsyncAnalysisDaoImpl(String filePath, int queueCapacity, int flushIntervalMs, int flushBytes, FsyncPolicy fsyncPolicy) {
+        this(filePath, queueCapacity, flushIntervalMs, flushBytes, fsyncPolicy, false);
+    }
+
+    public AsyncAnalysisDaoImpl(String filePath, int queueCapacity, int flushIntervalMs, int flushBytes,
+                                FsyncPolicy fsyncPolicy, boolean mappedReads) {
+        super(filePath, mappedReads);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+        this.flushBytes = flushBytes;
+        this.fsyncPolicy = fsyncPolicy;
+        this.path = Path.of(filePath);
+        try {
+            this.channel = openAppend(path);
+            this.committedBytes = channel.size();
+            this.fileEmpty = committedBytes == 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open data file: " + filePath, e);
+        }
+        this.writer = new Thread(this::runWriter, "analysis-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queues the record and returns immediately.
+     * Blocks only while the queue is full, which throttles producers to the disk speed.
+     * Throws while writes are failing rather than queueing records that cannot be written.
+     */
+    @Override
+    public void save(AnalysisRequest request, SubarrayResult result) {
+        // The read lock makes the closed check and the enqueue atomic with respect to close(),
+        // so no record can land in the queue after the writer's final drain
+        closeLock.readLock().lock();
+        try {
+            if (!closed) {
+                IOException failed = writeFailure;
+                if (failed != null) {
+                    throw new UncheckedIOException("Data file writes are failing: " + failed.getMessage(), failed);
+                }
+                checkWriter();
+                String requestId = request.getRequestId();
+                if (requestId != null) {
+                    pendingIds.add(requestId);
+                }
+                enqueue(new PendingRecord(request, result));
+                checkWriter(); // Stopped while we waited: the record may never be written
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("[ERROR] Interrupted while saving result: " + request.getRequestId());
+            return;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        super.save(request, result); // Writer is gone - fall back to a direct append
+    }
+
+    /**
+     * Flushes everything saved so far, then reads the file.
+     */
+    @Override
+    public List<String> loadAll() {
+        submit(Command.FLUSH);
+        return super.loadAll();
+    }
+
+    /**
+     * Waits for the writer only when the record is still queued or batched.
+     */
+    @Override
+    public List<String> loadById(String requestId) {
+        if (requestId != null && pendingIds.contains(requestId)) {
+            submit(Command.FLUSH);
+        }
+        return super.loadById(requestId);
+    }
+
+    @Override
+    public void exportText(String targetPath) throws IOException {
+        submit(Command.FLUSH);
+        super.exportText(targetPath);
+    }
+
+    /**
+     * Drops pending records and truncates the file, in order with earlier saves.
+     */
+    @Override
+    public void clear() {
+        if (closed) {
+            super.clear();
+            return;
+        }
+        submit(Command.CLEAR);
+    }
+
+    /**
+     * Writes all queued records and stops the writer thread.
+     * Throws if the records could not be written.
+     */
+    @Override
+    public void close() {
+        ControlCommand command = new ControlCommand(Command.CLOSE);
+        closeLock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            checkWriter();
+            enqueue(command); // After every record enqueued before close
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        await(command);
+    }
+
+    // Enqueues a control command and waits until the writer has executed it
+    private void submit(Command kind) {
+        ControlCommand command = new ControlCommand(kind);
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            checkWriter();
+            enqueue(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        await(command);
+    }
+
+    // Waits for queue space, giving up once the writer has died
+    private void enqueue(Object item) throws InterruptedException {
+        while (!queue.offer(item, WAIT_CHECK_MS, TimeUnit.MILLISECONDS)) {
+            checkWriter();
+        }
+    }
+
+    // Waits until the writer has executed the command and rethrows its failure
+    private void await(ControlCommand command) {
+        String name = command.kind.name().toLowerCase();
+        try {
+            while (true) {
+                try {
+                    command.done.get(WAIT_CHECK_MS, TimeUnit.MILLISECONDS);
+                    return;
+                } catch (TimeoutException e) {
+                    checkWriter();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw new UncheckedIOException("Data file " + name + " failed: " + cause.getMessage(), cause);
+            }
+            throw new IllegalStateException("Data file " + name + " failed: " + e.getCause(), e.getCause());
+        }
+    }
+
+    private void checkWriter() {
+        RuntimeException failure = writerFailure;
+        if (failure != null) {
+            throw new IllegalStateException("Data file writer stopped: " + failure, failure);
+        }
+    }
+
+    // --- Writer thread ---
+
+    private void runWriter() {
+        List<Object> drained = new ArrayList<>(DRAIN_LIMIT);
+        ControlCommand closing = null;
+        try {
+            while (closing == null) {
+                try {
+                    Object item = batch.length() == 0
+                            ? queue.take()
+                            : queue.poll(batchStartedAt + flushIntervalNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (item == null) {
+                        retryableFlush(); // Flush interval elapsed
+                        continue;
+                    }
+                    drained.add(item);
+                    queue.drainTo(drained, DRAIN_LIMIT - 1);
+                    for (Object next : drained) {
+                        if (next instanceof ControlCommand command && command.kind == Command.CLOSE) {
+                            closing = command;
+                        } else {
+                            process(next);
+                        }
+                    }
+                    drained.clear();
+                } catch (InterruptedException e) {
+                    break;
+                }
+            }
+            // Records queued while closing are still written
+            queue.drainTo(drained);
+            for (Object next : drained) {
+                process(next);
+            }
+            drained.clear();
+            try {
+                flush();
+                if (closing != null) {
+                    closing.done.complete(null);
+                }
+            } catch (IOException e) {
+                if (closing != null) {
+                    closing.done.completeExceptionally(e);
+                }
+            }
+        } catch (RuntimeException e) {
+            stop(e, drained);
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to close data file: " + e.getMessage());
+        }
+    }
+
+    // The writer failed: everything queued or batched is dropped and waiting callers get the error
+    private void stop(RuntimeException failure, List<Object> drained) {
+        System.err.println("[ERROR] Data file writer stopped: " + failure);
+        writerFailure = failure;
+        queue.drainTo(drained);
+        for (Object item : drained) {
+            if (item instanceof ControlCommand command) {
+                command.done.completeExceptionally(failure);
+            } else {
+                forgetPending(((PendingRecord) item).request.getRequestId());
+            }
+        }
+        batchIds.forEach(this::forgetPending);
+    }
+
+    // Handles one queued record, FLUSH or CLEAR
+    private void process(Object item) {
+        if (item instanceof PendingRecord pending) {
+            if (batch.length() == 0) {
+                batchStartedAt = System.nanoTime();
+            }
+            if (fileEmpty) {
+                append(AnalysisRecordFormatter.header());
+                fileEmpty = false;
+            }
+            // Indexed once written (see flush); loadById of a pending record flushes first
+            batchIds.add(pending.request.getRequestId());
+            batchOffsets.add(committedBytes + batchBytes);
+            append(AnalysisRecordFormatter.format(pending.request, pending.result));
+            if (batch.length() >= flushBytes) {
+                retryableFlush();
+            }
+            return;
+        }
+
+        ControlCommand command = (ControlCommand) item;
+        try {
+            switch (command.kind) {
+                case FLUSH, CLOSE -> flush();
+                case CLEAR -> {
+                    batch.setLength(0);
+                    batchBytes = 0;
+                    batchIds.forEach(this::forgetPending); // Dropped, never written
+                    batchIds.clear();
+                    batchOffsets.clear();
+                    writeFailure = null;
+                    // New segment: the old file stays intact for readers still on it
+                    channel.close();
+                    try {
+                        swapInEmptyFile();
+                    } finally {
+                        channel = openAppend(path);
+                    }
+                    committedBytes = 0;
+                    clearIndex();
+                    fileEmpty = true;
+                }
+            }
+            command.done.complete(null);
+        } catch (IOException e) {
+            command.done.completeExceptionally(e);
+        }
+    }
+
+    // Flush whose failure is left to the next attempt (the batch is kept)
+    private void retryableFlush() {
+        try {
+            flush();
+        } catch (IOException e) {
+            // Recorded in writeFailure and retried after the flush interval
+        }
+    }
+
+    /**
+     * Group commit: one write (and optional force) for the whole batch.
+     * On failure the batch is kept for the next attempt and the bytes that did reach the file are
+     * cut off again, so a retry never duplicates part of a record.
+     */
+    private void flush() throws IOException {
+        if (batch.length() == 0) {
+            return;
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(batch.toString().getBytes(StandardCharsets.UTF_8));
+        long start = committedBytes;
+        try {
+            while (bytes.hasRemaining()) {
+                committedBytes += channel.write(bytes);
+            }
+            if (fsyncPolicy == FsyncPolicy.EVERY_FLUSH) {
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            committedBytes = start;
+            try {
+                channel.truncate(start);
+            } catch (IOException ignored) {
+                // The write failure below is what gets reported
+            }
+            if (writeFailure == null) {
+                System.err.println("[ERROR] Failed to save results, retrying: " + e.getMessage());
+            }
+            writeFailure = e;
+            batchStartedAt = System.nanoTime(); // Next attempt after another flush interval
+            throw e;
+        }
+        // Readers only ever find offsets of records that are already in the file
+        for (int i = 0; i < batchIds.size(); i++) {
+            indexRecord(batchIds.get(i), batchOffsets.get(i));
+        }
+        advanceIndex(start, committedBytes);
+        batch.setLength(0);
+        batchBytes = 0;
+        batchIds.forEach(this::forgetPending);
+        batchIds.clear();
+        batchOffsets.clear();
+        writeFailure = null;
+    }
+
+    private void forgetPending(String requestId) {
+        if (requestId != null) {
+            pendingIds.remove(requestId);
+        }
+    }
+
+    private static FileChannel openAppend(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private void append(String text) {
+        batch.append(text);
+        batchBytes += utf8Length(text);
+    }
+
+    // Encoded size without encoding (records are almost entirely ASCII)
+    private static int utf8Length(String text) {
+        int length = text.length();
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x800) {
+                length += Character.isSurrogate(c) ? 1 : 2; // A surrogate pair is 4 bytes in total
+            } else if (c >= 0x80) {
+                length++;
+            }
+        }
+        return length;
+    }
+
+    private static final class PendingRecord {
+        final AnalysisRequest request;
+        final SubarrayResult result;
+
+        PendingRecord(AnalysisRequest request, SubarrayResult result) {
+            this.request = request;
+            this.result = result;
+        }
+    }
+
+    private enum Command { FLUSH, CLEAR, CLOSE }
+
+    private static final class ControlCommand {
+        final Command kind;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        ControlCommand(Command kind) {
+            this.kind = kind;
+        }
+    }
+}
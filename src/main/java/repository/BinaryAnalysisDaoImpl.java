@@ -0,0 +1,330 @@
+package main.java.repository;
+
+import main.java.model.AnalysisRecord;
+import main.java.model.AnalysisRequest;
+import AlgorithmModule.SubarrayResult;
+
+import java.io.BufferedWriter;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Repository backed by an append-only binary record log (see BinaryRecordCodec for the layout).
+ * Values are stored as raw doubles with a CRC per record, and an in-memory index maps
+ * request IDs to record offsets so single results are read without scanning the file.
+ * The text format of AnalysisDaoImpl is still available through loadAll() and exportText().
+ */
+public class BinaryAnalysisDaoImpl implements IAnalysisDao, AutoCloseable {
+    private final Path path;                              // Log file location
+    private FileChannel channel;                          // Read/write channel for appends and lookups
+    private final Map<String, Long> index = new HashMap<>(); // Request ID → record offset (latest wins)
+    private long end;                                     // Offset where the next record is appended
+    private int recordCount;
+
+    public BinaryAnalysisDaoImpl(String filePath) {
+        this.path = Path.of(filePath);
+        try {
+            this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                writeFully(BinaryRecordCodec.fileHeader(), 0);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(BinaryRecordCodec.FILE_HEADER_SIZE);
+                channel.read(header, 0);
+                header.flip();
+                if (!BinaryRecordCodec.isValidFileHeader(header)) {
+                    channel.close();
+                    throw new IllegalStateException("Not a binary result log: " + filePath);
+                }
+            }
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open result log: " + filePath, e);
+        }
+    }
+
+    /**
+     * Appends one record and indexes its offset.
+     * The record is encoded before taking the lock, which then covers only the positional write.
+     */
+    @Override
+    public void save(AnalysisRequest request, SubarrayResult result) {
+        ByteBuffer record = BinaryRecordCodec.encode(request, result);
+        append(request, record);
+    }
+
+    private synchronized void append(AnalysisRequest request, ByteBuffer record) {
+        int length = record.remaining();
+        try {
+            writeFully(record, end);
+            if (request.getRequestId() != null) {
+                index.put(request.getRequestId(), end);
+            }
+            end += length;
+            recordCount++;
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to save result: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the record saved under the request ID, or null when unknown.
+     */
+    public synchronized AnalysisRecord find(String requestId) {
+        Long offset = index.get(requestId);
+        if (offset == null) {
+            return null;
+        }
+        try {
+            ByteBuffer header = ByteBuffer.allocate(BinaryRecordCodec.RECORD_HEADER_SIZE);
+            readFully(header, offset);
+            int length = header.getInt(0);
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(payload, offset + BinaryRecordCodec.RECORD_HEADER_SIZE);
+            return BinaryRecordCodec.decode(payload.flip());
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to read result " + requestId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Streams every record in save order without loading the whole log.
+     * Like stream(), reads through its own channel up to the records saved when it started,
+     * so saves and lookups are not blocked during the scan or while the action runs.
+     */
+    public void forEach(Consumer<AnalysisRecord> action) {
+        long limit;
+        synchronized (this) {
+            if (recordCount == 0) {
+                return;
+            }
+            limit = end;
+        }
+        try (FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+            scan(readChannel, limit, (offset, payload) -> action.accept(BinaryRecordCodec.decode(payload)));
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to read result log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Streams the log in the text format, one element per line, decoding records on demand.
+     * Reads through its own channel up to the records saved when the stream was opened,
+     * so saves are not blocked while a client consumes it.
+     */
+    @Override
+    public Stream<String> stream() {
+        long limit;
+        synchronized (this) {
+            if (recordCount == 0) {
+                return Stream.empty();
+            }
+            limit = end;
+        }
+        try {
+            FileChannel readChannel = FileChannel.open(path, StandardOpenOption.READ);
+            BinaryRecordReader reader = new BinaryRecordReader(readChannel, limit);
+            Iterator<String> records = new Iterator<>() {
+                private Boolean hasNext;
+
+                @Override
+                public boolean hasNext() {
+                    if (hasNext == null) {
+                        try {
+                            hasNext = reader.next();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public String next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    hasNext = null;
+                    AnalysisRecord record = BinaryRecordCodec.decode(reader.getPayload());
+                    return AnalysisRecordFormatter.format(record.getRequest(), record.getResult());
+                }
+            };
+            Stream<String> text = Stream.concat(
+                    Stream.of(AnalysisRecordFormatter.header()),
+                    StreamSupport.stream(Spliterators.spliteratorUnknownSize(records, Spliterator.ORDERED), false));
+            return text.flatMap(block -> Arrays.stream(block.split(System.lineSeparator())))
+                    .onClose(() -> {
+                        try {
+                            readChannel.close();
+                        } catch (IOException e) {
+                            System.err.println("[ERROR] Failed to close result log: " + e.getMessage());
+                        }
+                    });
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to read result log: " + e.getMessage());
+            return Stream.empty();
+        }
+    }
+
+    /**
+     * Returns the log in the text format of AnalysisDaoImpl, one element per line.
+     * Meant for small logs; use exportText() or forEach() for large ones.
+     */
+    @Override
+    public List<String> loadAll() {
+        List<String> lines = new ArrayList<>();
+        forEach(record -> {
+            if (lines.isEmpty()) {
+                lines.addAll(Arrays.asList(AnalysisRecordFormatter.header().split(System.lineSeparator())));
+            }
+            String text = AnalysisRecordFormatter.format(record.getRequest(), record.getResult());
+            lines.addAll(Arrays.asList(text.split(System.lineSeparator())));
+        });
+        return lines;
+    }
+
+    /**
+     * Writes the whole log as a text file in the AnalysisDaoImpl format.
+     */
+    @Override
+    public void exportText(String targetPath) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(Path.of(targetPath), StandardCharsets.UTF_8)) {
+            boolean[] first = {true};
+            UncheckedIOException[] failure = {null};
+            forEach(record -> {
+                try {
+                    if (first[0]) {
+                        writer.write(AnalysisRecordFormatter.header());
+                        first[0] = false;
+                    }
+                    writer.write(AnalysisRecordFormatter.format(record.getRequest(), record.getResult()));
+                } catch (IOException e) {
+                    failure[0] = new UncheckedIOException(e);
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0].getCause();
+            }
+        }
+    }
+
+    /**
+     * Drops all records by swapping in a new log that holds only the file header.
+     * Streams opened before the clear keep reading the old log.
+     */
+    @Override
+    public synchronized void clear() {
+        try {
+            channel.close();
+            try {
+                AnalysisDaoImpl.replaceWithEmptyFile(path);
+            } finally {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            }
+            channel.truncate(0);
+            writeFully(BinaryRecordCodec.fileHeader(), 0);
+            index.clear();
+            end = BinaryRecordCodec.FILE_HEADER_SIZE;
+            recordCount = 0;
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to clear result log: " + e.getMessage());
+        }
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    @Override
+    public synchronized long count() {
+        return recordCount;
+    }
+
+    /**
+     * Index lookup: one positional read instead of a scan.
+     */
+    @Override
+    public List<String> loadById(String requestId) {
+        AnalysisRecord record = find(requestId);
+        if (record == null) {
+            return new ArrayList<>();
+        }
+        String text = AnalysisRecordFormatter.format(record.getRequest(), record.getResult());
+        return new ArrayList<>(Arrays.asList(text.split(System.lineSeparator())));
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to close result log: " + e.getMessage());
+        }
+    }
+
+    // Rebuilds the index and drops a torn or corrupt tail left by an interrupted write
+    private void recover() throws IOException {
+        long size = channel.size();
+        end = scan(channel, size, (offset, payload) -> {
+            String requestId = BinaryRecordCodec.decodeRequestId(payload);
+            if (requestId != null) {
+                index.put(requestId, offset);
+            }
+            recordCount++;
+        });
+        if (end < size) {
+            System.err.println("[WARN] Dropping " + (size - end) + " damaged bytes at the end of " + path);
+            channel.truncate(end);
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(long offset, ByteBuffer payload);
+    }
+
+    /**
+     * Reads records sequentially up to the limit and returns the offset after the last valid one.
+     */
+    private long scan(FileChannel source, long limit, RecordVisitor visitor) throws IOException {
+        BinaryRecordReader reader = new BinaryRecordReader(source, limit);
+        while (reader.next()) {
+            visitor.visit(reader.getRecordOffset(), reader.getPayload());
+        }
+        return reader.getNextOffset();
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new EOFException("Unexpected end of result log");
+            }
+            position += read;
+        }
+    }
+}
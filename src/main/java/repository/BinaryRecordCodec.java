@@ -0,0 +1,152 @@
+package main.java.repository;
+
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.model.AnalysisRecord;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import AlgorithmModule.SubarrayResult;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Encoding of the binary result log.
+ *
+ * File:   [int MAGIC][short VERSION][short reserved] then records back to back.
+ * Record: [int payloadLength][int crc32(payload)][payload]
+ * Payload: request ID (short length + UTF-8), type and data mode (byte ordinal, -1 = null),
+ *          result (int start, int end, double total), target and epsilon (double),
+ *          values and closing prices (int count, -1 = null, then raw doubles).
+ * Enum ordinals are stored, so new constants must only be appended.
+ */
+public final class BinaryRecordCodec {
+    public static final int MAGIC = 0x50414C47; // "PALG"
+    public static final short VERSION = 1;
+    public static final int FILE_HEADER_SIZE = 8;
+    public static final int RECORD_HEADER_SIZE = 8;
+
+    private BinaryRecordCodec() {}
+
+    public static ByteBuffer fileHeader() {
+        ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+        header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).flip();
+        return header;
+    }
+
+    /**
+     * Returns true when the buffer starts with a supported file header.
+     */
+    public static boolean isValidFileHeader(ByteBuffer header) {
+        return header.remaining() >= FILE_HEADER_SIZE
+                && header.getInt(header.position()) == MAGIC
+                && header.getShort(header.position() + 4) == VERSION;
+    }
+
+    /**
+     * Encodes a complete record (frame header + payload), ready to be written.
+     */
+    public static ByteBuffer encode(AnalysisRequest request, SubarrayResult result) {
+        byte[] id = request.getRequestId() != null ? request.getRequestId().getBytes(StandardCharsets.UTF_8) : null;
+        DoubleSeries values = request.getSeries();
+        DoubleSeries closingPrices = request.getClosingPriceSeries();
+
+        int payloadLength = 2 + (id != null ? id.length : 0) + 2 + 16 + 16
+                + seriesLength(values) + seriesLength(closingPrices);
+        ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength);
+        buffer.position(RECORD_HEADER_SIZE);
+
+        buffer.putShort((short) (id != null ? id.length : -1));
+        if (id != null) {
+            buffer.put(id);
+        }
+        buffer.put((byte) (request.getType() != null ? request.getType().ordinal() : -1));
+        buffer.put((byte) (request.getDataMode() != null ? request.getDataMode().ordinal() : -1));
+        buffer.putInt(result.getStartIndex()).putInt(result.getEndIndex()).putDouble(result.getTotal());
+        buffer.putDouble(request.getTarget()).putDouble(request.getEpsilon());
+        putSeries(buffer, values);
+        putSeries(buffer, closingPrices);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), RECORD_HEADER_SIZE, payloadLength);
+        buffer.putInt(0, payloadLength).putInt(4, (int) crc.getValue());
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Returns true when the payload matches the checksum from its frame header.
+     */
+    public static boolean checksumMatches(ByteBuffer payload, int expectedCrc) {
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        return (int) crc.getValue() == expectedCrc;
+    }
+
+    /**
+     * Reads only the request ID from the start of a payload (used to build the index).
+     */
+    public static String decodeRequestId(ByteBuffer payload) {
+        int length = payload.getShort(payload.position());
+        if (length < 0) {
+            return null;
+        }
+        byte[] id = new byte[length];
+        payload.duplicate().position(payload.position() + 2).get(id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Decodes a full payload (without the frame header).
+     */
+    public static AnalysisRecord decode(ByteBuffer payload) {
+        ByteBuffer in = payload.duplicate();
+        String requestId = null;
+        int idLength = in.getShort();
+        if (idLength >= 0) {
+            byte[] id = new byte[idLength];
+            in.get(id);
+            requestId = new String(id, StandardCharsets.UTF_8);
+        }
+        int typeOrdinal = in.get();
+        int modeOrdinal = in.get();
+        SubarrayResult result = new SubarrayResult(in.getInt(), in.getInt(), in.getDouble());
+        double target = in.getDouble();
+        double epsilon = in.getDouble();
+        DoubleSeries values = getSeries(in);
+        DoubleSeries closingPrices = getSeries(in);
+
+        AnalysisRequest request = new AnalysisRequest(requestId, values,
+                typeOrdinal >= 0 ? AnalysisType.values()[typeOrdinal] : null,
+                modeOrdinal >= 0 ? DataMode.values()[modeOrdinal] : null,
+                closingPrices, target, epsilon);
+        return new AnalysisRecord(request, result);
+    }
+
+    private static int seriesLength(DoubleSeries series) {
+        return 4 + (series != null ? series.size() * Double.BYTES : 0);
+    }
+
+    // Bulk copy of the primitive array
+    private static void putSeries(ByteBuffer buffer, DoubleSeries series) {
+        if (series == null) {
+            buffer.putInt(-1);
+            return;
+        }
+        buffer.putInt(series.size());
+        buffer.asDoubleBuffer().put(series.array(), 0, series.size());
+        buffer.position(buffer.position() + series.size() * Double.BYTES);
+    }
+
+    private static DoubleSeries getSeries(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0) {
+            return null;
+        }
+        double[] values = new double[count];
+        in.asDoubleBuffer().get(values);
+        in.position(in.position() + count * Double.BYTES);
+        return DoubleSeries.wrap(values, count);
+    }
+}
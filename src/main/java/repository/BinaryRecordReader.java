@@ -0,0 +1,70 @@
+package main.java.repository;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+
+/**
+ * Sequential reader over the records of a binary result log, up to a fixed end offset.
+ * Stops at the first torn or corrupt record; getNextOffset() then tells where valid data ends.
+ */
+class BinaryRecordReader {
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final DataInputStream in;
+    private final long limit;          // Records must end at or before this offset
+    private long recordOffset = -1;    // Offset of the current record
+    private long nextOffset;           // Offset after the current record
+    private byte[] bytes = new byte[256];
+    private ByteBuffer payload;        // Current payload (reused buffer - copy what you keep)
+
+    BinaryRecordReader(FileChannel channel, long limit) throws IOException {
+        this.limit = limit;
+        this.nextOffset = BinaryRecordCodec.FILE_HEADER_SIZE;
+        channel.position(nextOffset);
+        this.in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), READ_BUFFER_SIZE));
+    }
+
+    /**
+     * Advances to the next valid record; false at the end or at the first damaged record.
+     */
+    boolean next() throws IOException {
+        if (nextOffset + BinaryRecordCodec.RECORD_HEADER_SIZE > limit) {
+            return false;
+        }
+        int length, crc;
+        try {
+            length = in.readInt();
+            crc = in.readInt();
+        } catch (EOFException e) {
+            return false;
+        }
+        if (length < 0 || nextOffset + BinaryRecordCodec.RECORD_HEADER_SIZE + length > limit) {
+            return false;
+        }
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        try {
+            in.readFully(bytes, 0, length);
+        } catch (EOFException e) {
+            return false;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, length).slice();
+        if (!BinaryRecordCodec.checksumMatches(buffer, crc)) {
+            return false;
+        }
+        payload = buffer;
+        recordOffset = nextOffset;
+        nextOffset += BinaryRecordCodec.RECORD_HEADER_SIZE + length;
+        return true;
+    }
+
+    long getRecordOffset() { return recordOffset; }
+    long getNextOffset() { return nextOffset; }
+    ByteBuffer getPayload() { return payload; }
+}
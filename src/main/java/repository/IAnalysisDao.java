@@ -1,8 +1,18 @@
 package main.java.repository;
 
 import main.java.model.AnalysisRequest;
+import main.java.model.ResultPage;
 import AlgorithmModule.SubarrayResult;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Interface for storing and retrieving subarray analysis results.
@@ -17,4 +27,109 @@ public interface IAnalysisDao {
 
     // Clear all entries from the data source.
     void clear();
-}
\ No newline at end of file
+
+    /**
+     * Same entries as loadAll(), read lazily. The stream holds the data source open - close it.
+     */
+    default Stream<String> stream() {
+        return loadAll().stream();
+    }
+
+    /**
+     * Reads the lines of up to limit whole records, starting at the cursor (null = first record) and
+     * skipping offset records; lines before the first record (the file header) come with it.
+     * A record ends at its divider line, and one still missing it is left for a later page.
+     * Cursors are opaque and only valid for the DAO that returned them. This default implementation
+     * uses the record number as cursor; implementations may return cheaper positions (e.g. file offsets).
+     */
+    default ResultPage readPage(String cursor, long offset, int limit) {
+        long start = parseCursor(cursor) + offset;
+        List<String> page = new ArrayList<>();
+        List<String> record = new ArrayList<>(); // Lines of the record being read
+        long index = 0;
+        try (Stream<String> lines = stream()) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                if (index >= start) {
+                    record.add(line);
+                }
+                if (line.equals(AnalysisRecordFormatter.DIVIDER)) {
+                    if (index - start == limit) {
+                        return new ResultPage(page, String.valueOf(start + limit)); // Look-ahead record only tells that another page exists
+                    }
+                    page.addAll(record);
+                    record.clear();
+                    index++;
+                }
+            }
+        }
+        return new ResultPage(page, null);
+    }
+
+    /**
+     * Number of saved records (not lines).
+     */
+    default long count() {
+        try (Stream<String> lines = stream()) {
+            return lines.filter(line -> line.startsWith(AnalysisRecordFormatter.REQUEST_ID_PREFIX)).count();
+        }
+    }
+
+    /**
+     * Lines of the record saved under the request ID (same format as loadAll), or an empty list.
+     */
+    default List<String> loadById(String requestId) {
+        try (Stream<String> lines = stream()) {
+            return findRecord(lines, requestId);
+        }
+    }
+
+    /**
+     * Writes all saved results as a text file in the loadAll format.
+     */
+    default void exportText(String targetPath) throws IOException {
+        try (Stream<String> lines = stream();
+             BufferedWriter writer = Files.newBufferedWriter(Path.of(targetPath), StandardCharsets.UTF_8)) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+                writer.newLine();
+            }
+        }
+    }
+
+    // Lines of the first record with the request ID in the line stream, or an empty list
+    static List<String> findRecord(Stream<String> lines, String requestId) {
+        String first = AnalysisRecordFormatter.REQUEST_ID_PREFIX + requestId;
+        List<String> record = new ArrayList<>();
+        Iterator<String> iterator = lines.iterator();
+        while (iterator.hasNext()) {
+            String line = iterator.next();
+            if (record.isEmpty() && !line.equals(first)) {
+                continue;
+            }
+            record.add(line);
+            if (line.equals(AnalysisRecordFormatter.DIVIDER)) {
+                break;
+            }
+        }
+        return record;
+    }
+
+    // Parses a numeric cursor, rejecting anything that was not produced by readPage
+    static long parseCursor(String cursor) {
+        if (cursor == null) {
+            return 0;
+        }
+        try {
+            long position = Long.parseLong(cursor);
+            if (position < 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor);
+            }
+            return position;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
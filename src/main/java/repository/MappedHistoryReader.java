@@ -0,0 +1,248 @@
+package main.java.repository;
+
+import main.java.model.ResultPage;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ObjLongConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Read-only, memory-mapped view of the text history file.
+ * The file is mapped in windows of up to 1 GB; scanning, counting and locating records work on
+ * the mapped bytes directly, and strings are only created for the lines actually returned.
+ * The view covers the file size at open time, so records appended later are not seen and
+ * a record still being written (no final line break) is left out.
+ */
+public class MappedHistoryReader implements AutoCloseable {
+    private static final int WINDOW_SHIFT = 30;
+    private static final long WINDOW_SIZE = 1L << WINDOW_SHIFT;
+    private static final byte[] REQUEST_ID = AnalysisRecordFormatter.REQUEST_ID_PREFIX.getBytes(StandardCharsets.UTF_8);
+    private static final byte[] DIVIDER = AnalysisRecordFormatter.DIVIDER.getBytes(StandardCharsets.UTF_8);
+
+    private final FileChannel channel;          // null for a missing file
+    private final long size;                    // Mapped length
+    private final MappedByteBuffer[] windows;   // windows[i] covers [i * WINDOW_SIZE, (i + 1) * WINDOW_SIZE)
+
+    private MappedHistoryReader(FileChannel channel, long size) throws IOException {
+        this.channel = channel;
+        this.size = size;
+        this.windows = new MappedByteBuffer[(int) ((size + WINDOW_SIZE - 1) >>> WINDOW_SHIFT)];
+        for (int i = 0; i < windows.length; i++) {
+            long start = i * WINDOW_SIZE;
+            windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_SIZE, size - start));
+        }
+    }
+
+    /**
+     * Maps the file; a missing file reads as empty.
+     */
+    public static MappedHistoryReader open(Path path) throws IOException {
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                return new MappedHistoryReader(channel, channel.size());
+            } catch (IOException e) {
+                channel.close();
+                throw e;
+            }
+        } catch (NoSuchFileException e) {
+            return new MappedHistoryReader(null, 0);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Offset just after the line break of the line starting at position, or -1 for an incomplete line.
+     */
+    public long lineEnd(long position) {
+        for (long i = position; i < size; i++) {
+            if (byteAt(i) == '\n') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Decodes the line in [start, end), without its line break.
+     */
+    public String line(long start, long end) {
+        long stop = end;
+        if (stop > start && byteAt(stop - 1) == '\n') stop--;
+        if (stop > start && byteAt(stop - 1) == '\r') stop--;
+        byte[] bytes = new byte[(int) (stop - start)];
+        int copied = 0;
+        while (copied < bytes.length) {
+            long position = start + copied;
+            MappedByteBuffer window = windows[(int) (position >>> WINDOW_SHIFT)];
+            int offset = (int) (position & (WINDOW_SIZE - 1));
+            int n = Math.min(bytes.length - copied, window.limit() - offset);
+            window.get(offset, bytes, copied, n);
+            copied += n;
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Counts records by their first line, without decoding anything.
+     */
+    public long countRecords() {
+        long count = 0;
+        for (long position = 0, end; position < size && (end = lineEnd(position)) >= 0; position = end) {
+            if (startsWith(position, REQUEST_ID)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reports the request ID and offset of every record from the start position on, decoding only
+     * the ID lines. Returns the offset after the last complete line.
+     */
+    public long forEachRecord(long start, ObjLongConsumer<String> action) {
+        long position = start;
+        for (long end; position < size && (end = lineEnd(position)) >= 0; position = end) {
+            if (startsWith(position, REQUEST_ID)) {
+                action.accept(line(position + REQUEST_ID.length, end), position);
+            }
+        }
+        return position;
+    }
+
+    /**
+     * All complete lines, decoded one at a time as the stream is consumed.
+     */
+    public Stream<String> lines() {
+        Iterator<String> iterator = new Iterator<>() {
+            private long position;
+            private long end = size > 0 ? lineEnd(0) : -1;
+
+            @Override
+            public boolean hasNext() {
+                return end >= 0;
+            }
+
+            @Override
+            public String next() {
+                if (end < 0) {
+                    throw new NoSuchElementException();
+                }
+                String line = line(position, end);
+                position = end;
+                end = position < size ? lineEnd(position) : -1;
+                return line;
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false);
+    }
+
+    /**
+     * One page of whole records, with the same record units and byte-offset cursor as
+     * AnalysisDaoImpl.readPage.
+     */
+    public ResultPage page(long cursor, long offset, int limit) {
+        if (cursor > size) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        List<String> entries = new ArrayList<>();
+        long position = cursor;
+        long recordStart = cursor; // First line of the record being read
+        long skipped = 0;
+        int records = 0;
+        long end;
+        while (records < limit && position < size && (end = lineEnd(position)) >= 0) {
+            if (isDivider(position, end)) {
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    for (long start = recordStart, next; start < end; start = next) {
+                        next = lineEnd(start);
+                        entries.add(line(start, next));
+                    }
+                    records++;
+                }
+                recordStart = end;
+            }
+            position = end;
+        }
+        boolean more = false;
+        for (long start = position; records == limit && !more && start < size && (end = lineEnd(start)) >= 0; start = end) {
+            more = isDivider(start, end);
+        }
+        return new ResultPage(entries, more ? String.valueOf(position) : null);
+    }
+
+    /**
+     * Copies the complete lines of the file to the target channel straight from the mapping.
+     */
+    public void transferTo(WritableByteChannel target) throws IOException {
+        long complete = size;
+        while (complete > 0 && byteAt(complete - 1) != '\n') {
+            complete--; // Leave out a record still being written
+        }
+        for (int i = 0; i < windows.length && i * WINDOW_SIZE < complete; i++) {
+            MappedByteBuffer window = windows[i].duplicate();
+            window.limit((int) Math.min(window.limit(), complete - i * WINDOW_SIZE));
+            while (window.hasRemaining()) {
+                target.write(window);
+            }
+        }
+    }
+
+    /**
+     * Closes the channel. Mapped windows stay valid until they are garbage collected.
+     */
+    @Override
+    public void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to close data file: " + e.getMessage());
+        }
+    }
+
+    private byte byteAt(long position) {
+        return windows[(int) (position >>> WINDOW_SHIFT)].get((int) (position & (WINDOW_SIZE - 1)));
+    }
+
+    private boolean isDivider(long start, long end) {
+        long length = end - start - 1; // Without the line break
+        if (length > DIVIDER.length && byteAt(end - 2) == '\r') {
+            length--;
+        }
+        return length == DIVIDER.length && startsWith(start, DIVIDER);
+    }
+
+    private boolean startsWith(long position, byte[] prefix) {
+        if (position + prefix.length > size) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (byteAt(position + i) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,130 @@
+package main.java.repository;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Metadata of a sealed history segment, stored next to it as JSON (segment-N.meta).
+ * Lets reads skip whole segments: count() and paging offsets use the totals, and loadById
+ * only scans segments whose request ID filter (a Bloom filter) may contain the ID.
+ */
+final class SegmentSummary {
+    private static final int BITS_PER_ID = 10; // ~1% false positives with 7 hashes
+    private static final int HASHES = 7;
+
+    long bytes;        // Segment size the summary was computed for (a mismatch means it is stale)
+    long lines;        // Text lines, including the header
+    long records;      // Saved results
+    long lastModified; // Time of the last write (ms), used for age-based retention
+    long[] idFilter;   // Bloom filter bits over the request IDs
+    List<Absorbed> absorbed = new ArrayList<>(); // Segments merged in after the first one (empty if never merged)
+
+    /**
+     * Reads the whole segment once and summarizes it.
+     */
+    static SegmentSummary scan(Path file) throws IOException {
+        SegmentSummary summary = new SegmentSummary();
+        summary.bytes = Files.size(file);
+        summary.lastModified = Files.getLastModifiedTime(file).toMillis();
+
+        // Hash pairs are collected first because the filter is sized by the record count
+        long[] hashes = new long[64];
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                summary.lines++;
+                if (line.startsWith(AnalysisRecordFormatter.REQUEST_ID_PREFIX)) {
+                    if (summary.records == hashes.length) {
+                        hashes = Arrays.copyOf(hashes, hashes.length * 2);
+                    }
+                    hashes[(int) summary.records++] = hash(line.substring(AnalysisRecordFormatter.REQUEST_ID_PREFIX.length()));
+                }
+            }
+        }
+
+        summary.idFilter = new long[(int) Math.max(1, (summary.records * BITS_PER_ID + 63) / 64)];
+        for (int i = 0; i < summary.records; i++) {
+            summary.add(hashes[i]);
+        }
+        return summary;
+    }
+
+    /**
+     * False means the ID is certainly not in the segment.
+     */
+    boolean mightContain(String requestId) {
+        if (idFilter == null) {
+            return true;
+        }
+        long hash = hash(requestId);
+        long bits = idFilter.length * 64L;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            if ((idFilter[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Where a segment merged into this one now lives, or null if it was not merged in here.
+     */
+    Absorbed absorbed(long segmentId) {
+        if (absorbed != null) {
+            for (Absorbed entry : absorbed) {
+                if (entry.id == segmentId) {
+                    return entry;
+                }
+            }
+        }
+        return null;
+    }
+
+    private void add(long hash) {
+        long bits = idFilter.length * 64L;
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = Integer.toUnsignedLong(h1 + i * h2) % bits;
+            idFilter[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    // Two independent 32-bit hashes (String.hashCode and FNV-1a) packed into one long
+    private static long hash(String requestId) {
+        int fnv = 0x811C9DC5;
+        for (int i = 0; i < requestId.length(); i++) {
+            fnv = (fnv ^ requestId.charAt(i)) * 0x01000193;
+        }
+        return ((long) (fnv | 1) << 32) | (requestId.hashCode() & 0xFFFFFFFFL);
+    }
+
+    /**
+     * A segment merged into this one: its bytes after headerBytes start at base.
+     */
+    static final class Absorbed {
+        long id;          // Id of the merged-away segment
+        long base;        // Offset of its first record in this segment
+        long headerBytes; // Header bytes it started with (dropped by the merge)
+
+        Absorbed(long id, long base, long headerBytes) {
+            this.id = id;
+            this.base = base;
+            this.headerBytes = headerBytes;
+        }
+
+        // Maps a byte position in the merged-away segment to this one
+        long position(long position) {
+            return base + Math.max(0, position - headerBytes);
+        }
+    }
+}
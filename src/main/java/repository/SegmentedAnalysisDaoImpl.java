@@ -0,0 +1,625 @@
+package main.java.repository;
+
+import main.java.model.AnalysisRequest;
+import main.java.model.ResultPage;
+import AlgorithmModule.SubarrayResult;
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * History store made of bounded text segments in one directory (segment-N.txt, oldest first).
+ * Saves append to the active segment, which is sealed and replaced once it reaches segmentBytes
+ * or gets older than segmentAgeMs, so appends never touch a giant file.
+ * A background thread summarizes sealed segments (segment-N.meta, see SegmentSummary), drops
+ * segments beyond the retention limits and merges runs of small neighbours into one segment.
+ * Each segment is a standalone text history with its own header; reads return the segments
+ * concatenated with the first header only. Paging cursors are "segment:byteOffset"; a cursor into
+ * a segment that was merged away is mapped into the merged segment (see SegmentSummary.Absorbed).
+ * Reads pin the segments they started with, so segments dropped or merged meanwhile are deleted
+ * only once the last reader is done with them. A merge writes a new file (segment-N-G.txt,
+ * generation G) instead of rewriting the first segment of the run in place.
+ */
+public final class SegmentedAnalysisDaoImpl implements IAnalysisDao, AutoCloseable {
+    public static final long DEFAULT_SEGMENT_BYTES = 64L * 1024 * 1024;
+    public static final long DEFAULT_SEGMENT_AGE_MS = TimeUnit.DAYS.toMillis(1);
+    private static final long MAINTENANCE_INTERVAL_MS = 60_000;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("segment-(\\d+)(?:-(\\d+))?\\.txt");
+    private static final String[] HEADER_LINES = AnalysisRecordFormatter.header().split(System.lineSeparator());
+
+    private final Path directory;          // Holds the segment and summary files
+    private final long segmentBytes;       // Size that seals the active segment
+    private final long segmentAgeMs;       // Age that seals the active segment
+    private final long retentionMs;        // Sealed segments last written before now - retentionMs are dropped (0 = keep)
+    private final int retentionSegments;   // Newest segments to keep, active included (0 = keep all)
+    private final boolean mappedReads;     // Passed on to the segment readers
+    private final Gson gson = new Gson();  // Summary serialization
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(); // Shared by saves; exclusive for segment swaps
+    private final Object maintenanceLock = new Object(); // One maintenance pass at a time
+    private final ScheduledExecutorService maintenance;
+    private final Set<Segment> retired = ConcurrentHashMap.newKeySet(); // Dropped, deleted once unpinned
+
+    // Replaced as a whole under the write lock
+    private volatile List<Segment> sealed = List.of(); // Oldest first
+    private volatile Segment active;
+    private volatile AnalysisDaoImpl activeDao;        // Appends to the active segment
+    private long activeCreatedAt;
+    private long nextId;
+
+    public SegmentedAnalysisDaoImpl(String directory) {
+        this(directory, DEFAULT_SEGMENT_BYTES, DEFAULT_SEGMENT_AGE_MS, 0, 0, false);
+    }
+
+    public SegmentedAnalysisDaoImpl(String directory, long segmentBytes, long segmentAgeMs,
+                                    long retentionMs, int retentionSegments, boolean mappedReads) {
+        this.directory = Path.of(directory);
+        this.segmentBytes = segmentBytes;
+        this.segmentAgeMs = segmentAgeMs;
+        this.retentionMs = retentionMs;
+        this.retentionSegments = retentionSegments;
+        this.mappedReads = mappedReads;
+        try {
+            Files.createDirectories(this.directory);
+            load();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open history directory: " + directory, e);
+        }
+        this.maintenance = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "history-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.maintenance.scheduleWithFixedDelay(this::runMaintenance,
+                MAINTENANCE_INTERVAL_MS, MAINTENANCE_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Appends to the active segment and seals it once it is full.
+     * Saves only share the read lock, so they run concurrently (see AnalysisDaoImpl.save).
+     */
+    @Override
+    public void save(AnalysisRequest request, SubarrayResult result) {
+        Segment target;
+        AnalysisDaoImpl dao;
+        lock.readLock().lock();
+        try {
+            target = active;
+            dao = activeDao;
+            dao.save(request, result);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (dao.appendedBytes() >= segmentBytes) {
+            rotate(target);
+        }
+    }
+
+    @Override
+    public List<String> loadAll() {
+        try (Stream<String> lines = stream()) {
+            return lines.collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    /**
+     * All segments in order, each opened only when the previous one is consumed.
+     * Only the first segment keeps its header, as in a merged segment.
+     */
+    @Override
+    public Stream<String> stream() {
+        List<Segment> segments = acquire();
+        return segments.stream().flatMap(segment -> segment == segments.get(0)
+                ? lines(segment) : dropHeader(lines(segment))).onClose(() -> release(segments));
+    }
+
+    /**
+     * Pages across segments. Offsets skip whole summarized segments without reading them.
+     */
+    @Override
+    public ResultPage readPage(String cursor, long offset, int limit) {
+        List<Segment> segments = acquire();
+        try {
+            return readPage(segments, cursor, offset, limit);
+        } finally {
+            release(segments);
+        }
+    }
+
+    private ResultPage readPage(List<Segment> segments, String cursor, long offset, int limit) {
+        int i = 0;
+        String inner = null; // Byte cursor inside segments.get(i)
+        if (cursor != null) {
+            int colon = cursor.indexOf(':');
+            long id = colon > 0 ? parseId(cursor.substring(0, colon), cursor) : -1;
+            inner = cursor.substring(colon + 1);
+            while (i < segments.size() && segments.get(i).id != id) {
+                i++;
+            }
+            if (i == segments.size()) {
+                // Merged away: continue at the same record in the segment that absorbed it
+                for (i = 0; i < segments.size(); i++) {
+                    SegmentSummary summary = segments.get(i).summary;
+                    SegmentSummary.Absorbed absorbed = summary != null ? summary.absorbed(id) : null;
+                    if (absorbed != null) {
+                        inner = String.valueOf(absorbed.position(IAnalysisDao.parseCursor(inner)));
+                        break;
+                    }
+                }
+            }
+            if (i == segments.size()) {
+                throw new IllegalArgumentException("Invalid cursor: " + cursor + " (segment removed - restart from the first page)");
+            }
+        }
+
+        List<String> entries = new ArrayList<>();
+        long skip = offset;
+        int records = 0; // Records in entries; limit counts records, not lines
+        for (; i < segments.size() && records < limit; i++, inner = null) {
+            Segment segment = segments.get(i);
+            if (inner == null && skip > 0 && segment != segments.get(segments.size() - 1)) {
+                SegmentSummary summary = ensureSummary(segment);
+                if (summary != null && skip >= summary.records) {
+                    skip -= summary.records;
+                    continue;
+                }
+            }
+            ResultPage part = Files.exists(segment.path)
+                    ? reader(segment).readPage(inner, skip, limit - records) : new ResultPage(new ArrayList<>(), null);
+            List<String> lines = part.getEntries();
+            if (i > 0 && (inner == null || IAnalysisDao.parseCursor(inner) == 0)) {
+                lines = dropHeader(lines.stream()).collect(Collectors.toList()); // Part starts at the segment's header
+            }
+            for (String line : lines) {
+                entries.add(line);
+                records += line.startsWith(AnalysisRecordFormatter.REQUEST_ID_PREFIX) ? 1 : 0;
+            }
+            skip = 0;
+            if (part.hasMore()) {
+                return new ResultPage(entries, segment.id + ":" + part.getNextCursor());
+            }
+        }
+        for (; i < segments.size(); i++) {
+            if (segments.get(i).path.toFile().length() > 0) {
+                return new ResultPage(entries, segments.get(i).id + ":0");
+            }
+        }
+        return new ResultPage(entries, null);
+    }
+
+    /**
+     * Sums the summaries of sealed segments; only the active segment is read.
+     */
+    @Override
+    public long count() {
+        List<Segment> segments = acquire();
+        try {
+            long count = 0;
+            for (Segment segment : segments) {
+                SegmentSummary summary = ensureSummary(segment);
+                if (summary != null) {
+                    count += summary.records;
+                } else if (Files.exists(segment.path)) {
+                    count += reader(segment).count();
+                }
+            }
+            return count;
+        } finally {
+            release(segments);
+        }
+    }
+
+    /**
+     * Active segment through its index, then sealed segments newest first, skipping those whose
+     * request ID filter rules the ID out.
+     */
+    @Override
+    public List<String> loadById(String requestId) {
+        List<String> record = activeDao.loadById(requestId);
+        if (!record.isEmpty()) {
+            return record;
+        }
+        List<Segment> candidates = acquire();
+        try {
+            for (int i = candidates.size() - 2; i >= 0 && record.isEmpty(); i--) {
+                SegmentSummary summary = ensureSummary(candidates.get(i));
+                if (summary == null || summary.mightContain(requestId)) {
+                    try (Stream<String> lines = lines(candidates.get(i))) {
+                        record = IAnalysisDao.findRecord(lines, requestId);
+                    }
+                }
+            }
+            return record;
+        } finally {
+            release(candidates);
+        }
+    }
+
+    /**
+     * Drops every segment and starts a new one. Ids keep increasing, so old cursors are rejected.
+     */
+    @Override
+    public void clear() {
+        List<Segment> dropped = new ArrayList<>();
+        lock.writeLock().lock();
+        try {
+            dropped.addAll(sealed);
+            dropped.add(active);
+            sealed = List.of();
+            startSegment(nextId++);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        retire(dropped);
+    }
+
+    /**
+     * One maintenance pass: age-based rotation, missing summaries, retention, then compaction.
+     * Runs in the background every minute; public so it can also be triggered directly.
+     */
+    public void runMaintenance() {
+        synchronized (maintenanceLock) {
+            try {
+                Segment current = active;
+                if (System.currentTimeMillis() - activeCreatedAt >= segmentAgeMs) {
+                    rotate(current);
+                }
+                for (Segment segment : sealed) {
+                    ensureSummary(segment);
+                }
+                applyRetention();
+                compact();
+            } catch (IOException | RuntimeException e) {
+                System.err.println("[ERROR] History maintenance failed: " + e.getMessage());
+            }
+        }
+    }
+
+    public int getSegmentCount() {
+        return sealed.size() + 1;
+    }
+
+    @Override
+    public void close() {
+        maintenance.shutdown();
+        synchronized (maintenanceLock) {
+            // Readers still holding dropped segments lose them now rather than leaving them for the next load
+            retired.forEach(this::delete);
+        }
+    }
+
+    // --- Segment lifecycle ---
+
+    // Seals the given active segment (if it still is the active one and holds data)
+    private void rotate(Segment expected) {
+        lock.writeLock().lock();
+        try {
+            if (active != expected || expected.path.toFile().length() == 0) {
+                return;
+            }
+            List<Segment> next = new ArrayList<>(sealed);
+            next.add(expected);
+            sealed = List.copyOf(next);
+            startSegment(nextId++);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        // Summarize off the request thread
+        if (!maintenance.isShutdown()) {
+            maintenance.execute(this::runMaintenance);
+        }
+    }
+
+    // Write lock held (or constructor); the file is created by the first save
+    private void startSegment(long id) {
+        active = new Segment(id, 0, directory);
+        activeDao = new AnalysisDaoImpl(active.path.toString(), mappedReads);
+        activeCreatedAt = System.currentTimeMillis();
+    }
+
+    private void load() throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Matcher matcher = SEGMENT_NAME.matcher(file.getFileName().toString());
+                if (matcher.matches()) {
+                    int generation = matcher.group(2) != null ? Integer.parseInt(matcher.group(2)) : 0;
+                    found.add(new Segment(Long.parseLong(matcher.group(1)), generation, directory));
+                }
+            }
+        }
+        found.sort((a, b) -> a.id != b.id ? Long.compare(a.id, b.id) : Integer.compare(a.generation, b.generation));
+        // Files a merge replaced but did not get to delete: older generations and absorbed segments
+        List<Segment> leftovers = new ArrayList<>();
+        nextId = found.isEmpty() ? 1 : found.get(found.size() - 1).id + 1;
+        for (int i = 0; i < found.size(); i++) {
+            Segment segment = found.get(i);
+            if (i + 1 < found.size() && found.get(i + 1).id == segment.id) {
+                leftovers.add(segment);
+                continue;
+            }
+            segment.summary = readSummary(segment);
+            if (segment.summary != null && segment.summary.absorbed != null) {
+                for (SegmentSummary.Absorbed absorbed : segment.summary.absorbed) {
+                    found.stream().filter(other -> other.id == absorbed.id).forEach(leftovers::add);
+                    nextId = Math.max(nextId, absorbed.id + 1); // Absorbed ids are never reused
+                }
+            }
+        }
+        found.removeAll(leftovers);
+        leftovers.forEach(this::delete);
+
+        // The newest segment stays active unless it was sealed or is already full
+        Segment last = found.isEmpty() ? null : found.get(found.size() - 1);
+        if (last != null && last.summary == null && Files.size(last.path) < segmentBytes) {
+            found.remove(found.size() - 1);
+            active = last;
+            activeDao = new AnalysisDaoImpl(last.path.toString(), mappedReads);
+            activeCreatedAt = Files.readAttributes(last.path, BasicFileAttributes.class).creationTime().toMillis();
+        } else {
+            startSegment(nextId++);
+        }
+        sealed = List.copyOf(found);
+    }
+
+    // Sealed segments plus the active one, oldest first, pinned until release
+    private List<Segment> acquire() {
+        lock.readLock().lock();
+        try {
+            List<Segment> all = new ArrayList<>(sealed);
+            all.add(active);
+            all.forEach(segment -> segment.pins.incrementAndGet());
+            return all;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void release(List<Segment> segments) {
+        for (Segment segment : segments) {
+            if (segment.pins.decrementAndGet() == 0 && retired.contains(segment)) {
+                delete(segment);
+            }
+        }
+    }
+
+    // Segments already removed from the lists (write lock): deleted now, or by the last reader to release them
+    private void retire(List<Segment> segments) {
+        for (Segment segment : segments) {
+            retired.add(segment);
+            if (segment.pins.get() == 0) {
+                delete(segment);
+            }
+        }
+    }
+
+    // A segment with nothing saved yet has no file; it reads as empty
+    private Stream<String> lines(Segment segment) {
+        return Files.exists(segment.path) ? reader(segment).stream() : Stream.empty();
+    }
+
+    // Drops the leading header lines every segment file starts with
+    private static Stream<String> dropHeader(Stream<String> lines) {
+        int[] matched = {0};
+        return lines.dropWhile(line -> matched[0] < HEADER_LINES.length && line.equals(HEADER_LINES[matched[0]++]));
+    }
+
+    // Short-lived reader that does not index the segment
+    private AnalysisDaoImpl reader(Segment segment) {
+        if (segment == active) {
+            return activeDao;
+        }
+        return new AnalysisDaoImpl(segment.path.toString(), mappedReads, false);
+    }
+
+    // --- Summaries ---
+
+    private SegmentSummary ensureSummary(Segment segment) {
+        SegmentSummary summary = segment.summary;
+        if (summary != null || segment == active) {
+            return summary;
+        }
+        synchronized (segment) {
+            if (segment.summary == null) {
+                try {
+                    summary = SegmentSummary.scan(segment.path);
+                    writeSummary(segment, summary);
+                    segment.summary = summary;
+                } catch (IOException e) {
+                    System.err.println("[ERROR] Failed to summarize " + segment.path + ": " + e.getMessage());
+                }
+            }
+            return segment.summary;
+        }
+    }
+
+    private SegmentSummary readSummary(Segment segment) throws IOException {
+        if (!Files.exists(segment.metaPath)) {
+            return null;
+        }
+        try {
+            SegmentSummary summary = gson.fromJson(Files.readString(segment.metaPath), SegmentSummary.class);
+            // A size mismatch means the segment changed after the summary was written
+            return summary != null && summary.bytes == Files.size(segment.path) ? summary : null;
+        } catch (JsonParseException e) {
+            return null;
+        }
+    }
+
+    private void writeSummary(Segment segment, SegmentSummary summary) throws IOException {
+        Path temp = directory.resolve(segment.metaPath.getFileName() + ".tmp");
+        Files.writeString(temp, gson.toJson(summary));
+        Files.move(temp, segment.metaPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    // --- Retention and compaction (maintenance thread) ---
+
+    private void applyRetention() {
+        List<Segment> current = sealed;
+        long now = System.currentTimeMillis();
+        int excess = retentionSegments > 0 ? current.size() + 1 - retentionSegments : 0;
+        List<Segment> expired = new ArrayList<>();
+        for (int i = 0; i < current.size(); i++) {
+            SegmentSummary summary = ensureSummary(current.get(i));
+            boolean tooOld = retentionMs > 0 && summary != null && summary.lastModified < now - retentionMs;
+            if (i < excess || tooOld) {
+                expired.add(current.get(i));
+            }
+        }
+        if (expired.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            List<Segment> next = new ArrayList<>(sealed);
+            next.removeAll(expired);
+            sealed = List.copyOf(next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        retire(expired);
+    }
+
+    // Merges runs of adjacent sealed segments that together still fit in one segment
+    private void compact() throws IOException {
+        List<Segment> pinned = acquire();
+        try {
+            List<Segment> current = pinned.subList(0, pinned.size() - 1); // The active segment is never merged
+            int start = 0;
+            while (start < current.size()) {
+                long bytes = current.get(start).path.toFile().length();
+                int end = start + 1;
+                while (end < current.size() && bytes + current.get(end).path.toFile().length() <= segmentBytes) {
+                    bytes += current.get(end).path.toFile().length();
+                    end++;
+                }
+                if (end - start > 1) {
+                    merge(current.subList(start, end));
+                }
+                start = end;
+            }
+        } finally {
+            release(pinned);
+        }
+    }
+
+    // Writes the run into a new generation of its first segment; the run is retired, not rewritten
+    private void merge(List<Segment> run) throws IOException {
+        Segment first = run.get(0);
+        Segment merged = new Segment(first.id, first.generation + 1, directory);
+        Path temp = directory.resolve(merged.path.getFileName() + ".compact");
+        byte[] header = AnalysisRecordFormatter.header().getBytes(StandardCharsets.UTF_8);
+        List<SegmentSummary.Absorbed> absorbed = new ArrayList<>();
+        long lastModified = 0;
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            long written = 0;
+            for (Segment segment : run) {
+                lastModified = Math.max(lastModified, Files.getLastModifiedTime(segment.path).toMillis());
+                SegmentSummary previous = ensureSummary(segment);
+                try (InputStream in = Files.newInputStream(segment.path)) {
+                    long base = written;  // Where the segment's bytes after its header start
+                    long headerBytes = 0;
+                    if (segment != first) {
+                        // Later segments lose their header so the merged file has one
+                        byte[] start = in.readNBytes(header.length);
+                        if (Arrays.equals(start, header)) {
+                            headerBytes = header.length;
+                        } else {
+                            out.write(start);
+                            written += start.length;
+                        }
+                        absorbed.add(new SegmentSummary.Absorbed(segment.id, base, headerBytes));
+                    }
+                    // Segments it absorbed earlier move along with it
+                    if (previous != null && previous.absorbed != null) {
+                        for (SegmentSummary.Absorbed earlier : previous.absorbed) {
+                            absorbed.add(new SegmentSummary.Absorbed(earlier.id,
+                                    base + earlier.base - headerBytes, earlier.headerBytes));
+                        }
+                    }
+                    written += in.transferTo(out);
+                }
+            }
+        }
+        SegmentSummary summary = SegmentSummary.scan(temp);
+        summary.lastModified = lastModified; // Retention follows the newest merged record
+        summary.absorbed = absorbed;
+
+        lock.writeLock().lock();
+        try {
+            if (!sealed.containsAll(run)) {
+                Files.delete(temp); // Cleared or expired meanwhile
+                return;
+            }
+            // Summary first: a merged file never appears without the list of segments it replaces
+            writeSummary(merged, summary);
+            Files.move(temp, merged.path, StandardCopyOption.ATOMIC_MOVE);
+            merged.summary = summary;
+            List<Segment> next = new ArrayList<>(sealed);
+            int at = next.indexOf(first);
+            next.removeAll(run);
+            next.add(at, merged);
+            sealed = List.copyOf(next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        retire(run);
+    }
+
+    private void delete(Segment segment) {
+        retired.remove(segment);
+        try {
+            Files.deleteIfExists(segment.path);
+            Files.deleteIfExists(segment.metaPath);
+        } catch (IOException e) {
+            System.err.println("[ERROR] Failed to delete " + segment.path + ": " + e.getMessage());
+        }
+    }
+
+    private static long parseId(String text, String cursor) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private static final class Segment {
+        final long id;
+        final int generation;             // Number of times the segment was rewritten by a merge
+        final Path path;                  // segment-N.txt, segment-N-G.txt once merged
+        final Path metaPath;              // segment-N.meta, segment-N-G.meta once merged
+        final AtomicInteger pins = new AtomicInteger(); // Readers currently holding the segment
+        volatile SegmentSummary summary;  // null until sealed and scanned
+
+        Segment(long id, int generation, Path directory) {
+            this.id = id;
+            this.generation = generation;
+            String name = String.format("segment-%020d", id) + (generation > 0 ? "-" + generation : "");
+            this.path = directory.resolve(name + ".txt");
+            this.metaPath = directory.resolve(name + ".meta");
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package main.java.service;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded cache of analysis results, keyed by analysis type, target parameters and series content.
+ * Entries are evicted when the entry count or total cached points exceed their limits,
+ * and expire after a time-to-live. Thread-safe without locks: lookups go straight to a
+ * ConcurrentHashMap and only mark the entry as used.
+ * Eviction approximates LRU with the CLOCK scheme: entries queue in insertion order, and one
+ * used since it was last at the head gets a second chance at the tail instead of being evicted,
+ * so an eviction costs O(1) amortized instead of a scan. Expired entries are dropped when looked
+ * up, and by a sweep that one put runs at most once per time-to-live.
+ * The O(n) content hash is computed once per request, when the key is built (see keyOf).
+ */
+public class AnalysisResultCache {
+    public static final int DEFAULT_MAX_ENTRIES = 1024;
+    public static final long DEFAULT_MAX_POINTS = 4_000_000; // ~32 MB of cached series
+    public static final long DEFAULT_TTL_MS = 10 * 60 * 1000;
+
+    private final int maxEntries;  // Entry count limit
+    private final long maxPoints;  // Total series length limit (keys hold the series)
+    private final long ttlNanos;   // Entry lifetime (0 = never expires)
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLong cachedPoints = new AtomicLong();
+    private final Queue<Entry> order = new ConcurrentLinkedQueue<>(); // CLOCK order; may hold removed entries
+    private final AtomicInteger queued = new AtomicInteger();          // Approximate size of order
+    private final AtomicBoolean compacting = new AtomicBoolean();      // One pruning of order at a time
+    private final AtomicLong nextSweep = new AtomicLong(System.nanoTime()); // When the next expiry sweep is due
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public AnalysisResultCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_POINTS, DEFAULT_TTL_MS);
+    }
+
+    public AnalysisResultCache(int maxEntries, long maxPoints, long ttlMs) {
+        if (maxEntries < 1 || maxPoints < 1 || ttlMs < 0) {
+            throw new IllegalArgumentException("Cache limits must be positive");
+        }
+        this.maxEntries = maxEntries;
+        this.maxPoints = maxPoints;
+        this.ttlNanos = ttlMs * 1_000_000;
+    }
+
+    /**
+     * Builds the cache key of a request, hashing its series once. Pass the same key to get and put.
+     */
+    public Key keyOf(AnalysisRequest request) {
+        return Key.of(request);
+    }
+
+    /**
+     * Returns the cached result for the request, or null on a miss (expired entries count as misses).
+     */
+    public SubarrayResult get(AnalysisRequest request) {
+        return get(Key.of(request));
+    }
+
+    public SubarrayResult get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry, System.nanoTime())) {
+            remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        if (!entry.referenced) {
+            entry.referenced = true; // Only written when it changes, so hot entries stay unshared
+        }
+        hits.increment();
+        return entry.result;
+    }
+
+    /**
+     * Stores a freshly computed result, evicting entries not used recently to stay within limits.
+     * Series larger than the point limit are not cached.
+     */
+    public void put(AnalysisRequest request, SubarrayResult result) {
+        put(Key.of(request), result);
+    }
+
+    public void put(Key key, SubarrayResult result) {
+        if (key.series.size() > maxPoints) {
+            return;
+        }
+        long now = System.nanoTime();
+        Entry entry = new Entry(key, result, now);
+        Entry previous = entries.put(key, entry);
+        cachedPoints.addAndGet(previous != null ? 0 : key.series.size());
+        order.offer(entry);
+        if (queued.incrementAndGet() > 2 * maxEntries) {
+            pruneOrder(); // Mostly entries replaced, expired or cleared since they were queued
+        }
+        evictOverflow();
+        long due = nextSweep.get();
+        if (ttlNanos > 0 && now - due >= 0 && nextSweep.compareAndSet(due, now + ttlNanos)) {
+            sweepExpired(now);
+        }
+    }
+
+    /**
+     * Drops all entries. Counters are kept.
+     */
+    public void clear() {
+        for (Map.Entry<Key, Entry> entry : entries.entrySet()) {
+            remove(entry.getKey(), entry.getValue());
+        }
+        pruneOrder();
+    }
+
+    /**
+     * Snapshot of the cache counters.
+     */
+    public Stats getStats() {
+        return new Stats(hits.sum(), misses.sum(), evictions.sum(), entries.size(), cachedPoints.get());
+    }
+
+    // Evicts from the head of the CLOCK queue while over a limit
+    private void evictOverflow() {
+        int secondChances = queued.get(); // Bounds the loop even if every entry keeps being used
+        Entry entry;
+        while ((entries.size() > maxEntries || cachedPoints.get() > maxPoints) && (entry = order.poll()) != null) {
+            queued.decrementAndGet();
+            if (entries.get(entry.key) != entry) {
+                continue; // Already replaced or removed
+            }
+            if (entry.referenced && secondChances-- > 0) {
+                entry.referenced = false;
+                order.offer(entry);
+                queued.incrementAndGet();
+            } else if (remove(entry.key, entry)) {
+                evictions.increment();
+            }
+        }
+    }
+
+    private void sweepExpired(long now) {
+        entries.forEach((key, entry) -> {
+            if (isExpired(entry, now) && remove(key, entry)) {
+                evictions.increment();
+            }
+        });
+        pruneOrder();
+    }
+
+    // Drops queued entries that are no longer cached, so the queue stays proportional to the cache
+    private void pruneOrder() {
+        if (compacting.compareAndSet(false, true)) {
+            try {
+                order.removeIf(entry -> entries.get(entry.key) != entry);
+                queued.set(order.size());
+            } finally {
+                compacting.set(false);
+            }
+        }
+    }
+
+    // Removes the mapping only if it is still this entry, so the point count stays exact
+    private boolean remove(Key key, Entry entry) {
+        if (!entries.remove(key, entry)) {
+            return false;
+        }
+        cachedPoints.addAndGet(-key.series.size());
+        return true;
+    }
+
+    private boolean isExpired(Entry entry, long now) {
+        return ttlNanos > 0 && now - entry.createdAt > ttlNanos;
+    }
+
+    /**
+     * Cache key. The content hash is computed once; equality still compares the full series
+     * so hash collisions never return another series' result.
+     */
+    public static final class Key {
+        final AnalysisType type;
+        final double target;
+        final double epsilon;
+        final DoubleSeries series;
+        final int hash;
+
+        private Key(AnalysisType type, double target, double epsilon, DoubleSeries series) {
+            this.type = type;
+            this.target = target;
+            this.epsilon = epsilon;
+            this.series = series;
+            this.hash = 31 * (31 * (31 * type.hashCode() + Double.hashCode(target)) + Double.hashCode(epsilon)) + series.hashCode();
+        }
+
+        static Key of(AnalysisRequest request) {
+            DoubleSeries series = request.getSeries() != null ? request.getSeries() : DoubleSeries.empty();
+            return new Key(request.getType(), request.getTarget(), request.getEpsilon(), series);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Key other)) return false;
+            return hash == other.hash && type == other.type
+                    && Double.compare(target, other.target) == 0
+                    && Double.compare(epsilon, other.epsilon) == 0
+                    && series.equals(other.series);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final SubarrayResult result;
+        final long createdAt;         // System.nanoTime() when stored
+        volatile boolean referenced;  // Hit since it was last at the head of the CLOCK queue
+
+        Entry(Key key, SubarrayResult result, long createdAt) {
+            this.key = key;
+            this.result = result;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Counter snapshot, serialized as-is for the analysis/cacheStats action.
+     */
+    public static class Stats {
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        private final int entries;
+        private final long cachedPoints;
+
+        public Stats(long hits, long misses, long evictions, int entries, long cachedPoints) {
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.entries = entries;
+            this.cachedPoints = cachedPoints;
+        }
+
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+        public int getEntries() { return entries; }
+        public long getCachedPoints() { return cachedPoints; }
+
+        @Override
+        public String toString() {
+            return "CacheStats[hits=" + hits + ", misses=" + misses + ", evictions=" + evictions +
+                    ", entries=" + entries + ", cachedPoints=" + cachedPoints + "]";
+        }
+    }
+}
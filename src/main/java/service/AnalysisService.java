@@ -2,6 +2,8 @@ package main.java.service;
 
 import AlgorithmModule.ISubarrayAnalyzer;
 import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.IPrimitiveSubarrayAnalyzer;
+import main.java.enums.PersistencePolicy;
 import main.java.model.AnalysisRequest;
 import main.java.repository.IAnalysisDao;
 
@@ -12,14 +14,26 @@ import main.java.repository.IAnalysisDao;
 public class AnalysisService {
     private final ISubarrayAnalyzer analyzer; // Strategy for analysis algorithm
     private final IAnalysisDao dao;          // Repository for data persistence
+    private final AnalysisResultCache cache; // Results of repeated series (null = disabled)
+    private final PersistencePolicy persistencePolicy; // Whether cache hits are saved again
 
     /**
      * Constructor with dependency injection.
      * Follows Open/Closed principle - can swap algorithms without changing code.
      */
     public AnalysisService(ISubarrayAnalyzer analyzer, IAnalysisDao dao) {
+        this(analyzer, dao, null, PersistencePolicy.ALWAYS);
+    }
+
+    /**
+     * Constructor with a result cache in front of the analyzers.
+     */
+    public AnalysisService(ISubarrayAnalyzer analyzer, IAnalysisDao dao,
+                           AnalysisResultCache cache, PersistencePolicy persistencePolicy) {
         this.analyzer = analyzer;
         this.dao = dao;
+        this.cache = cache;
+        this.persistencePolicy = persistencePolicy;
     }
 
     /**
@@ -27,16 +41,47 @@ public class AnalysisService {
      * Delegates algorithm execution to injected strategy, then saves.
      */
     public SubarrayResult analyzeAndSave(AnalysisRequest request) {
-        SubarrayResult result = analyzer.analyze(request.getValues());
-        dao.save(request, result);
+        return analyzeAndSave(request, analyzer);
+    }
+
+    /**
+     * Analyzes with a request-specific strategy (e.g. minimum or prefix-sum analyzers).
+     * Identical series are answered from the cache; saving follows the persistence policy.
+     */
+    public SubarrayResult analyzeAndSave(AnalysisRequest request, ISubarrayAnalyzer analyzer) {
+        AnalysisResultCache.Key key = cache != null ? cache.keyOf(request) : null; // Series hashed once
+        SubarrayResult result = key != null ? cache.get(key) : null;
+        boolean hit = result != null;
+        if (!hit) {
+            result = analyze(request, analyzer);
+            if (key != null) {
+                cache.put(key, result);
+            }
+        }
+        if (!hit || persistencePolicy == PersistencePolicy.ALWAYS) {
+            dao.save(request, result);
+        }
         return result;
     }
 
+    /**
+     * Runs the strategy, on the primitive series when the strategy supports it.
+     */
+    private SubarrayResult analyze(AnalysisRequest request, ISubarrayAnalyzer analyzer) {
+        if (analyzer instanceof IPrimitiveSubarrayAnalyzer primitive) {
+            return primitive.analyze(request.getSeries());
+        }
+        return analyzer.analyze(request.getValues());
+    }
+
     /**
      * Administrative operation - removes all stored analysis data.
      */
     public void clearAllResults() {
         dao.clear();
+        if (cache != null) {
+            cache.clear();
+        }
     }
 
     /**
@@ -54,6 +99,13 @@ public class AnalysisService {
         return analyzer.getName();
     }
 
+    /**
+     * Returns cache counters, or null when caching is disabled.
+     */
+    public AnalysisResultCache.Stats getCacheStats() {
+        return cache != null ? cache.getStats() : null;
+    }
+
     /**
      * Exposes DAO for direct access when needed by controllers.
      * Used when controller needs special DAO operations.
@@ -0,0 +1,214 @@
+package main.java.service;
+
+import main.java.algorithm.RunningSummary;
+import main.java.enums.DataMode;
+import main.java.model.DoubleSeries;
+import main.java.model.SessionSummary;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live analysis sessions for tick feeds. Each session keeps a RunningSummary (Kadane runs with
+ * indices, prefix-sum first occurrences, statistics) and the last closing price, so appending a
+ * tick and querying the results cost O(1) instead of a re-scan of the whole day's series.
+ * Sessions live in memory only and are not saved; idle ones are dropped as IdleSweeper describes.
+ * Besides the number of open sessions, the total of their points is capped: each appended tick
+ * adds an entry to its session's prefix-sum table, so memory follows points rather than sessions.
+ * Thread-safe.
+ */
+public final class AnalysisSessionManager {
+    public static final int DEFAULT_MAX_SESSIONS = 10000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 60 * 60 * 1000;
+    public static final long DEFAULT_MAX_POINTS = 20_000_000; // Roughly 0.5 GB of prefix-sum tables
+
+    private final int maxSessions;    // Open sessions allowed at once
+    private final long idleTimeoutMs; // Sessions untouched this long are dropped
+    private final long maxPoints;     // Ticks held by all open sessions together
+    private final AtomicInteger open = new AtomicInteger(); // Sessions open now, slots included
+    private final AtomicLong points = new AtomicLong(); // Ticks held now
+    private final Map<String, Session> sessions = new ConcurrentHashMap<>();
+
+    public AnalysisSessionManager() {
+        this(DEFAULT_MAX_SESSIONS, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    public AnalysisSessionManager(int maxSessions, long idleTimeoutMs) {
+        this(maxSessions, idleTimeoutMs, DEFAULT_MAX_POINTS);
+    }
+
+    public AnalysisSessionManager(int maxSessions, long idleTimeoutMs, long maxPoints) {
+        if (maxSessions < 1 || idleTimeoutMs < 1 || maxPoints < 1) {
+            throw new IllegalArgumentException("Session limits must be positive");
+        }
+        this.maxSessions = maxSessions;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxPoints = maxPoints;
+        IdleSweeper.schedule(this, AnalysisSessionManager::dropIdle, idleTimeoutMs);
+    }
+
+    /**
+     * Opens an empty session. Closing prices are converted to changes as they arrive.
+     */
+    public SessionSummary open(DataMode dataMode, double target, double epsilon) {
+        reserveSlot();
+        Session session = new Session(dataMode != null ? dataMode : DataMode.DAILY_CHANGES,
+                new RunningSummary(target, epsilon));
+        String sessionId = UUID.randomUUID().toString();
+        sessions.put(sessionId, session);
+        return session.describe(sessionId);
+    }
+
+    /**
+     * Adds ticks to the session and returns the updated results. Cost is proportional to the
+     * number of ticks appended, not to the session length. Fails without adding anything when
+     * the ticks do not fit in the point budget.
+     */
+    public SessionSummary append(String sessionId, DoubleSeries values) {
+        Session session = get(sessionId);
+        int count = values != null ? values.size() : 0;
+        reserve(count); // Before the session lock, as dropping idle sessions takes theirs
+        synchronized (session) {
+            if (session.closed) {
+                points.addAndGet(-count);
+                throw new IllegalArgumentException("Unknown session: " + sessionId);
+            }
+            double[] ticks = count > 0 ? values.array() : null;
+            for (int i = 0; i < count; i++) {
+                session.add(ticks[i]);
+            }
+            session.points += count;
+            return session.describe(sessionId);
+        }
+    }
+
+    public SessionSummary query(String sessionId) {
+        Session session = get(sessionId);
+        synchronized (session) {
+            return session.describe(sessionId);
+        }
+    }
+
+    /**
+     * Removes the session and returns its final results.
+     */
+    public SessionSummary close(String sessionId) {
+        Session session = sessions.remove(require(sessionId));
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown session: " + sessionId);
+        }
+        open.decrementAndGet();
+        synchronized (session) {
+            release(session);
+            return session.describe(sessionId);
+        }
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Ticks held by all open sessions.
+     */
+    public long points() {
+        return points.get();
+    }
+
+    private Session get(String sessionId) {
+        Session session = sessions.get(require(sessionId));
+        if (session == null) {
+            throw new IllegalArgumentException("Unknown session: " + sessionId);
+        }
+        session.lastAccess = System.currentTimeMillis();
+        return session;
+    }
+
+    private static String require(String sessionId) {
+        if (sessionId == null) {
+            throw new IllegalArgumentException("sessionId is required");
+        }
+        return sessionId;
+    }
+
+    private void dropIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        for (Map.Entry<String, Session> entry : sessions.entrySet()) {
+            Session session = entry.getValue();
+            if (session.lastAccess < cutoff && sessions.remove(entry.getKey(), session)) {
+                open.decrementAndGet();
+                synchronized (session) {
+                    release(session);
+                }
+            }
+        }
+    }
+
+    // Takes a session slot, first dropping idle sessions if none is free
+    private void reserveSlot() {
+        if (open.incrementAndGet() <= maxSessions) {
+            return;
+        }
+        open.decrementAndGet();
+        dropIdle();
+        if (open.incrementAndGet() > maxSessions) {
+            open.decrementAndGet();
+            throw new IllegalStateException("Too many open sessions (" + maxSessions + ")");
+        }
+    }
+
+    // Takes count points from the budget, first dropping idle sessions if it is used up
+    private void reserve(int count) {
+        if (points.addAndGet(count) <= maxPoints) {
+            return;
+        }
+        points.addAndGet(-count);
+        dropIdle();
+        if (points.addAndGet(count) > maxPoints) {
+            points.addAndGet(-count);
+            throw new IllegalStateException("Open sessions hold too many points (" + maxPoints + ")");
+        }
+    }
+
+    // Session lock held
+    private void release(Session session) {
+        session.closed = true;
+        points.addAndGet(-session.points);
+        session.points = 0;
+    }
+
+    /**
+     * Running state of one session; guarded by its own monitor.
+     */
+    private static final class Session {
+        final DataMode dataMode;
+        final RunningSummary summary;
+        double lastPrice = Double.NaN;  // Previous closing price (CLOSING_PRICES mode)
+        long points;                    // Ticks counted against the manager's budget
+        boolean closed;                 // Removed from the manager; appends are refused
+        volatile long lastAccess = System.currentTimeMillis();
+
+        Session(DataMode dataMode, RunningSummary summary) {
+            this.dataMode = dataMode;
+            this.summary = summary;
+        }
+
+        void add(double value) {
+            if (dataMode != DataMode.CLOSING_PRICES) {
+                summary.append(value);
+                return;
+            }
+            if (!Double.isNaN(lastPrice)) {
+                summary.append(value - lastPrice); // Same delta as CalculateClosingPrices
+            }
+            lastPrice = value;
+        }
+
+        SessionSummary describe(String sessionId) {
+            return new SessionSummary(sessionId, dataMode, summary.snapshot());
+        }
+    }
+}
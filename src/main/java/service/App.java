@@ -1,9 +1,13 @@
 package main.java.service;
 
 import AlgorithmModule.*;
+import main.java.algorithm.MinSubarrayAnalyzer;
+import main.java.algorithm.PrimitiveKadaneAnalyzer;
+import main.java.algorithm.PrimitivePrefixSumAnalyzer;
 import main.java.enums.AnalysisType;
 import main.java.enums.DataMode;
 import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
 import main.java.repository.AnalysisDaoImpl;
 import main.java.utils.InputValidate;
 import main.java.utils.CalculateClosingPrices;
@@ -39,10 +43,10 @@ public class App {
                 ➜ """, 1, 2);
 
         // Step 3: Read input values
-        List<Double> rawValues = InputValidate.readDoubleList("Enter comma-separated numbers (e.g. 100.0, 102.5, 99.8):\n");
+        DoubleSeries rawValues = DoubleSeries.from(InputValidate.readDoubleList("Enter comma-separated numbers (e.g. 100.0, 102.5, 99.8):\n"));
 
         // Step 4: Calculate deltas if needed
-        List<Double> values;
+        DoubleSeries values;
         if (inputType == 2) {
             try {
                 values = CalculateClosingPrices.computeDeltas(rawValues);
@@ -71,7 +75,7 @@ public class App {
 
         // Step 6: Build request
         DataMode mode = (inputType == 2) ? DataMode.CLOSING_PRICES : DataMode.DAILY_CHANGES;
-        List<Double> closingPrices = (mode == DataMode.CLOSING_PRICES) ? rawValues : null;
+        DoubleSeries closingPrices = (mode == DataMode.CLOSING_PRICES) ? rawValues : null;
 
         AnalysisRequest request = new AnalysisRequest(
                 UUID.randomUUID().toString(),
@@ -81,30 +85,14 @@ public class App {
                 closingPrices
         );
 
-        // Step 7: Max loss case handled separately
-        if (type == AnalysisType.MAX_LOSS) {
-            List<Double> flipped = values.stream()
-                    .map(v -> -v)
-                    .toList();
-
-            KadaneAnalyzer kadane = new KadaneAnalyzer();
-            SubarrayResult flippedResult = kadane.analyze(flipped);
-            SubarrayResult corrected = new SubarrayResult(
-                    flippedResult.getStartIndex(),
-                    flippedResult.getEndIndex(),
-                    -flippedResult.getTotal()
-            );
-
-            dao.save(request, corrected);
-            printResult(type, kadane.getName(), corrected);
-            return;
-        }
-
-        // Step 8: Run regular analysis
-        ISubarrayAnalyzer analyzer = (type == AnalysisType.ZERO_RETURN)
-                ? new PrefixSumAnalyzer(0)
-                : new KadaneAnalyzer();
+        // Step 7: Pick the algorithm - max loss scans for the minimum subarray directly
+        ISubarrayAnalyzer analyzer = switch (type) {
+            case ZERO_RETURN -> new PrimitivePrefixSumAnalyzer(0);
+            case MAX_LOSS -> new MinSubarrayAnalyzer();
+            default -> new PrimitiveKadaneAnalyzer();
+        };
 
+        // Step 8: Run analysis and save
         AnalysisService service = new AnalysisService(analyzer, dao);
         SubarrayResult result = service.analyzeAndSave(request);
 
@@ -0,0 +1,50 @@
+package main.java.service;
+
+import java.lang.ref.WeakReference;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One daemon thread that periodically drops idle entries of the in-memory managers, so memory
+ * is released even when nothing new is opened. Entries untouched for a manager's idle timeout
+ * are dropped by this sweep, and also when the manager is at one of its caps and needs room.
+ * The caps are reserved atomically before anything is built, so concurrent requests cannot
+ * overshoot them. A sweep holds its manager weakly and stops once the manager is no longer in use.
+ */
+final class IdleSweeper {
+    private static final long MAX_INTERVAL_MS = 60_000; // Sweep at least this often
+
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "idle-sweeper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private IdleSweeper() {}
+
+    /**
+     * Runs sweep on the owner every idleTimeoutMs (at most every minute).
+     */
+    static <T> void schedule(T owner, Consumer<T> sweep, long idleTimeoutMs) {
+        WeakReference<T> reference = new WeakReference<>(owner);
+        long interval = Math.min(idleTimeoutMs, MAX_INTERVAL_MS);
+        ScheduledFuture<?>[] task = new ScheduledFuture<?>[1];
+        task[0] = SCHEDULER.scheduleWithFixedDelay(() -> {
+            T target = reference.get();
+            if (target == null) {
+                if (task[0] != null) {
+                    task[0].cancel(false); // Manager was garbage collected
+                }
+                return;
+            }
+            try {
+                sweep.accept(target);
+            } catch (RuntimeException e) {
+                System.err.println("[ERROR] Idle sweep failed: " + e.getMessage()); // Keep the schedule alive
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,167 @@
+package main.java.service;
+
+import main.java.algorithm.SegmentTreeIndex;
+import main.java.model.DoubleSeries;
+import main.java.model.IndexSummary;
+import AlgorithmModule.SubarrayResult;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Series uploaded once and indexed for repeated range queries ("max profit between day i and
+ * day j"), each answered in O(log n) by a SegmentTreeIndex instead of shipping and re-scanning
+ * the slice. Indexes live in memory only and are not saved; idle ones are dropped as IdleSweeper
+ * describes. Their total points are capped along with their number, since an index copies its
+ * series twice (about 16 bytes per point). Thread-safe.
+ */
+public final class SeriesIndexManager {
+    public static final int DEFAULT_MAX_INDEXES = 1000;
+    public static final long DEFAULT_IDLE_TIMEOUT_MS = 60 * 60 * 1000;
+    public static final long DEFAULT_MAX_POINTS = 50_000_000; // Roughly 0.8 GB of indexed series
+
+    private final int maxIndexes;     // Indexes allowed at once
+    private final long idleTimeoutMs; // Indexes untouched this long are dropped
+    private final long maxPoints;     // Points of all indexed series together
+    private final AtomicInteger count = new AtomicInteger(); // Indexes held now, slots included
+    private final AtomicLong points = new AtomicLong(); // Points indexed now
+    private final Map<String, Entry> indexes = new ConcurrentHashMap<>();
+
+    public SeriesIndexManager() {
+        this(DEFAULT_MAX_INDEXES, DEFAULT_IDLE_TIMEOUT_MS);
+    }
+
+    public SeriesIndexManager(int maxIndexes, long idleTimeoutMs) {
+        this(maxIndexes, idleTimeoutMs, DEFAULT_MAX_POINTS);
+    }
+
+    public SeriesIndexManager(int maxIndexes, long idleTimeoutMs, long maxPoints) {
+        if (maxIndexes < 1 || idleTimeoutMs < 1 || maxPoints < 1) {
+            throw new IllegalArgumentException("Index limits must be positive");
+        }
+        this.maxIndexes = maxIndexes;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.maxPoints = maxPoints;
+        IdleSweeper.schedule(this, SeriesIndexManager::dropIdle, idleTimeoutMs);
+    }
+
+    /**
+     * Builds the index of a series (O(n)) and returns its ID. The slot and the points are taken
+     * before the index is built, so a refused series allocates nothing.
+     */
+    public IndexSummary create(DoubleSeries values) {
+        int size = values != null ? values.size() : 0;
+        reserve(size);
+        SegmentTreeIndex index;
+        try {
+            index = new SegmentTreeIndex(values);
+        } catch (RuntimeException e) {
+            count.decrementAndGet();
+            points.addAndGet(-size);
+            throw e;
+        }
+        String indexId = UUID.randomUUID().toString();
+        indexes.put(indexId, new Entry(index));
+        return new IndexSummary(indexId, index.size());
+    }
+
+    /**
+     * Max profit (or max loss when minimum is set) within [from, to] of an indexed series.
+     */
+    public SubarrayResult query(String indexId, int from, int to, boolean minimum) {
+        SegmentTreeIndex index = get(indexId);
+        return minimum ? index.maxLoss(from, to) : index.maxProfit(from, to);
+    }
+
+    /**
+     * Removes the index and frees its memory.
+     */
+    public IndexSummary drop(String indexId) {
+        Entry entry = indexes.remove(require(indexId));
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown index: " + indexId);
+        }
+        count.decrementAndGet();
+        points.addAndGet(-entry.index.size());
+        return new IndexSummary(indexId, entry.index.size());
+    }
+
+    public int size() {
+        return indexes.size();
+    }
+
+    /**
+     * Points of all indexed series.
+     */
+    public long points() {
+        return points.get();
+    }
+
+    private SegmentTreeIndex get(String indexId) {
+        Entry entry = indexes.get(require(indexId));
+        if (entry == null) {
+            throw new IllegalArgumentException("Unknown index: " + indexId);
+        }
+        entry.lastAccess = System.currentTimeMillis();
+        return entry.index;
+    }
+
+    private static String require(String indexId) {
+        if (indexId == null) {
+            throw new IllegalArgumentException("indexId is required");
+        }
+        return indexId;
+    }
+
+    private void dropIdle() {
+        long cutoff = System.currentTimeMillis() - idleTimeoutMs;
+        for (Map.Entry<String, Entry> indexed : indexes.entrySet()) {
+            Entry entry = indexed.getValue();
+            if (entry.lastAccess < cutoff && indexes.remove(indexed.getKey(), entry)) {
+                count.decrementAndGet();
+                points.addAndGet(-entry.index.size());
+            }
+        }
+    }
+
+    // Takes a slot and size points, first dropping idle indexes if either is used up
+    private void reserve(int size) {
+        if (tryReserve(size)) {
+            return;
+        }
+        dropIdle();
+        if (!tryReserve(size)) {
+            throw new IllegalStateException(count.get() >= maxIndexes
+                    ? "Too many indexed series (" + maxIndexes + ")"
+                    : "Indexed series hold too many points (" + maxPoints + ")");
+        }
+    }
+
+    private boolean tryReserve(int size) {
+        if (count.incrementAndGet() > maxIndexes) {
+            count.decrementAndGet();
+            return false;
+        }
+        if (points.addAndGet(size) > maxPoints) {
+            points.addAndGet(-size);
+            count.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * An index with its last use; the index itself is immutable and needs no locking.
+     */
+    private static final class Entry {
+        final SegmentTreeIndex index;
+        volatile long lastAccess = System.currentTimeMillis();
+
+        Entry(SegmentTreeIndex index) {
+            this.index = index;
+        }
+    }
+}
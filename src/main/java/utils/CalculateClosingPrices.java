@@ -1,5 +1,7 @@
 package main.java.utils;
 
+import main.java.model.DoubleSeries;
+
 import java.util.ArrayList;
 import java.util.List;
 
@@ -15,4 +17,20 @@ public class CalculateClosingPrices {
         }
         return deltas;
     }
+
+    /**
+     * Primitive version of computeDeltas - one double[] allocation, no boxing.
+     */
+    public static DoubleSeries computeDeltas(DoubleSeries prices) {
+        int size = prices.size();
+        if (size < 2) {
+            return DoubleSeries.empty();
+        }
+        double[] source = prices.array();
+        double[] deltas = new double[size - 1];
+        for (int i = 1; i < size; i++) {
+            deltas[i - 1] = source[i] - source[i - 1];
+        }
+        return DoubleSeries.wrap(deltas, deltas.length);
+    }
 }
@@ -0,0 +1,246 @@
+package main.java.utils;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from primitive double keys to int values (linear probing).
+ * Replaces HashMap<Double, Integer> on hot paths: no boxing, no entry objects, one probe
+ * sequence per lookup.
+ *
+ * Exact mode (default) keys by Double.doubleToLongBits, i.e. the same equality as
+ * Double.equals (0.0 and -0.0 differ, all NaNs are equal). Tolerant mode matches keys within
+ * an epsilon, which absorbs rounding drift between prefix sums that should be equal: keys are
+ * quantized into buckets of width epsilon and a lookup checks the neighbouring buckets too.
+ */
+public class DoubleIntHashMap {
+    // Bit pattern of a NaN that doubleToLongBits never produces - marks free slots
+    private static final long FREE = 0x7ff0000000000001L;
+    private static final double LOAD_FACTOR = 0.7;
+
+    private final double epsilon;  // 0 = exact mode
+    private long[] slotKeys;       // Key bits (exact) or bucket number (tolerant)
+    private double[] exactKeys;    // Original keys, tolerant mode only
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    /**
+     * Callback for iterating entries without boxing.
+     */
+    public interface EntryConsumer {
+        void accept(double key, int value);
+    }
+
+    public DoubleIntHashMap() {
+        this(16);
+    }
+
+    public DoubleIntHashMap(int expectedSize) {
+        this(expectedSize, 0);
+    }
+
+    /**
+     * @param expectedSize entries to hold without resizing
+     * @param epsilon      match keys within this distance; 0 for exact matching
+     */
+    public DoubleIntHashMap(int expectedSize, double epsilon) {
+        if (!(epsilon >= 0) || Double.isInfinite(epsilon)) {
+            throw new IllegalArgumentException("Epsilon must be a finite non-negative number: " + epsilon);
+        }
+        this.epsilon = epsilon;
+        allocate(capacityFor(expectedSize));
+    }
+
+    /**
+     * Returns the value for the key (closest key within epsilon in tolerant mode),
+     * or missingValue if there is none.
+     */
+    public int get(double key, int missingValue) {
+        int slot = find(key);
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    /**
+     * Returns the smallest value among the keys matching the key, or missingValue if there is none.
+     * Differs from get only in tolerant mode, where several keys can lie within epsilon: for a
+     * first-occurrence table this is the earliest match rather than the closest one.
+     */
+    public int getMin(double key, int missingValue) {
+        int slot = find(key, true);
+        return slot < 0 ? missingValue : values[slot];
+    }
+
+    public boolean containsKey(double key) {
+        return find(key) >= 0;
+    }
+
+    /**
+     * Inserts the mapping only if no matching key exists. Returns true if it was inserted.
+     */
+    public boolean putIfAbsent(double key, int value) {
+        if (find(key) >= 0) {
+            return false;
+        }
+        insert(key, value);
+        return true;
+    }
+
+    /**
+     * Inserts or overwrites the mapping for the key.
+     */
+    public void put(double key, int value) {
+        int slot = find(key);
+        if (slot >= 0) {
+            values[slot] = value;
+        } else {
+            insert(key, value);
+        }
+    }
+
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public double getEpsilon() { return epsilon; }
+
+    public void clear() {
+        Arrays.fill(slotKeys, FREE);
+        size = 0;
+    }
+
+    public void forEach(EntryConsumer consumer) {
+        for (int slot = 0; slot < slotKeys.length; slot++) {
+            if (slotKeys[slot] != FREE) {
+                consumer.accept(keyAt(slot), values[slot]);
+            }
+        }
+    }
+
+    // --- Internals ---
+
+    private int find(double key) {
+        return find(key, false);
+    }
+
+    // Slot of the matching key; in tolerant mode the closest one, or the one with the smallest value
+    private int find(double key, boolean smallestValue) {
+        if (epsilon == 0) {
+            return findSlot(Double.doubleToLongBits(key));
+        }
+        if (Double.isNaN(key)) {
+            return -1; // NaN is never within epsilon of anything
+        }
+        // The matching key may sit in a neighbouring bucket, and a bucket may hold several
+        // keys (pairs straddling epsilon after rounding) - keep the best match
+        long bucket = bucketOf(key);
+        int mask = slotKeys.length - 1;
+        int bestSlot = -1;
+        double bestDistance = Double.POSITIVE_INFINITY;
+        for (int offset = -1; offset <= 1; offset++) {
+            long candidate = bucket + offset;
+            for (int slot = hash(candidate) & mask; slotKeys[slot] != FREE; slot = (slot + 1) & mask) {
+                if (slotKeys[slot] != candidate) {
+                    continue;
+                }
+                double distance = Math.abs(exactKeys[slot] - key);
+                boolean better = smallestValue
+                        ? bestSlot < 0 || values[slot] < values[bestSlot]
+                        : distance < bestDistance;
+                if (distance <= epsilon && better) {
+                    bestDistance = distance;
+                    bestSlot = slot;
+                }
+            }
+        }
+        return bestSlot;
+    }
+
+    // Linear probe for an exact-mode key; returns its index or -1
+    private int findSlot(long slotKey) {
+        int mask = slotKeys.length - 1;
+        int slot = hash(slotKey) & mask;
+        long current;
+        while ((current = slotKeys[slot]) != FREE) {
+            if (current == slotKey) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void insert(double key, int value) {
+        if (size >= resizeAt) {
+            resize();
+        }
+        long slotKey = epsilon == 0 ? Double.doubleToLongBits(key) : bucketOf(key);
+        int mask = slotKeys.length - 1;
+        int slot = hash(slotKey) & mask;
+        while (slotKeys[slot] != FREE) {
+            slot = (slot + 1) & mask;
+        }
+        slotKeys[slot] = slotKey;
+        values[slot] = value;
+        if (exactKeys != null) {
+            exactKeys[slot] = key;
+        }
+        size++;
+    }
+
+    // Bucket of width epsilon; clamped so bucket +/- 1 never overflows
+    private long bucketOf(double key) {
+        long bucket = (long) Math.floor(key / epsilon);
+        bucket = Math.max(Long.MIN_VALUE + 1, Math.min(Long.MAX_VALUE - 1, bucket));
+        return bucket == FREE ? bucket - 1 : bucket;
+    }
+
+    private double keyAt(int slot) {
+        return exactKeys != null ? exactKeys[slot] : Double.longBitsToDouble(slotKeys[slot]);
+    }
+
+    private void resize() {
+        long[] oldKeys = slotKeys;
+        double[] oldExact = exactKeys;
+        int[] oldValues = values;
+        allocate(slotKeys.length * 2);
+        int mask = slotKeys.length - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == FREE) {
+                continue;
+            }
+            int slot = hash(oldKeys[i]) & mask;
+            while (slotKeys[slot] != FREE) {
+                slot = (slot + 1) & mask;
+            }
+            slotKeys[slot] = oldKeys[i];
+            values[slot] = oldValues[i];
+            if (oldExact != null) {
+                exactKeys[slot] = oldExact[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slotKeys = new long[capacity];
+        Arrays.fill(slotKeys, FREE);
+        values = new int[capacity];
+        exactKeys = epsilon == 0 ? null : new double[capacity];
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 2) / LOAD_FACTOR);
+        if (needed > (1 << 30)) {
+            throw new IllegalArgumentException("Too many entries: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) needed - 1) << 1;
+    }
+
+    // Murmur3 finalizer - spreads the bits of similar doubles across the table
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+}
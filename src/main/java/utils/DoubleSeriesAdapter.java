@@ -0,0 +1,45 @@
+package main.java.utils;
+
+import main.java.model.DoubleSeries;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson adapter that reads JSON number arrays straight into a primitive DoubleSeries
+ * (no List<Double> or LinkedTreeMap in between) and writes them back as plain arrays.
+ */
+public class DoubleSeriesAdapter extends TypeAdapter<DoubleSeries> {
+
+    @Override
+    public void write(JsonWriter out, DoubleSeries series) throws IOException {
+        if (series == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        double[] values = series.array();
+        for (int i = 0; i < series.size(); i++) {
+            out.value(values[i]);
+        }
+        out.endArray();
+    }
+
+    @Override
+    public DoubleSeries read(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        DoubleSeries.Builder builder = new DoubleSeries.Builder();
+        in.beginArray();
+        while (in.hasNext()) {
+            builder.add(in.nextDouble());
+        }
+        in.endArray();
+        return builder.build();
+    }
+}
@@ -0,0 +1,84 @@
+package main.test.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.ParallelKadaneAnalyzer;
+import main.java.algorithm.PrimitiveKadaneAnalyzer;
+import main.java.model.DoubleSeries;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the fork/join Kadane gives the same answers as the sequential scan.
+ */
+public class ParallelKadaneAnalyzerTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Tiny threshold forces many chunks and merges, including ties across chunk boundaries.
+     */
+    @Test
+    public void testMatchesSequentialKadane() {
+        ParallelKadaneAnalyzer parallel = new ParallelKadaneAnalyzer(8, pool);
+        PrimitiveKadaneAnalyzer sequential = new PrimitiveKadaneAnalyzer();
+        Random random = new Random(99);
+
+        for (int round = 0; round < 300; round++) {
+            DoubleSeries series = randomSeries(random, 1 + random.nextInt(2000));
+
+            SubarrayResult expected = sequential.analyze(series);
+            SubarrayResult actual = parallel.analyze(series);
+
+            assertEquals(expected.getTotal(), actual.getTotal(), 0.0);
+            assertEquals(expected.getStartIndex(), actual.getStartIndex());
+            assertEquals(expected.getEndIndex(), actual.getEndIndex());
+        }
+    }
+
+    /**
+     * All-negative input picks the single largest value.
+     */
+    @Test
+    public void testAllNegative() {
+        double[] values = new double[100];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = -100 + (i == 57 ? 99 : 0);
+        }
+
+        SubarrayResult result = new ParallelKadaneAnalyzer(4, pool).analyze(DoubleSeries.of(values));
+
+        assertEquals(57, result.getStartIndex());
+        assertEquals(57, result.getEndIndex());
+        assertEquals(-1.0, result.getTotal(), 0.0);
+    }
+
+    /**
+     * Empty input keeps the (-1, -1, 0) convention.
+     */
+    @Test
+    public void testEmpty() {
+        SubarrayResult result = new ParallelKadaneAnalyzer(4, pool).analyze(DoubleSeries.empty());
+
+        assertEquals(-1, result.getStartIndex());
+        assertEquals(-1, result.getEndIndex());
+    }
+
+    // Small integers: exact sums and plenty of zero-sum runs to exercise tie-breaking
+    private static DoubleSeries randomSeries(Random random, int size) {
+        double[] values = new double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(7) - 3;
+        }
+        return DoubleSeries.of(values);
+    }
+}
@@ -0,0 +1,85 @@
+package main.test.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.ParallelPrefixSumAnalyzer;
+import main.java.algorithm.PrimitivePrefixSumAnalyzer;
+import main.java.model.DoubleSeries;
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the parallel prefix-sum search gives the same answers as the sequential scan.
+ */
+public class ParallelPrefixSumAnalyzerTest {
+
+    private static final ForkJoinPool pool = new ForkJoinPool(4);
+
+    @AfterClass
+    public static void shutdownPool() {
+        pool.shutdown();
+    }
+
+    /**
+     * Integral values take the parallel prefix scan; zero and non-zero targets.
+     */
+    @Test
+    public void testMatchesSequentialOnIntegers() {
+        Random random = new Random(7);
+        for (double target : new double[]{0, 3, -2}) {
+            ParallelPrefixSumAnalyzer parallel = new ParallelPrefixSumAnalyzer(target, 0, 16, pool);
+            PrimitivePrefixSumAnalyzer sequential = new PrimitivePrefixSumAnalyzer(target);
+
+            for (int round = 0; round < 200; round++) {
+                double[] values = new double[1 + random.nextInt(1500)];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = random.nextInt(7) - 3;
+                }
+                assertSameResult(sequential.analyze(DoubleSeries.of(values)), parallel.analyze(DoubleSeries.of(values)));
+            }
+        }
+    }
+
+    /**
+     * Fractional values keep the sequential scan, so exact matches are identical too.
+     */
+    @Test
+    public void testMatchesSequentialOnFractions() {
+        Random random = new Random(11);
+        ParallelPrefixSumAnalyzer parallel = new ParallelPrefixSumAnalyzer(0, 0, 16, pool);
+        PrimitivePrefixSumAnalyzer sequential = new PrimitivePrefixSumAnalyzer(0);
+
+        for (int round = 0; round < 200; round++) {
+            double[] values = new double[1 + random.nextInt(1500)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = (random.nextInt(9) - 4) / 10.0;
+            }
+            assertSameResult(sequential.analyze(DoubleSeries.of(values)), parallel.analyze(DoubleSeries.of(values)));
+        }
+    }
+
+    /**
+     * No zero-sum period returns the empty result.
+     */
+    @Test
+    public void testNoMatch() {
+        double[] values = new double[500];
+        Arrays.fill(values, 1.0);
+
+        SubarrayResult result = new ParallelPrefixSumAnalyzer(0, 0, 16, pool).analyze(DoubleSeries.of(values));
+
+        assertEquals(-1, result.getStartIndex());
+        assertEquals(-1, result.getEndIndex());
+    }
+
+    private static void assertSameResult(SubarrayResult expected, SubarrayResult actual) {
+        assertEquals(expected.getStartIndex(), actual.getStartIndex());
+        assertEquals(expected.getEndIndex(), actual.getEndIndex());
+        assertEquals(expected.getTotal(), actual.getTotal(), 0.0);
+    }
+}
@@ -0,0 +1,197 @@
+package main.test.algorithm;
+
+import AlgorithmModule.KadaneAnalyzer;
+import AlgorithmModule.PrefixSumAnalyzer;
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.MinSubarrayAnalyzer;
+import main.java.algorithm.PrimitiveKadaneAnalyzer;
+import main.java.algorithm.PrimitivePrefixSumAnalyzer;
+import main.java.algorithm.SeriesSummaryAnalyzer;
+import main.java.model.DoubleSeries;
+import main.java.model.SeriesSummary;
+import com.google.gson.Gson;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that the primitive analyzers match the AlgorithmModule implementations.
+ */
+public class PrimitiveAnalyzerTest {
+
+    /**
+     * Kadane on a primitive series gives the same result as the List-based analyzer.
+     */
+    @Test
+    public void testKadaneMatchesAlgorithmModule() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<Double> values = randomValues(random, 1 + random.nextInt(50));
+
+            assertSameResult(new KadaneAnalyzer().analyze(values),
+                    new PrimitiveKadaneAnalyzer().analyze(DoubleSeries.from(values)));
+        }
+    }
+
+    /**
+     * Prefix-sum target search gives the same result as the List-based analyzer.
+     */
+    @Test
+    public void testPrefixSumMatchesAlgorithmModule() {
+        Random random = new Random(7);
+        for (int round = 0; round < 200; round++) {
+            List<Double> values = randomValues(random, 1 + random.nextInt(50));
+
+            assertSameResult(new PrefixSumAnalyzer(0).analyze(values),
+                    new PrimitivePrefixSumAnalyzer(0).analyze(DoubleSeries.from(values)));
+            assertSameResult(new PrefixSumAnalyzer(2).analyze(values),
+                    new PrimitivePrefixSumAnalyzer(2).analyze(values));
+        }
+    }
+
+    /**
+     * Epsilon mode finds zero-sum periods hidden by floating-point rounding.
+     */
+    @Test
+    public void testPrefixSumEpsilon() {
+        DoubleSeries series = DoubleSeries.of(0.1, 0.2, -0.3, 5.0);
+
+        assertEquals(-1, new PrimitivePrefixSumAnalyzer(0).analyze(series).getStartIndex());
+
+        SubarrayResult tolerant = new PrimitivePrefixSumAnalyzer(0, 1e-9).analyze(series);
+        assertEquals(0, tolerant.getStartIndex());
+        assertEquals(2, tolerant.getEndIndex());
+    }
+
+    /**
+     * With several earlier prefix sums within epsilon, the earliest one gives the longest period,
+     * even when a later one is closer.
+     */
+    @Test
+    public void testPrefixSumEpsilonPrefersEarliestMatch() {
+        DoubleSeries series = DoubleSeries.of(0.15, -0.07); // Sums to 0.08, within 0.1 of zero
+
+        SubarrayResult result = new PrimitivePrefixSumAnalyzer(0, 0.1).analyze(series);
+        assertEquals(0, result.getStartIndex());
+        assertEquals(1, result.getEndIndex());
+
+        SubarrayResult summarized = new SeriesSummaryAnalyzer(0, 0.1).analyze(series).getZeroReturn();
+        assertEquals(0, summarized.getStartIndex());
+        assertEquals(1, summarized.getEndIndex());
+    }
+
+    /**
+     * Min-subarray scan equals Kadane on the flipped series with the total flipped back.
+     */
+    @Test
+    public void testMinSubarrayMatchesFlippedKadane() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            List<Double> values = randomValues(random, 1 + random.nextInt(50));
+            SubarrayResult flipped = new KadaneAnalyzer().analyze(values.stream().map(v -> -v).toList());
+            SubarrayResult expected = new SubarrayResult(flipped.getStartIndex(), flipped.getEndIndex(), -flipped.getTotal());
+
+            assertSameResult(expected, new MinSubarrayAnalyzer().analyze(values));
+        }
+    }
+
+    /**
+     * Single-pass max profit and max loss equal the separate max and min scans.
+     */
+    @Test
+    public void testExtremaMatchesSeparateScans() {
+        Random random = new Random(5);
+        for (int round = 0; round < 200; round++) {
+            DoubleSeries series = DoubleSeries.from(randomValues(random, 1 + random.nextInt(50)));
+            SeriesSummary summary = new SeriesSummaryAnalyzer().analyze(series);
+
+            assertSameResult(new PrimitiveKadaneAnalyzer().analyze(series), summary.getMaxProfit());
+            assertSameResult(new MinSubarrayAnalyzer().analyze(series), summary.getMaxLoss());
+        }
+    }
+
+    /**
+     * The single-pass summary equals the separate analyzers and direct statistics.
+     */
+    @Test
+    public void testSummaryMatchesSeparateAnalyzers() {
+        Random random = new Random(11);
+        for (int round = 0; round < 200; round++) {
+            double[] raw = new double[1 + random.nextInt(60)];
+            for (int i = 0; i < raw.length; i++) {
+                raw[i] = random.nextInt(11) - 5; // Small integers, so equal prefix sums occur
+            }
+            DoubleSeries series = DoubleSeries.of(raw);
+            double target = round % 2 == 0 ? 0 : 3;
+            SeriesSummary summary = new SeriesSummaryAnalyzer(target, 0).analyze(series);
+
+            assertSameResult(new PrimitiveKadaneAnalyzer().analyze(series), summary.getMaxProfit());
+            assertSameResult(new MinSubarrayAnalyzer().analyze(series), summary.getMaxLoss());
+            assertSameResult(new PrimitivePrefixSumAnalyzer(target).analyze(series), summary.getZeroReturn());
+            assertEquals(raw.length, summary.getCount());
+            assertEquals(Arrays.stream(raw).sum(), summary.getTotal(), 1e-9);
+            assertEquals(Arrays.stream(raw).min().getAsDouble(), summary.getMin(), 0.0);
+            assertEquals(Arrays.stream(raw).max().getAsDouble(), summary.getMax(), 0.0);
+
+            // Drawdown against a brute-force scan of the running total
+            double drawdown = 0;
+            double[] prefix = new double[raw.length + 1];
+            for (int i = 0; i < raw.length; i++) {
+                prefix[i + 1] = prefix[i] + raw[i];
+            }
+            for (int i = 0; i < prefix.length; i++) {
+                for (int j = i; j < prefix.length; j++) {
+                    drawdown = Math.max(drawdown, prefix[i] - prefix[j]);
+                }
+            }
+            assertEquals(drawdown, summary.getMaxDrawdown(), 1e-9);
+        }
+        assertEquals(0, new SeriesSummaryAnalyzer().analyze(DoubleSeries.empty()).getCount());
+    }
+
+    /**
+     * Empty and null input return (-1, -1, 0).
+     */
+    @Test
+    public void testEmptySeries() {
+        SubarrayResult empty = new PrimitiveKadaneAnalyzer().analyze(DoubleSeries.empty());
+        SubarrayResult none = new PrimitivePrefixSumAnalyzer(0).analyze((DoubleSeries) null);
+
+        assertEquals(-1, empty.getStartIndex());
+        assertEquals(-1, none.getEndIndex());
+        assertEquals(0.0, none.getTotal(), 0.0);
+    }
+
+    /**
+     * JSON arrays are read into and written from DoubleSeries as plain number arrays.
+     */
+    @Test
+    public void testGsonRoundTrip() {
+        Gson gson = new Gson();
+        DoubleSeries series = gson.fromJson("[1.5, -2.0, 3]", DoubleSeries.class);
+
+        assertEquals(DoubleSeries.of(1.5, -2.0, 3.0), series);
+        assertEquals("[1.5,-2.0,3.0]", gson.toJson(series));
+        assertEquals("[1.5, -2.0, 3.0]", series.asList().toString());
+        assertSame(series, DoubleSeries.from(series.asList()));
+    }
+
+    // Small integers keep zero-sum subarrays likely and floating-point sums exact
+    private static List<Double> randomValues(Random random, int size) {
+        Double[] values = new Double[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = (double) (random.nextInt(11) - 5);
+        }
+        return Arrays.asList(values);
+    }
+
+    private static void assertSameResult(SubarrayResult expected, SubarrayResult actual) {
+        assertEquals(expected.getStartIndex(), actual.getStartIndex());
+        assertEquals(expected.getEndIndex(), actual.getEndIndex());
+        assertEquals(expected.getTotal(), actual.getTotal(), 0.0);
+    }
+}
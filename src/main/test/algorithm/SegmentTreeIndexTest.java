@@ -0,0 +1,63 @@
+package main.test.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.MinSubarrayAnalyzer;
+import main.java.algorithm.PrimitiveKadaneAnalyzer;
+import main.java.algorithm.SegmentTreeIndex;
+import main.java.model.DoubleSeries;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that range queries on the index match a full scan of the range.
+ */
+public class SegmentTreeIndexTest {
+
+    /**
+     * Random ranges (within one block, across two, and across many) equal Kadane and
+     * MinSubarrayAnalyzer run on a copy of the range, including indices and tie-breaking.
+     */
+    @Test
+    public void testRangesMatchScanOfSlice() {
+        Random random = new Random(19);
+        for (int round = 0; round < 40; round++) {
+            double[] values = new double[1 + random.nextInt(400)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(11) - 5; // Small integers, so ties are common
+            }
+            SegmentTreeIndex index = new SegmentTreeIndex(DoubleSeries.wrap(values, values.length));
+
+            for (int query = 0; query < 50; query++) {
+                int from = random.nextInt(values.length);
+                int to = from + random.nextInt(values.length - from);
+                double[] slice = Arrays.copyOfRange(values, from, to + 1);
+
+                assertShifted(new PrimitiveKadaneAnalyzer().analyze(DoubleSeries.wrap(slice, slice.length)),
+                        index.maxProfit(from, to), from);
+                assertShifted(new MinSubarrayAnalyzer().analyze(DoubleSeries.wrap(slice, slice.length)),
+                        index.maxLoss(from, to), from);
+            }
+        }
+    }
+
+    /**
+     * Ranges outside the series are rejected.
+     */
+    @Test
+    public void testInvalidRange() {
+        SegmentTreeIndex index = new SegmentTreeIndex(DoubleSeries.wrap(new double[] {1.0, -1.0}, 2));
+        assertThrows(IllegalArgumentException.class, () -> index.maxProfit(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> index.maxLoss(1, 0));
+        assertThrows(IllegalArgumentException.class, () -> new SegmentTreeIndex(DoubleSeries.wrap(new double[0], 0)));
+    }
+
+    private static void assertShifted(SubarrayResult expected, SubarrayResult actual, int offset) {
+        assertEquals(expected.getStartIndex() + offset, actual.getStartIndex());
+        assertEquals(expected.getEndIndex() + offset, actual.getEndIndex());
+        assertEquals(expected.getTotal(), actual.getTotal(), 1e-9);
+    }
+}
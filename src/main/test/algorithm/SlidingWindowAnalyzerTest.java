@@ -0,0 +1,78 @@
+package main.test.algorithm;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.MinSubarrayAnalyzer;
+import main.java.algorithm.PrimitiveKadaneAnalyzer;
+import main.java.algorithm.SlidingWindowAnalyzer;
+import main.java.model.DoubleSeries;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that sliding-window results match a full scan of every window.
+ */
+public class SlidingWindowAnalyzerTest {
+
+    /**
+     * Every reported window equals Kadane (max) or MinSubarrayAnalyzer (min) run on a copy of that window,
+     * including indices and tie-breaking.
+     */
+    @Test
+    public void testMatchesScanOfEveryWindow() {
+        Random random = new Random(11);
+        for (int round = 0; round < 300; round++) {
+            double[] values = new double[1 + random.nextInt(60)];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = random.nextInt(11) - 5; // Small integers, so ties are common
+            }
+            int window = 1 + random.nextInt(12);
+            int step = 1 + random.nextInt(4);
+            boolean minimum = random.nextBoolean();
+
+            List<SubarrayResult> actual = new SlidingWindowAnalyzer(window, minimum)
+                    .analyze(DoubleSeries.wrap(values, values.length), step).collect(Collectors.toList());
+
+            int width = Math.min(window, values.length);
+            int expectedCount = (values.length - width) / step + 1;
+            assertEquals(expectedCount, actual.size());
+            for (int w = 0; w < expectedCount; w++) {
+                int from = w * step;
+                double[] copy = Arrays.copyOfRange(values, from, from + width);
+                SubarrayResult expected = minimum
+                        ? new MinSubarrayAnalyzer().analyze(DoubleSeries.wrap(copy, width))
+                        : new PrimitiveKadaneAnalyzer().analyze(DoubleSeries.wrap(copy, width));
+                SubarrayResult result = actual.get(w);
+                assertEquals(expected.getStartIndex() + from, result.getStartIndex());
+                assertEquals(expected.getEndIndex() + from, result.getEndIndex());
+                assertEquals(expected.getTotal(), result.getTotal(), 1e-9);
+            }
+        }
+    }
+
+    /**
+     * An empty series gives no windows; a series shorter than the window (however large) gives one window over all of it.
+     */
+    @Test
+    public void testShortSeries() {
+        SlidingWindowAnalyzer analyzer = new SlidingWindowAnalyzer(5, false);
+        assertEquals(0, analyzer.analyze(DoubleSeries.wrap(new double[0], 0), 1).count());
+
+        List<SubarrayResult> results = analyzer.analyze(DoubleSeries.wrap(new double[] {1.0, -3.0, 2.0}, 3), 1)
+                .collect(Collectors.toList());
+        assertEquals(1, results.size());
+        assertEquals(2, results.get(0).getStartIndex());
+        assertEquals(2.0, results.get(0).getTotal(), 1e-9);
+
+        // The window's memory follows the series, so a huge window is just one window over everything
+        List<SubarrayResult> huge = new SlidingWindowAnalyzer(Integer.MAX_VALUE, false)
+                .analyze(DoubleSeries.wrap(new double[] {1.0, -3.0, 2.0}, 3), 1).collect(Collectors.toList());
+        assertEquals(1, huge.size());
+        assertEquals(2.0, huge.get(0).getTotal(), 1e-9);
+    }
+}
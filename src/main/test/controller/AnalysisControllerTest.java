@@ -1,12 +1,19 @@
 package main.test.controller;
 
+import AlgorithmModule.SubarrayResult;
 import main.java.controller.AnalysisController;
 import main.java.controller.FactoryController;
+import main.java.model.BatchItemResult;
+import main.java.model.IndexSummary;
+import main.java.model.SeriesSummary;
+import main.java.model.SessionSummary;
 import main.java.network.Response;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import java.io.File;
+import java.util.List;
+import java.util.stream.Collectors;
 import static org.junit.Assert.*;
 
 /**
@@ -112,6 +119,200 @@ public class AnalysisControllerTest {
         assertEquals("All results cleared", response.getData());
     }
 
+    /**
+     * Test that a result is returned by the request ID from its analysis response.
+     */
+    @Test
+    public void testGetAction() {
+        Response<?> saved = controller.handle("analysis/maxProfit", "{\"values\": [1.0, -2.0, 3.0]}");
+        assertNotNull(saved.getRequestId());
+
+        Response<?> response = controller.handle("analysis/get", "{\"requestId\": \"" + saved.getRequestId() + "\"}");
+        assertEquals("SUCCESS", response.getStatus());
+        List<?> record = (List<?>) response.getData();
+        assertEquals("Request ID: " + saved.getRequestId(), record.get(0));
+
+        Response<?> missing = controller.handle("analysis/get", "{\"requestId\": \"no-such-id\"}");
+        assertEquals("ERROR", missing.getStatus());
+        assertTrue(missing.getMessage().contains("no-such-id"));
+    }
+
+    /**
+     * Test that a batch runs every job and reports per-job status in order.
+     */
+    @Test
+    public void testBatchAction() {
+        String bodyJson = """
+            {
+                "jobs": [
+                    {"type": "MAX_PROFIT", "values": [1.0, -2.0, 3.0, -1.0, 2.0]},
+                    {"type": "MAX_LOSS", "values": [2.0, -3.0, -1.0, 4.0]},
+                    {"type": "ZERO_RETURN", "values": [1.0, 2.0, 3.0, 4.0], "target": 5.0},
+                    {"values": [1.0]},
+                    {"type": "MAX_PROFIT"},
+                    {"type": "MAX_PROFIT", "closingPrices": [10.0, 12.0, 9.0, 15.0]}
+                ]
+            }
+            """;
+
+        Response<?> response = controller.handle("analysis/batch", bodyJson);
+
+        assertEquals("SUCCESS", response.getStatus());
+        List<?> items = (List<?>) response.getData();
+        assertEquals(6, items.size());
+        BatchItemResult profit = (BatchItemResult) items.get(0);
+        assertEquals(0, profit.getIndex());
+        assertEquals("SUCCESS", profit.getStatus());
+        assertEquals(4.0, profit.getData().getTotal(), 1e-9);
+        assertEquals(-4.0, ((BatchItemResult) items.get(1)).getData().getTotal(), 1e-9);
+        BatchItemResult target = (BatchItemResult) items.get(2);
+        assertEquals(5.0, target.getData().getTotal(), 1e-9);
+        assertEquals("ERROR", ((BatchItemResult) items.get(3)).getStatus());
+        assertEquals("A job without a series fails", "ERROR", ((BatchItemResult) items.get(4)).getStatus());
+        assertEquals("Closing prices become daily changes", 6.0, ((BatchItemResult) items.get(5)).getData().getTotal(), 1e-9);
+
+        // Jobs are saved like single requests
+        Response<?> saved = controller.handle("analysis/get", "{\"requestId\": \"" + target.getRequestId() + "\"}");
+        assertEquals("SUCCESS", saved.getStatus());
+
+        assertEquals("ERROR", controller.handle("analysis/batch", "{\"jobs\": []}").getStatus());
+    }
+
+    /**
+     * Test that a single request with only closing prices is analyzed on their daily changes.
+     */
+    @Test
+    public void testClosingPricesWithoutValues() {
+        Response<?> response = controller.handle("analysis/maxProfit", "{\"closingPrices\": [10.0, 12.0, 9.0, 15.0]}");
+        assertEquals("SUCCESS", response.getStatus());
+        assertEquals(6.0, ((SubarrayResult) response.getData()).getTotal(), 1e-9);
+
+        assertEquals("ERROR", controller.handle("analysis/maxProfit", "{\"closingPrices\": [10.0]}").getStatus());
+    }
+
+    /**
+     * Test that the summary action reports all analyses of one series together.
+     */
+    @Test
+    public void testSummaryAction() {
+        Response<?> response = controller.handle("analysis/summary", "{\"values\": [1.0, -2.0, 3.0, -1.0, -2.0, 2.0]}");
+
+        assertEquals("SUCCESS", response.getStatus());
+        SeriesSummary summary = (SeriesSummary) response.getData();
+        assertEquals(3.0, summary.getMaxProfit().getTotal(), 1e-9);
+        assertEquals(-3.0, summary.getMaxLoss().getTotal(), 1e-9);
+        assertEquals(1, summary.getZeroReturn().getStartIndex());
+        assertEquals(5, summary.getZeroReturn().getEndIndex());
+        assertEquals(1.0, summary.getTotal(), 1e-9);
+        assertEquals(3.0, summary.getMaxDrawdown(), 1e-9);
+    }
+
+    /**
+     * Test that a summary of closing prices alone is taken over their daily changes.
+     */
+    @Test
+    public void testSummaryOfClosingPrices() {
+        Response<?> response = controller.handle("analysis/summary", "{\"closingPrices\": [10.0, 12.0, 9.0, 15.0]}");
+
+        assertEquals("SUCCESS", response.getStatus());
+        SeriesSummary summary = (SeriesSummary) response.getData();
+        assertEquals(3, summary.getCount());
+        assertEquals(6.0, summary.getMaxProfit().getTotal(), 1e-9);
+        assertEquals(-3.0, summary.getMaxLoss().getTotal(), 1e-9);
+
+        assertEquals("ERROR", controller.handle("analysis/summary", "{\"closingPrices\": [10.0]}").getStatus());
+        assertEquals("ERROR", controller.handle("analysis/summary", "{}").getStatus());
+    }
+
+    /**
+     * Test a live session: open, append ticks in two calls, query and close.
+     */
+    @Test
+    public void testSessionActions() {
+        Response<?> opened = controller.handle("analysis/session/open", "{}");
+        String sessionId = ((SessionSummary) opened.getData()).getSessionId();
+
+        controller.handle("analysis/session/append", "{\"sessionId\": \"" + sessionId + "\", \"values\": [1.0, -2.0]}");
+        Response<?> appended = controller.handle("analysis/session/append",
+                "{\"sessionId\": \"" + sessionId + "\", \"values\": [3.0, -1.0, -2.0, 2.0]}");
+        SeriesSummary summary = ((SessionSummary) appended.getData()).getSummary();
+        assertEquals(3.0, summary.getMaxProfit().getTotal(), 1e-9);
+        assertEquals(1, summary.getZeroReturn().getStartIndex());
+        assertEquals(5, summary.getZeroReturn().getEndIndex());
+
+        Response<?> closed = controller.handle("analysis/session/close", "{\"sessionId\": \"" + sessionId + "\"}");
+        assertEquals(6, ((SessionSummary) closed.getData()).getSummary().getCount());
+        Response<?> query = controller.handle("analysis/session/query", "{\"sessionId\": \"" + sessionId + "\"}");
+        assertEquals("ERROR", query.getStatus());
+        assertTrue(query.getMessage().contains("Unknown session"));
+    }
+
+    /**
+     * Test windowed max loss is streamed per window and a missing or oversized window is rejected.
+     */
+    @Test
+    public void testWindowMaxLoss() {
+        Response<?> response = controller.handle("analysis/windowMaxLoss",
+                "{\"values\": [1.0, -2.0, 3.0, -4.0, -1.0], \"window\": 3, \"step\": 2}");
+
+        assertEquals("SUCCESS", response.getStatus());
+        List<?> windows = response.getDataStream().collect(Collectors.toList());
+        assertEquals(2, windows.size());
+        SubarrayResult last = (SubarrayResult) windows.get(1);
+        assertEquals(3, last.getStartIndex());
+        assertEquals(4, last.getEndIndex());
+        assertEquals(-5.0, last.getTotal(), 1e-9);
+
+        Response<?> invalid = controller.handle("analysis/windowMaxProfit", "{\"values\": [1.0]}");
+        assertEquals("ERROR", invalid.getStatus());
+        Response<?> tooWide = controller.handle("analysis/windowMaxProfit", "{\"values\": [1.0], \"window\": 1000000000}");
+        assertEquals("ERROR", tooWide.getStatus());
+    }
+
+    /**
+     * Test that windows over closing prices alone slide over their daily changes, and that a body
+     * without a series is rejected instead of streaming no windows.
+     */
+    @Test
+    public void testWindowOfClosingPrices() {
+        Response<?> response = controller.handle("analysis/windowMaxProfit",
+                "{\"closingPrices\": [10.0, 12.0, 9.0, 15.0], \"window\": 2}");
+
+        assertEquals("SUCCESS", response.getStatus());
+        List<?> windows = response.getDataStream().collect(Collectors.toList());
+        assertEquals(2, windows.size());
+        assertEquals(6.0, ((SubarrayResult) windows.get(1)).getTotal(), 1e-9);
+
+        assertEquals("ERROR", controller.handle("analysis/windowMaxProfit", "{\"window\": 2}").getStatus());
+    }
+
+    /**
+     * Test an indexed series answers range queries until it is dropped.
+     */
+    @Test
+    public void testIndexActions() {
+        Response<?> created = controller.handle("analysis/index/create",
+                "{\"values\": [2.0, -5.0, 1.0, 3.0, -1.0, -4.0, 2.0]}");
+        String indexId = ((IndexSummary) created.getData()).getIndexId();
+
+        Response<?> profit = controller.handle("analysis/index/maxProfit",
+                "{\"indexId\": \"" + indexId + "\", \"from\": 1, \"to\": 4}");
+        SubarrayResult best = (SubarrayResult) profit.getData();
+        assertEquals(2, best.getStartIndex());
+        assertEquals(3, best.getEndIndex());
+        assertEquals(4.0, best.getTotal(), 1e-9);
+
+        Response<?> loss = controller.handle("analysis/index/maxLoss",
+                "{\"indexId\": \"" + indexId + "\", \"from\": 3, \"to\": 6}");
+        assertEquals(-5.0, ((SubarrayResult) loss.getData()).getTotal(), 1e-9);
+
+        controller.handle("analysis/index/drop", "{\"indexId\": \"" + indexId + "\"}");
+        Response<?> dropped = controller.handle("analysis/index/maxProfit",
+                "{\"indexId\": \"" + indexId + "\", \"from\": 0, \"to\": 1}");
+        assertEquals("ERROR", dropped.getStatus());
+        assertTrue(dropped.getMessage().contains("Unknown index"));
+    }
+
     /**
      * Test invalid JSON handling.
      */
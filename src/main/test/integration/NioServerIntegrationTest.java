@@ -0,0 +1,265 @@
+package main.test.integration;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.enums.ServerFrontEnd;
+import main.java.network.BinaryWireCodec;
+import main.java.network.NioServer;
+import main.java.network.Response;
+import main.java.network.ServerConfig;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import java.io.*;
+import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import AlgorithmModule.SubarrayResult;
+import static org.junit.Assert.*;
+
+/**
+ * Integration tests for the selector-based front end.
+ * Uses the same JSON protocol as ServerIntegrationTest on a separate port.
+ */
+public class NioServerIntegrationTest {
+
+    private static final int TEST_PORT = 34569;
+    private static final int TIMEOUT_MS = 3000;
+
+    @BeforeClass
+    public static void startServer() throws InterruptedException {
+        ServerConfig config = new ServerConfig(TEST_PORT);
+        config.setFrontEnd(ServerFrontEnd.NIO);
+        config.setEventLoops(2);
+        NioServer server = new NioServer(config);
+
+        Thread serverThread = new Thread(server::start);
+        serverThread.setDaemon(true);
+        serverThread.start();
+
+        // Give server time to start
+        Thread.sleep(1000);
+    }
+
+    /**
+     * Test single request per connection, same as the classic server.
+     */
+    @Test
+    public void testMaxProfitRequest() throws Exception {
+        String request = "{\"headers\":{\"action\":\"analysis/maxProfit\"},\"body\":{\"values\":[1.0,-2.0,3.0,-1.0,2.0],\"dataMode\":\"DAILY_CHANGES\"}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(request);
+            String response = in.readLine();
+
+            assertTrue("Response should contain SUCCESS", response.contains("SUCCESS"));
+            assertTrue("Response should contain total", response.contains("\"total\":4.0"));
+            assertNull("Server should close after a single request", in.readLine());
+        }
+    }
+
+    /**
+     * Test keep-alive frames split across writes and sent back to back.
+     */
+    @Test
+    public void testKeepAliveFramesInOneWrite() throws Exception {
+        String first = "{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"keep-alive\"},\"body\":{\"values\":[2.0,-1.0,2.0]}}";
+        String second = "{\"headers\":{\"action\":\"invalid/action\",\"connection\":\"keep-alive\"},\"body\":{\"note\":\"brace } in string\"}}";
+        String third = "{\"headers\":{\"action\":\"analysis/zeroReturn\"},\"body\":{\"values\":[1.0,-1.0]}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            OutputStream out = socket.getOutputStream();
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            // First frame arrives in two pieces, the rest in one burst
+            out.write(first.substring(0, 20).getBytes());
+            out.flush();
+            Thread.sleep(50);
+            out.write((first.substring(20) + second + "\n" + third).getBytes());
+            out.flush();
+
+            assertTrue(in.readLine().contains("\"total\":3.0"));
+            assertTrue(in.readLine().contains("Unknown action"));
+            assertTrue(in.readLine().contains("SUCCESS"));
+            assertNull("Server should close after the request without keep-alive", in.readLine());
+        }
+    }
+
+    /**
+     * Test that a getAll larger than one stream chunk arrives as one complete JSON line.
+     */
+    @Test
+    public void testStreamedGetAll() throws Exception {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            values.append(i > 0 ? "," : "").append(i % 7 - 3).append(".5");
+        }
+        String save = "{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"keep-alive\"},\"body\":{\"values\":[" + values + "]}}";
+        String getAll = "{\"headers\":{\"action\":\"analysis/getAll\"},\"body\":{}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(save);
+            assertTrue(in.readLine().contains("SUCCESS"));
+            out.println(getAll);
+            String response = in.readLine();
+
+            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+            assertEquals("SUCCESS", json.get("status").getAsString());
+            JsonArray data = json.getAsJsonArray("data");
+            String lastValues = data.get(data.size() - 3).getAsString();
+            assertTrue(lastValues.startsWith("Values Used for Analysis: [-3.5, -2.5"));
+            assertTrue("Streamed line should exceed one chunk", response.length() > 64 * 1024);
+            assertNull("Server should close after the request without keep-alive", in.readLine());
+        }
+    }
+
+    /**
+     * Test that a batch result larger than one chunk is serialized in chunks and arrives complete.
+     */
+    @Test
+    public void testChunkedBatchResponse() throws Exception {
+        StringBuilder jobs = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            jobs.append(i > 0 ? "," : "").append("{\"type\":\"MAX_PROFIT\",\"values\":[1.0,-2.0,").append(i).append(".0]}");
+        }
+        String batch = "{\"headers\":{\"action\":\"analysis/batch\"},\"body\":{\"jobs\":[" + jobs + "]}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(batch);
+            String response = in.readLine();
+
+            JsonObject json = JsonParser.parseString(response).getAsJsonObject();
+            assertEquals("SUCCESS", json.get("status").getAsString());
+            JsonArray data = json.getAsJsonArray("data");
+            assertEquals("Every job should have a result", 2000, data.size());
+            assertEquals(1999.0, data.get(1999).getAsJsonObject().getAsJsonObject("data").get("total").getAsDouble(), 1e-9);
+            assertTrue("Response should exceed one chunk", response.length() > 64 * 1024);
+        }
+    }
+
+    /**
+     * Test the binary wire protocol: handshake, two frames on one connection, and a bad action code.
+     */
+    @Test
+    public void testBinaryProtocol() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            out.write(BinaryWireCodec.handshake(BinaryWireCodec.VERSION).array());
+            assertEquals(BinaryWireCodec.MAGIC, in.readByte());
+            assertEquals("Server should accept version 1", BinaryWireCodec.VERSION, in.readByte());
+
+            out.write(BinaryWireCodec.encodeRequest(AnalysisType.MAX_PROFIT, DataMode.DAILY_CHANGES,
+                    new double[] {1.0, -2.0, 3.0, -1.0, 2.0}, null, null).array());
+            Response<SubarrayResult> profit = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("SUCCESS", profit.getStatus());
+            assertEquals(2, profit.getData().getStartIndex());
+            assertEquals(4.0, profit.getData().getTotal(), 1e-9);
+            assertNotNull("Saved result should carry its request ID", profit.getRequestId());
+
+            byte[] badAction = {2, 0, 0, 0, 9, 0};
+            out.write(badAction);
+            Response<SubarrayResult> error = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("ERROR", error.getStatus());
+            assertTrue(error.getMessage().contains("Unknown action code"));
+
+            out.write(BinaryWireCodec.encodeRequest(AnalysisType.MAX_LOSS, null,
+                    new double[] {1.0, -2.0, -3.0, 4.0}, null, null).array());
+            Response<SubarrayResult> loss = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("Connection should stay open between frames", -5.0, loss.getData().getTotal(), 1e-9);
+        }
+    }
+
+    /**
+     * Test pipelined requests on one connection: every response carries its request's correlationId,
+     * and a request that cannot be parsed does not end the connection.
+     */
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            values.append(i > 0 ? "," : "").append(i % 5 - 2).append(".25");
+        }
+        String slow = "{\"headers\":{\"action\":\"analysis/zeroReturn\",\"connection\":\"pipeline\",\"correlationId\":\"slow\"},\"body\":{\"values\":[" + values + "]}}";
+        String fast = "{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"pipeline\",\"correlationId\":\"fast\"},\"body\":{\"values\":[1.0,-2.0,3.0]}}";
+        String untagged = "{\"headers\":{\"action\":\"analysis/maxLoss\",\"connection\":\"pipeline\"},\"body\":{\"values\":[1.0]}}";
+        String broken = "{\"headers\":{\"action\":\"analysis/maxLoss\",\"connection\":\"pipeline\",\"correlationId\":\"broken\",\"x\":},\"body\":{}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(slow);
+            out.println(broken);
+            out.println(fast);
+            out.println(untagged);
+            Map<String, JsonObject> responses = new HashMap<>();
+            for (int i = 0; i < 4; i++) {
+                JsonObject json = JsonParser.parseString(in.readLine()).getAsJsonObject();
+                responses.put(json.has("correlationId") ? json.get("correlationId").getAsString() : "none", json);
+            }
+
+            assertEquals("SUCCESS", responses.get("slow").get("status").getAsString());
+            assertEquals(3.0, responses.get("fast").getAsJsonObject("data").get("total").getAsDouble(), 1e-9);
+            assertEquals("pipeline", responses.get("fast").get("connection").getAsString());
+            assertEquals("Pipelined requests need a correlationId", responses.get("none").get("message").getAsString());
+            assertEquals("A request that cannot be parsed is answered by its correlationId",
+                    "ERROR", responses.get("broken").get("status").getAsString());
+        }
+    }
+
+    /**
+     * Test that a client which connects but never sends a request is closed after the idle timeout.
+     */
+    @Test
+    public void testIdleTimeoutBeforeFirstRequest() throws Exception {
+        ServerConfig config = new ServerConfig(TEST_PORT + 10);
+        config.setFrontEnd(ServerFrontEnd.NIO);
+        config.setEventLoops(1);
+        config.setKeepAliveTimeoutMs(200);
+        Thread serverThread = new Thread(new NioServer(config)::start);
+        serverThread.setDaemon(true);
+        serverThread.start();
+        Thread.sleep(500);
+
+        try (Socket socket = new Socket("localhost", TEST_PORT + 10)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            assertEquals("Silent connection should be closed by the server", -1, socket.getInputStream().read());
+        }
+    }
+
+    /**
+     * Test malformed input gets an error response.
+     */
+    @Test
+    public void testMalformedRequest() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println("not json");
+            String response = in.readLine();
+
+            assertTrue("Response should contain ERROR", response.contains("ERROR"));
+        }
+    }
+}
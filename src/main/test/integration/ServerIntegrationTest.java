@@ -1,11 +1,22 @@
 package main.test.integration;
 
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.enums.ExecutionMode;
+import main.java.network.BinaryWireCodec;
+import main.java.network.Response;
 import main.java.network.Server;
+import main.java.network.ServerConfig;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import java.io.*;
 import java.net.Socket;
+import java.util.HashMap;
+import java.util.Map;
+import AlgorithmModule.SubarrayResult;
 import static org.junit.Assert.*;
 
 /**
@@ -60,6 +71,115 @@ public class ServerIntegrationTest {
         System.out.println("✅ Max Profit Test Passed: " + response);
     }
 
+    /**
+     * Test the binary wire protocol: handshake, two frames on one connection, and a bad action code.
+     */
+    @Test
+    public void testBinaryProtocol() throws Exception {
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            OutputStream out = socket.getOutputStream();
+            DataInputStream in = new DataInputStream(socket.getInputStream());
+
+            out.write(BinaryWireCodec.handshake(BinaryWireCodec.VERSION).array());
+            assertEquals(BinaryWireCodec.MAGIC, in.readByte());
+            assertEquals("Server should accept version 1", BinaryWireCodec.VERSION, in.readByte());
+
+            out.write(BinaryWireCodec.encodeRequest(AnalysisType.MAX_PROFIT, DataMode.DAILY_CHANGES,
+                    new double[] {1.0, -2.0, 3.0, -1.0, 2.0}, null, null).array());
+            Response<SubarrayResult> profit = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("SUCCESS", profit.getStatus());
+            assertEquals(2, profit.getData().getStartIndex());
+            assertEquals(4.0, profit.getData().getTotal(), 1e-9);
+            assertNotNull("Saved result should carry its request ID", profit.getRequestId());
+
+            byte[] badAction = {2, 0, 0, 0, 9, 0};
+            out.write(badAction);
+            Response<SubarrayResult> error = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("ERROR", error.getStatus());
+            assertTrue(error.getMessage().contains("Unknown action code"));
+
+            out.write(BinaryWireCodec.encodeRequest(AnalysisType.MAX_LOSS, null,
+                    new double[] {1.0, -2.0, -3.0, 4.0}, null, null).array());
+            Response<SubarrayResult> loss = BinaryWireCodec.decodeReply(BinaryWireCodec.readFrame(in));
+            assertEquals("Connection should stay open between frames", -5.0, loss.getData().getTotal(), 1e-9);
+        }
+    }
+
+    /**
+     * Test pipelined requests on one connection: every response carries its request's correlationId,
+     * and a request that cannot be parsed does not end the connection.
+     */
+    @Test
+    public void testPipelinedRequests() throws Exception {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < 200000; i++) {
+            values.append(i > 0 ? "," : "").append(i % 5 - 2).append(".25");
+        }
+        String slow = "{\"headers\":{\"action\":\"analysis/zeroReturn\",\"connection\":\"pipeline\",\"correlationId\":\"slow\"},\"body\":{\"values\":[" + values + "]}}";
+        String fast = "{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"pipeline\",\"correlationId\":\"fast\"},\"body\":{\"values\":[1.0,-2.0,3.0]}}";
+        String untagged = "{\"headers\":{\"action\":\"analysis/maxLoss\",\"connection\":\"pipeline\"},\"body\":{\"values\":[1.0]}}";
+        String broken = "{\"headers\":{\"action\":\"analysis/maxLoss\",\"connection\":\"pipeline\",\"correlationId\":\"broken\",\"x\":},\"body\":{}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(slow);
+            out.println(broken);
+            out.println(fast);
+            out.println(untagged);
+            Map<String, JsonObject> responses = new HashMap<>();
+            for (int i = 0; i < 4; i++) {
+                JsonObject json = JsonParser.parseString(in.readLine()).getAsJsonObject();
+                responses.put(json.has("correlationId") ? json.get("correlationId").getAsString() : "none", json);
+            }
+
+            assertEquals("SUCCESS", responses.get("slow").get("status").getAsString());
+            assertEquals(3.0, responses.get("fast").getAsJsonObject("data").get("total").getAsDouble(), 1e-9);
+            assertEquals("pipeline", responses.get("fast").get("connection").getAsString());
+            assertEquals("Pipelined requests need a correlationId", responses.get("none").get("message").getAsString());
+            assertEquals("A request that cannot be parsed is answered by its correlationId",
+                    "ERROR", responses.get("broken").get("status").getAsString());
+        }
+    }
+
+    /**
+     * Test that pipelined requests run on the server's bounded pool: with a single worker, which
+     * the connection itself occupies, every request is still answered.
+     */
+    @Test
+    public void testPipelinedRequestsOnSingleWorkerPool() throws Exception {
+        ServerConfig config = new ServerConfig(TEST_PORT + 10);
+        config.setExecutionMode(ExecutionMode.BOUNDED_POOL);
+        config.setPoolSize(1);
+        config.setQueueCapacity(8);
+        Thread thread = new Thread(() -> new Server(config).start());
+        thread.setDaemon(true);
+        thread.start();
+        Thread.sleep(500);
+
+        try (Socket socket = new Socket("localhost", TEST_PORT + 10)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            for (int i = 0; i < 3; i++) {
+                out.println("{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"pipeline\",\"correlationId\":\"job-" + i
+                        + "\"},\"body\":{\"values\":[1.0,-2.0," + i + ".0]}}");
+            }
+            Map<String, JsonObject> responses = new HashMap<>();
+            for (int i = 0; i < 3; i++) {
+                JsonObject json = JsonParser.parseString(in.readLine()).getAsJsonObject();
+                responses.put(json.get("correlationId").getAsString(), json);
+            }
+            for (int i = 0; i < 3; i++) {
+                assertEquals("SUCCESS", responses.get("job-" + i).get("status").getAsString());
+            }
+        }
+    }
+
     /**
      * Test clear operation - SINGLE LINE JSON.
      */
@@ -119,6 +239,56 @@ public class ServerIntegrationTest {
         }
     }
 
+    /**
+     * Test several requests answered in order on one keep-alive connection.
+     */
+    @Test
+    public void testKeepAliveRequests() throws Exception {
+        String maxProfit = "{\"headers\":{\"action\":\"analysis/maxProfit\",\"connection\":\"keep-alive\"},\"body\":{\"values\":[1.0,-2.0,3.0],\"dataMode\":\"DAILY_CHANGES\"}}";
+        String invalid = "{\"headers\":{\"action\":\"invalid/action\",\"connection\":\"keep-alive\"},\"body\":{}}";
+        String last = "{\"headers\":{\"action\":\"analysis/zeroReturn\"},\"body\":{\"values\":[1.0,-1.0],\"dataMode\":\"DAILY_CHANGES\"}}";
+
+        try (Socket socket = new Socket("localhost", TEST_PORT)) {
+            socket.setSoTimeout(TIMEOUT_MS);
+            PrintWriter out = new PrintWriter(socket.getOutputStream(), true);
+            BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream()));
+
+            out.println(maxProfit);
+            String first = in.readLine();
+            out.println(invalid);
+            String second = in.readLine();
+            out.println(last);
+            String third = in.readLine();
+
+            assertTrue("First response should succeed", first.contains("SUCCESS"));
+            assertTrue("Connection should stay open", first.contains("keep-alive"));
+            assertTrue("Second response should be the error", second.contains("Unknown action"));
+            assertTrue("Third response should succeed", third.contains("SUCCESS"));
+            assertNull("Server should close after a request without keep-alive", in.readLine());
+        }
+    }
+
+    /**
+     * Test getAll paging: a page of at most "limit" entries and a cursor to the next one.
+     */
+    @Test
+    public void testPagedGetAll() throws Exception {
+        sendTcpRequest("{\"headers\":{\"action\":\"analysis/maxProfit\"},\"body\":{\"values\":[1.0,2.0]}}");
+        sendTcpRequest("{\"headers\":{\"action\":\"analysis/maxProfit\"},\"body\":{\"values\":[3.0,4.0]}}");
+
+        String first = sendTcpRequest("{\"headers\":{\"action\":\"analysis/getAll\"},\"body\":{\"limit\":1}}");
+        JsonObject page = JsonParser.parseString(first).getAsJsonObject().getAsJsonObject("data");
+        long records = page.getAsJsonArray("entries").asList().stream()
+                .filter(entry -> entry.getAsString().startsWith("Request ID: ")).count();
+        assertEquals("A page holds whole records", 1, records);
+        assertTrue("More entries should follow", page.has("nextCursor"));
+
+        String cursor = page.get("nextCursor").getAsString();
+        String second = sendTcpRequest("{\"headers\":{\"action\":\"analysis/getAll\"},\"body\":{\"limit\":1,\"cursor\":\"" + cursor + "\"}}");
+        assertTrue("Second page should succeed", second.contains("SUCCESS"));
+        assertTrue("Second page should have entries", second.contains("entries"));
+    }
+
     /**
      * Helper method to send TCP request and receive response.
      */
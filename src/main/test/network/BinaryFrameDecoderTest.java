@@ -0,0 +1,53 @@
+package main.test.network;
+
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.network.BinaryFrameDecoder;
+import main.java.network.BinaryWireCodec;
+import org.junit.Test;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for incremental framing of the binary wire protocol.
+ */
+public class BinaryFrameDecoderTest {
+
+    /**
+     * Test that frames split at every byte boundary are reassembled.
+     */
+    @Test
+    public void testFramesSplitAcrossReads() throws IOException {
+        ByteBuffer first = BinaryWireCodec.encodeRequest(AnalysisType.MAX_PROFIT, DataMode.DAILY_CHANGES,
+                new double[] {1.5, -2.0, 3.25}, null, null);
+        ByteBuffer second = BinaryWireCodec.encodeRequest(AnalysisType.ZERO_RETURN, null,
+                new double[] {1.0, -1.0}, null, 0.01);
+        ByteBuffer stream = ByteBuffer.allocate(2 + first.remaining() + second.remaining());
+        stream.put(BinaryWireCodec.handshake(BinaryWireCodec.VERSION)).put(first.duplicate()).put(second.duplicate()).flip();
+
+        BinaryFrameDecoder decoder = new BinaryFrameDecoder();
+        List<Object> frames = new ArrayList<>();
+        while (stream.hasRemaining()) {
+            decoder.decode(ByteBuffer.wrap(new byte[] {stream.get()}), frames);
+        }
+
+        assertTrue("Handshake should be read", decoder.hasHandshake());
+        assertEquals(BinaryWireCodec.VERSION, decoder.getClientVersion());
+        assertEquals(2, frames.size());
+        assertEquals("Payload should exclude the length prefix", first.remaining() - 4, ((ByteBuffer) frames.get(0)).remaining());
+        assertEquals(BinaryWireCodec.ACTION_ZERO_RETURN, ((ByteBuffer) frames.get(1)).get(0));
+    }
+
+    /**
+     * Test that a negative frame length is rejected.
+     */
+    @Test(expected = IOException.class)
+    public void testInvalidLength() throws IOException {
+        BinaryFrameDecoder decoder = new BinaryFrameDecoder();
+        ByteBuffer input = ByteBuffer.wrap(new byte[] {BinaryWireCodec.MAGIC, 1, -1, -1, -1, -1});
+        decoder.decode(input, new ArrayList<>());
+    }
+}
@@ -1,6 +1,8 @@
 package main.test.network;
 
+import main.java.model.SeriesSummary;
 import main.java.network.Request;
+import main.java.network.RequestDispatcher;
 import main.java.network.Response;
 import com.google.gson.Gson;
 import org.junit.Test;
@@ -110,4 +112,69 @@ public class RequestResponseTest {
                 originalRequest.getHeaders().getAction(),
                 deserializedRequest.getHeaders().getAction());
     }
-}
\ No newline at end of file
+
+    /**
+     * Test single-pass parsing when the body comes before the headers.
+     */
+    @Test
+    public void testDispatchBodyBeforeHeaders() {
+        RequestDispatcher dispatcher = new RequestDispatcher();
+        String json = "{\"body\":{\"values\":[2.0,-1.0,2.0]},\"extra\":[1,{\"a\":2}],"
+                + "\"headers\":{\"action\":\"analysis/summary\"}}";
+
+        Response<?> response = dispatcher.dispatch(dispatcher.parse(json));
+
+        assertEquals("Status should be SUCCESS", "SUCCESS", response.getStatus());
+        SeriesSummary summary = (SeriesSummary) response.getData();
+        assertEquals("All values should be read", 3, summary.getCount());
+    }
+
+    /**
+     * Test that a large values array is decoded in one pass.
+     */
+    @Test
+    public void testDispatchLargeSeries() {
+        RequestDispatcher dispatcher = new RequestDispatcher();
+        StringBuilder json = new StringBuilder("{\"headers\":{\"action\":\"analysis/summary\"},\"body\":{\"values\":[");
+        for (int i = 0; i < 100000; i++) {
+            json.append(i == 0 ? "" : ",").append(i % 2 == 0 ? "1.5" : "-0.5");
+        }
+        json.append("]}}");
+
+        Response<?> response = dispatcher.dispatch(dispatcher.parse(json.toString()));
+
+        assertEquals("Status should be SUCCESS", "SUCCESS", response.getStatus());
+        SeriesSummary summary = (SeriesSummary) response.getData();
+        assertEquals("All values should be read", 100000, summary.getCount());
+        assertEquals("Total should match", 50000.0, summary.getTotal(), 1e-9);
+    }
+
+    /**
+     * Test that a malformed body becomes an error response, not an exception.
+     */
+    @Test
+    public void testDispatchMalformedBody() {
+        RequestDispatcher dispatcher = new RequestDispatcher();
+        String json = "{\"headers\":{\"action\":\"analysis/summary\"},\"body\":{\"values\":\"oops\"}}";
+
+        Response<?> response = dispatcher.dispatch(dispatcher.parse(json));
+
+        assertEquals("Status should be ERROR", "ERROR", response.getStatus());
+        assertTrue("Message should explain the failure",
+                response.getMessage().startsWith("Error processing request"));
+    }
+
+    /**
+     * Test that the response echoes the request's correlationId.
+     */
+    @Test
+    public void testCorrelationIdEcho() {
+        RequestDispatcher dispatcher = new RequestDispatcher();
+        String json = "{\"headers\":{\"action\":\"analysis/summary\",\"correlationId\":\"job-7\"},\"body\":{\"values\":[1.0]}}";
+
+        Response<?> response = dispatcher.dispatch(dispatcher.parse(json));
+
+        assertEquals("Correlation ID should be echoed", "job-7", response.getCorrelationId());
+        assertTrue("JSON should contain the correlation ID", gson.toJson(response).contains("\"correlationId\":\"job-7\""));
+    }
+}
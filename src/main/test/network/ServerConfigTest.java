@@ -0,0 +1,85 @@
+package main.test.network;
+
+import main.java.enums.ExecutionMode;
+import main.java.enums.FsyncPolicy;
+import main.java.enums.PersistenceMode;
+import main.java.network.ServerConfig;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for parsing server startup switches.
+ */
+public class ServerConfigTest {
+
+    /**
+     * Test that no switches keeps the default configuration.
+     */
+    @Test
+    public void testDefaults() {
+        ServerConfig config = ServerConfig.fromArgs(new String[0]);
+
+        assertEquals(ServerConfig.DEFAULT_PORT, config.getPort());
+        assertEquals("Idle keep-alive clients must not pin pool workers", ExecutionMode.VIRTUAL_THREADS, config.getExecutionMode());
+    }
+
+    /**
+     * Test bounded pool switches.
+     */
+    @Test
+    public void testPoolSwitches() {
+        ServerConfig config = ServerConfig.fromArgs(new String[] {
+                "--executor=pool", "--pool-size=8", "--queue-capacity=16", "--port=40000"
+        });
+
+        assertEquals(ExecutionMode.BOUNDED_POOL, config.getExecutionMode());
+        assertEquals(8, config.getPoolSize());
+        assertEquals(16, config.getQueueCapacity());
+        assertEquals(40000, config.getPort());
+    }
+
+    /**
+     * Test virtual thread mode selection.
+     */
+    @Test
+    public void testVirtualExecutor() {
+        ServerConfig config = ServerConfig.fromArgs(new String[] {"--executor=virtual"});
+
+        assertEquals(ExecutionMode.VIRTUAL_THREADS, config.getExecutionMode());
+        assertEquals("Virtual threads must stay bounded by default", 10000, config.getMaxConnections());
+        assertEquals(500, ServerConfig.fromArgs(new String[] {"--max-connections=500"}).getMaxConnections());
+    }
+
+    /**
+     * Test asynchronous persistence switches.
+     */
+    @Test
+    public void testPersistenceSwitches() {
+        ServerConfig config = ServerConfig.fromArgs(new String[] {
+                "--persistence=async", "--flush-interval=20", "--flush-bytes=4096", "--fsync=flush"
+        });
+
+        assertEquals(PersistenceMode.ASYNC, config.getPersistenceMode());
+        assertEquals(20, config.getFlushIntervalMs());
+        assertEquals(4096, config.getFlushBytes());
+        assertEquals(FsyncPolicy.EVERY_FLUSH, config.getFsyncPolicy());
+
+        config = ServerConfig.fromArgs(new String[] {
+                "--persistence=segmented", "--segment-bytes=1048576", "--segment-minutes=60",
+                "--retention-days=90", "--retention-segments=500"
+        });
+        assertEquals(PersistenceMode.SEGMENTED, config.getPersistenceMode());
+        assertEquals(1048576, config.getSegmentBytes());
+        assertEquals(60, config.getSegmentMinutes());
+        assertEquals(90, config.getRetentionDays());
+        assertEquals(500, config.getRetentionSegments());
+    }
+
+    /**
+     * Test that invalid switches are rejected.
+     */
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidSwitch() {
+        ServerConfig.fromArgs(new String[] {"--pool-size=0"});
+    }
+}
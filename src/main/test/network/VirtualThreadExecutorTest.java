@@ -0,0 +1,58 @@
+package main.test.network;
+
+import main.java.network.VirtualThreadExecutor;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the connection cap of the virtual thread executor.
+ */
+public class VirtualThreadExecutorTest {
+
+    /**
+     * Test that a task beyond maxConnections is rejected and that a finished task frees its slot.
+     */
+    @Test
+    public void testRejectsBeyondMaxConnections() throws InterruptedException {
+        VirtualThreadExecutor executor = new VirtualThreadExecutor(1);
+        try {
+            CountDownLatch release = new CountDownLatch(1);
+            CountDownLatch finished = new CountDownLatch(1);
+            AtomicReference<String> rejection = new AtomicReference<>();
+            executor.execute(() -> {
+                awaitQuietly(release);
+                finished.countDown();
+            }, rejection::set);
+
+            executor.execute(() -> fail("Task beyond the cap must not run"), rejection::set);
+            assertEquals("Server busy: connection limit reached, please retry later", rejection.get());
+
+            release.countDown();
+            assertTrue(finished.await(5, TimeUnit.SECONDS));
+            CountDownLatch ran = new CountDownLatch(1);
+            for (int attempt = 0; attempt < 100 && ran.getCount() > 0; attempt++) {
+                rejection.set(null);
+                executor.execute(ran::countDown, rejection::set);
+                if (rejection.get() != null) {
+                    Thread.sleep(10); // First task is still releasing its slot
+                }
+            }
+            assertTrue("Slot should be free once the first task ends", ran.await(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.AsyncAnalysisDaoImpl;
+import main.java.repository.BinaryAnalysisDaoImpl;
+import main.java.repository.IAnalysisDao;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests for concurrent saves and clears on the repositories.
+ */
+public class AnalysisDaoConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int SAVES_PER_THREAD = 200;
+
+    private final String textFile = "test_concurrent_datasource.txt";
+    private final String binaryFile = "test_concurrent_datasource.bin";
+
+    @After
+    public void tearDown() {
+        new File(textFile).delete();
+        new File(binaryFile).delete();
+    }
+
+    private void save(IAnalysisDao dao, String requestId) {
+        AnalysisRequest request = new AnalysisRequest(requestId, DoubleSeries.of(1.0, -2.0, 3.0), AnalysisType.MAX_PROFIT,
+                null, null);
+        dao.save(request, new SubarrayResult(2, 2, 3.0));
+    }
+
+    private void saveConcurrently(IAnalysisDao dao) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < SAVES_PER_THREAD; i++) {
+                        save(dao, "t" + thread + "-" + i);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Every record must be complete: ID line first, divider last, nothing in between from another record
+    private void assertWellFormed(List<String> lines) {
+        int records = 0;
+        boolean inRecord = false;
+        for (String line : lines) {
+            if (line.startsWith("Request ID: ")) {
+                assertFalse("Records interleaved", inRecord);
+                inRecord = true;
+                records++;
+            } else if (line.startsWith("----------------------------------------------------") && line.endsWith(" --")) {
+                inRecord = false;
+            }
+        }
+        assertFalse(inRecord);
+        assertEquals(THREADS * SAVES_PER_THREAD, records);
+    }
+
+    /**
+     * Test that concurrent saves on the text file produce whole, indexed records.
+     */
+    @Test
+    public void testConcurrentSaves() throws Exception {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        saveConcurrently(dao);
+
+        assertWellFormed(dao.loadAll());
+        assertEquals(THREADS * SAVES_PER_THREAD, dao.count());
+        assertEquals("Request ID: t3-150", dao.loadById("t3-150").get(0));
+        assertEquals("Request ID: t3-150", new AnalysisDaoImpl(textFile).loadById("t3-150").get(0));
+    }
+
+    /**
+     * Test that the async and binary repositories also keep records whole under concurrent saves.
+     */
+    @Test
+    public void testConcurrentSavesOtherModes() throws Exception {
+        try (AsyncAnalysisDaoImpl dao = new AsyncAnalysisDaoImpl(textFile)) {
+            saveConcurrently(dao);
+            assertWellFormed(dao.loadAll());
+        }
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(binaryFile)) {
+            saveConcurrently(dao);
+            assertEquals(THREADS * SAVES_PER_THREAD, dao.getRecordCount());
+            assertWellFormed(dao.loadAll());
+        }
+    }
+
+    /**
+     * Test that clear() keeps the history file's permissions.
+     */
+    @Test
+    public void testClearKeepsPermissions() throws Exception {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        save(dao, "before-clear");
+        Path path = Path.of(textFile);
+        assumeTrue(Files.getFileAttributeView(path, PosixFileAttributeView.class) != null);
+        Set<PosixFilePermission> permissions = PosixFilePermissions.fromString("rw-r-----");
+        Files.setPosixFilePermissions(path, permissions);
+
+        dao.clear();
+
+        assertEquals(permissions, Files.getPosixFilePermissions(path));
+    }
+
+    /**
+     * Test that clear() during concurrent saves leaves a consistent file and a stream opened
+     * before the clear still reads the old history to the end.
+     */
+    @Test
+    public void testClearDuringSaves() throws Exception {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        saveConcurrently(dao);
+
+        try (Stream<String> old = dao.stream()) {
+            Iterator<String> lines = old.iterator();
+            lines.next();
+
+            ExecutorService pool = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> saves = pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        save(dao, "late-" + i);
+                    }
+                });
+                dao.clear();
+                saves.get();
+            } finally {
+                pool.shutdown();
+            }
+
+            long remaining = 1;
+            while (lines.hasNext()) {
+                lines.next();
+                remaining++;
+            }
+            assertTrue("Old stream was cut short", remaining > THREADS * SAVES_PER_THREAD);
+        }
+
+        List<String> after = dao.loadAll();
+        long records = after.stream().filter(line -> line.startsWith("Request ID: ")).count();
+        assertEquals(records, dao.count());
+        assertTrue(records <= 500);
+        assertTrue(after.stream().noneMatch(line -> line.startsWith("Request ID: t")));
+        if (records > 0) {
+            assertTrue(after.get(0).startsWith("---")); // Header written for the new file
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.AsyncAnalysisDaoImpl;
+import main.java.repository.IAnalysisDao;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for request ID lookups through the text file offset index.
+ */
+public class AnalysisDaoIndexTest {
+
+    private final String testFile = "test_index_datasource.txt";
+
+    @After
+    public void tearDown() {
+        new File(testFile).delete();
+    }
+
+    private void save(IAnalysisDao dao, String requestId, double total) {
+        AnalysisRequest request = new AnalysisRequest(requestId, DoubleSeries.of(total, -1.0), AnalysisType.MAX_PROFIT,
+                null, null);
+        dao.save(request, new SubarrayResult(0, 0, total));
+    }
+
+    private void assertRecord(List<String> record, String requestId, String total) {
+        assertFalse(record.isEmpty());
+        assertEquals("Request ID: " + requestId, record.get(0));
+        assertTrue(record.stream().anyMatch(line -> line.contains(total)));
+    }
+
+    /**
+     * Test that saved records are found by ID, including after a restart (index rebuilt from the file).
+     */
+    @Test
+    public void testLookupAfterSaveAndRestart() {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(testFile);
+        for (int i = 0; i < 50; i++) {
+            save(dao, "req-" + i, i);
+        }
+        assertRecord(dao.loadById("req-0"), "req-0", "0.0");
+        assertRecord(dao.loadById("req-37"), "req-37", "37.0");
+        assertTrue(dao.loadById("missing").isEmpty());
+
+        for (boolean mapped : new boolean[] {false, true}) {
+            AnalysisDaoImpl reopened = new AnalysisDaoImpl(testFile, mapped);
+            assertRecord(reopened.loadById("req-49"), "req-49", "49.0");
+            assertEquals(dao.loadById("req-12"), reopened.loadById("req-12"));
+        }
+
+        dao.clear();
+        assertTrue(dao.loadById("req-0").isEmpty());
+    }
+
+    /**
+     * Test that a file changed behind the DAO's back is re-indexed instead of returning a wrong record.
+     */
+    @Test
+    public void testStaleIndexIsRebuilt() throws IOException {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(testFile);
+        save(dao, "a", 1);
+        save(dao, "b", 2);
+
+        AnalysisDaoImpl other = new AnalysisDaoImpl(testFile);
+        other.clear();
+        try (FileWriter writer = new FileWriter(testFile)) {
+            writer.write("not a record" + System.lineSeparator());
+        }
+        save(other, "b", 3);
+
+        assertRecord(dao.loadById("b"), "b", "3.0");
+        assertTrue(dao.loadById("a").isEmpty());
+    }
+
+    /**
+     * Test that records still batched by the async writer are found at the right offsets.
+     */
+    @Test
+    public void testAsyncLookup() {
+        try (AsyncAnalysisDaoImpl dao = new AsyncAnalysisDaoImpl(testFile)) {
+            save(dao, "ä-first", 1);
+            for (int i = 0; i < 20; i++) {
+                save(dao, "async-" + i, i + 100);
+            }
+            assertRecord(dao.loadById("async-19"), "async-19", "119.0");
+            assertRecord(dao.loadById("ä-first"), "ä-first", "1.0");
+
+            dao.clear();
+            save(dao, "after-clear", 5);
+            assertRecord(dao.loadById("after-clear"), "after-clear", "5.0");
+            assertTrue(dao.loadById("async-3").isEmpty());
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.model.ResultPage;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.BinaryAnalysisDaoImpl;
+import main.java.repository.IAnalysisDao;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for paged and streamed reads of saved results.
+ */
+public class AnalysisDaoPagingTest {
+
+    private final String textFile = "test_paging_datasource.txt";
+    private final String binaryFile = "test_paging_datasource.bin";
+
+    @After
+    public void tearDown() {
+        new File(textFile).delete();
+        new File(binaryFile).delete();
+    }
+
+    private void saveRecords(IAnalysisDao dao, int count) {
+        for (int i = 0; i < count; i++) {
+            AnalysisRequest request = new AnalysisRequest("req-" + i, DoubleSeries.of(i, -1.0), AnalysisType.MAX_PROFIT,
+                    null, null);
+            dao.save(request, new SubarrayResult(0, 0, i));
+        }
+    }
+
+    // Follows nextCursor until the end and concatenates the pages
+    private List<String> readAllPages(IAnalysisDao dao, int limit) {
+        List<String> lines = new ArrayList<>();
+        String cursor = null;
+        do {
+            ResultPage page = dao.readPage(cursor, 0, limit);
+            assertTrue(records(page.getEntries()) <= limit);
+            lines.addAll(page.getEntries());
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return lines;
+    }
+
+    private static long records(List<String> lines) {
+        return lines.stream().filter(line -> line.startsWith("Request ID: ")).count();
+    }
+
+    /**
+     * Test that cursor pages and the stream both reproduce loadAll for the text file.
+     */
+    @Test
+    public void testTextPagesMatchLoadAll() {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        saveRecords(dao, 10);
+
+        List<String> all = dao.loadAll();
+        assertEquals(all, readAllPages(dao, 7));
+        assertEquals(all, readAllPages(dao, all.size()));
+        try (Stream<String> stream = dao.stream()) {
+            assertEquals(all, stream.collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Test that offset and limit count whole records, alone and after a cursor.
+     */
+    @Test
+    public void testOffset() {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        saveRecords(dao, 5);
+
+        ResultPage page = dao.readPage(null, 1, 2);
+        List<String> expected = new ArrayList<>(dao.loadById("req-1"));
+        expected.addAll(dao.loadById("req-2"));
+        assertEquals(expected, page.getEntries());
+
+        ResultPage next = dao.readPage(page.getNextCursor(), 1, 2);
+        assertEquals(dao.loadById("req-4"), next.getEntries());
+        assertFalse("Only one record was left", next.hasMore());
+    }
+
+    /**
+     * Test that a page never ends inside a record and that a record without its divider waits.
+     */
+    @Test
+    public void testPagesEndAtRecords() throws Exception {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        saveRecords(dao, 2);
+        try (FileWriter partial = new FileWriter(textFile, true)) {
+            partial.write("Request ID: req-partial" + System.lineSeparator() + "Analysis Type: MAX_PROFIT" + System.lineSeparator());
+        }
+
+        for (AnalysisDaoImpl reader : List.of(dao, new AnalysisDaoImpl(textFile, true))) {
+            ResultPage first = reader.readPage(null, 0, 1);
+            assertEquals(1, records(first.getEntries()));
+            assertEquals("------------------------------------------------------ --", first.getEntries().get(first.getEntries().size() - 1));
+            ResultPage second = reader.readPage(first.getNextCursor(), 0, 1);
+            assertEquals(reader.loadById("req-1"), second.getEntries());
+            assertFalse("The partial record is not a page yet", second.hasMore());
+        }
+    }
+
+    /**
+     * Test the binary log with the default entry-number cursor.
+     */
+    @Test
+    public void testBinaryPagesMatchLoadAll() {
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(binaryFile)) {
+            saveRecords(dao, 10);
+
+            List<String> all = dao.loadAll();
+            assertEquals(all, readAllPages(dao, 6));
+            try (Stream<String> stream = dao.stream()) {
+                assertEquals(all, stream.collect(Collectors.toList()));
+            }
+        }
+    }
+
+    /**
+     * Test that a missing file reads as empty and unknown cursors are rejected.
+     */
+    @Test
+    public void testEmptyAndInvalidCursor() {
+        AnalysisDaoImpl dao = new AnalysisDaoImpl(textFile);
+        assertTrue(dao.readPage(null, 0, 5).getEntries().isEmpty());
+
+        saveRecords(dao, 1);
+        try {
+            dao.readPage("abc", 0, 5);
+            fail("Cursor should be rejected");
+        } catch (IllegalArgumentException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.enums.FsyncPolicy;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.AsyncAnalysisDaoImpl;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.assumeTrue;
+
+/**
+ * Tests for the asynchronous group-commit repository.
+ */
+public class AsyncAnalysisDaoImplTest {
+
+    private final String syncFile = "test_sync_datasource.txt";
+    private final String asyncFile = "test_async_datasource.txt";
+
+    @After
+    public void tearDown() {
+        new File(syncFile).delete();
+        new File(asyncFile).delete();
+    }
+
+    private AnalysisRequest buildRequest(int id) {
+        return new AnalysisRequest("req-" + id, DoubleSeries.of(id, -1.0, 2.5), AnalysisType.MAX_PROFIT,
+                id % 2 == 0 ? DataMode.DAILY_CHANGES : DataMode.CLOSING_PRICES, DoubleSeries.of(10.0, 11.0));
+    }
+
+    /**
+     * Test that the async writer produces exactly the synchronous file format.
+     */
+    @Test
+    public void testSameFormatAsSynchronousDao() {
+        AnalysisDaoImpl sync = new AnalysisDaoImpl(syncFile);
+        try (AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl(asyncFile)) {
+            for (int i = 0; i < 20; i++) {
+                SubarrayResult result = new SubarrayResult(0, i, i * 1.5);
+                sync.save(buildRequest(i), result);
+                async.save(buildRequest(i), result);
+            }
+            assertEquals(sync.loadAll(), async.loadAll());
+        }
+    }
+
+    /**
+     * Test that concurrent saves never interleave lines of different records.
+     */
+    @Test
+    public void testConcurrentSavesDoNotInterleave() throws InterruptedException {
+        try (AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl(asyncFile, 16, 5, 512, FsyncPolicy.EVERY_FLUSH)) {
+            List<Thread> threads = new ArrayList<>();
+            for (int t = 0; t < 4; t++) {
+                int base = t * 100;
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        async.save(buildRequest(base + i), new SubarrayResult(0, 1, 2.0));
+                    }
+                });
+                threads.add(thread);
+                thread.start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+
+            List<String> lines = async.loadAll();
+            int records = 0;
+            for (int i = 0; i < lines.size(); i++) {
+                if (lines.get(i).startsWith("Request ID: ")) {
+                    records++;
+                    assertTrue(lines.get(i + 1).startsWith("Analysis Type: "));
+                    assertTrue(lines.get(i + 2).startsWith("Data Mode: "));
+                }
+            }
+            assertEquals(200, records);
+        }
+    }
+
+    /**
+     * Test that clear drops earlier saves and the header is written again afterwards.
+     */
+    @Test
+    public void testClearIsOrderedWithSaves() {
+        try (AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl(asyncFile)) {
+            async.save(buildRequest(1), new SubarrayResult(0, 1, 2.0));
+            async.clear();
+            assertTrue(async.loadAll().isEmpty());
+
+            async.save(buildRequest(2), new SubarrayResult(0, 1, 2.0));
+            List<String> lines = async.loadAll();
+            assertTrue(lines.get(1).startsWith("Profit Analyzer"));
+            assertEquals("Request ID: req-2", lines.get(3));
+        }
+    }
+
+    /**
+     * Test that saves racing close() are all written, and that a committed page or count does
+     * not wait for records that are still queued.
+     */
+    @Test
+    public void testSavesRacingCloseAreNotLost() throws Exception {
+        AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl(asyncFile, 10000, 60_000, Integer.MAX_VALUE, FsyncPolicy.NEVER);
+        async.save(buildRequest(0), new SubarrayResult(0, 1, 2.0));
+        assertEquals("Unflushed records are not visible to count()", 0, async.count());
+        assertFalse("A lookup of a queued record waits for it", async.loadById("req-0").isEmpty());
+
+        List<Thread> savers = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int base = 1 + t * 500;
+            Thread saver = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    async.save(buildRequest(base + i), new SubarrayResult(0, 1, 2.0));
+                }
+            });
+            savers.add(saver);
+            saver.start();
+        }
+        Thread.sleep(5);
+        async.close();
+        for (Thread saver : savers) {
+            saver.join();
+        }
+
+        assertEquals(2001, new AnalysisDaoImpl(asyncFile).count());
+    }
+
+    /**
+     * Test that a failed write is reported to the next flush, later saves and close() instead of
+     * being dropped (/dev/full fails every write).
+     */
+    @Test
+    public void testFailedWritesAreReported() {
+        assumeTrue(new File("/dev/full").canWrite());
+        AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl("/dev/full", 16, 5, 1 << 20, FsyncPolicy.NEVER);
+        async.save(buildRequest(0), new SubarrayResult(0, 1, 2.0));
+        try {
+            async.loadAll();
+            fail("A flush that cannot write must fail");
+        } catch (UncheckedIOException expected) {
+            // Expected
+        }
+        try {
+            async.save(buildRequest(1), new SubarrayResult(0, 1, 2.0));
+            fail("Saves must be rejected while writes fail");
+        } catch (UncheckedIOException expected) {
+            // Expected
+        }
+        try {
+            async.close();
+            fail("close() must report the records it could not write");
+        } catch (UncheckedIOException expected) {
+            // Expected
+        }
+    }
+
+    /**
+     * Test that when the writer thread dies, waiting and later callers fail instead of hanging.
+     */
+    @Test(timeout = 10_000)
+    public void testWriterFailureFailsLaterOperations() {
+        AnalysisRequest unformattable = new AnalysisRequest("broken", DoubleSeries.of(1.0), AnalysisType.MAX_PROFIT,
+                DataMode.DAILY_CHANGES, null) {
+            @Override
+            public AnalysisType getType() {
+                throw new IllegalStateException("cannot format");
+            }
+        };
+        AsyncAnalysisDaoImpl async = new AsyncAnalysisDaoImpl(asyncFile, 1, 5, 1 << 20, FsyncPolicy.NEVER);
+        async.save(unformattable, new SubarrayResult(0, 0, 1.0));
+        try {
+            async.loadAll();
+            fail("A flush after the writer died must fail");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+        try {
+            async.save(buildRequest(1), new SubarrayResult(0, 1, 2.0));
+            fail("Saves must be rejected once the writer died");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+        try {
+            async.close();
+            fail("close() must report that the writer died");
+        } catch (IllegalStateException expected) {
+            // Expected
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.model.AnalysisRecord;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.BinaryAnalysisDaoImpl;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the binary result log repository.
+ */
+public class BinaryAnalysisDaoImplTest {
+
+    private final String logFile = "test_datasource.bin";
+    private final String textFile = "test_binary_export.txt";
+
+    @After
+    public void tearDown() {
+        new File(logFile).delete();
+        new File(textFile).delete();
+    }
+
+    private AnalysisRequest buildRequest(String id, DataMode mode) {
+        return new AnalysisRequest(id, DoubleSeries.of(1.5, -2.0, 3.25), AnalysisType.ZERO_RETURN,
+                mode, DoubleSeries.of(100.0, 101.5), 0, 0.001);
+    }
+
+    /**
+     * Test that records round-trip exactly and are found by request ID after reopening.
+     */
+    @Test
+    public void testFindAfterReopen() {
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            dao.save(buildRequest("a", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+            dao.save(buildRequest("b", DataMode.CLOSING_PRICES), new SubarrayResult(1, 2, 1.25));
+        }
+
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            assertEquals(2, dao.getRecordCount());
+            AnalysisRecord record = dao.find("b");
+
+            assertEquals(DoubleSeries.of(1.5, -2.0, 3.25), record.getRequest().getSeries());
+            assertEquals(DoubleSeries.of(100.0, 101.5), record.getRequest().getClosingPriceSeries());
+            assertEquals(DataMode.CLOSING_PRICES, record.getRequest().getDataMode());
+            assertEquals(0.001, record.getRequest().getEpsilon(), 0.0);
+            assertEquals(2, record.getResult().getEndIndex());
+            assertNull(dao.find("missing"));
+        }
+    }
+
+    /**
+     * Test that the text export matches the text repository line for line.
+     */
+    @Test
+    public void testTextExportMatchesTextDao() throws IOException {
+        AnalysisDaoImpl textDao = new AnalysisDaoImpl(textFile + ".expected");
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            for (DataMode mode : DataMode.values()) {
+                AnalysisRequest request = buildRequest("id-" + mode, mode);
+                dao.save(request, new SubarrayResult(0, 2, 2.75));
+                textDao.save(request, new SubarrayResult(0, 2, 2.75));
+            }
+            dao.exportText(textFile);
+
+            assertEquals(textDao.loadAll(), dao.loadAll());
+            assertEquals(textDao.loadAll(), Files.readAllLines(Path.of(textFile)));
+        } finally {
+            new File(textFile + ".expected").delete();
+        }
+    }
+
+    /**
+     * Test that a corrupted last record is dropped on reopen and earlier records survive.
+     */
+    @Test
+    public void testDamagedTailIsDropped() throws IOException {
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            dao.save(buildRequest("a", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+            dao.save(buildRequest("b", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+        }
+        try (RandomAccessFile file = new RandomAccessFile(logFile, "rw")) {
+            file.seek(file.length() - 3);
+            file.write(0x7f); // Flip a byte inside the last record's values
+        }
+
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            assertEquals(1, dao.getRecordCount());
+            assertNotNull(dao.find("a"));
+            assertNull(dao.find("b"));
+
+            dao.save(buildRequest("c", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+            assertNotNull(dao.find("c"));
+        }
+    }
+
+    /**
+     * Test that a full scan does not block saves and only sees the records saved before it started.
+     */
+    @Test
+    public void testScanDoesNotBlockSaves() throws Exception {
+        try (BinaryAnalysisDaoImpl dao = new BinaryAnalysisDaoImpl(logFile)) {
+            dao.save(buildRequest("a", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+            dao.save(buildRequest("b", DataMode.DAILY_CHANGES), new SubarrayResult(0, 1, -0.5));
+
+            int[] seen = {0};
+            dao.forEach(record -> {
+                seen[0]++;
+                Thread saver = new Thread(() -> dao.save(buildRequest("during-" + seen[0], DataMode.DAILY_CHANGES),
+                        new SubarrayResult(0, 1, -0.5)));
+                saver.start();
+                try {
+                    saver.join(5000);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                assertFalse("Save was blocked by the scan", saver.isAlive());
+            });
+
+            assertEquals(2, seen[0]);
+            assertEquals(4, dao.getRecordCount());
+            assertNotNull(dao.find("during-2"));
+        }
+    }
+}
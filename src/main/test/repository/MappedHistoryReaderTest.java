@@ -0,0 +1,97 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.model.ResultPage;
+import main.java.repository.AnalysisDaoImpl;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests that memory-mapped history reads match the buffered reader.
+ */
+public class MappedHistoryReaderTest {
+
+    private final String dataFile = "test_mapped_datasource.txt";
+    private final String exportFile = "test_mapped_export.txt";
+
+    @After
+    public void tearDown() {
+        new File(dataFile).delete();
+        new File(exportFile).delete();
+    }
+
+    private void saveRecords(AnalysisDaoImpl dao, int count) {
+        for (int i = 0; i < count; i++) {
+            AnalysisRequest request = new AnalysisRequest("req-" + i, DoubleSeries.of(i, -0.5), AnalysisType.MAX_LOSS,
+                    i % 2 == 0 ? DataMode.DAILY_CHANGES : DataMode.CLOSING_PRICES, DoubleSeries.of(10, 9.5));
+            dao.save(request, new SubarrayResult(1, 1, -0.5));
+        }
+    }
+
+    /**
+     * Test loadAll, count, lookup and pages against the buffered implementation.
+     */
+    @Test
+    public void testMatchesBufferedReads() {
+        AnalysisDaoImpl buffered = new AnalysisDaoImpl(dataFile);
+        AnalysisDaoImpl mapped = new AnalysisDaoImpl(dataFile, true);
+        saveRecords(buffered, 12);
+
+        assertEquals(buffered.loadAll(), mapped.loadAll());
+        assertEquals(12, mapped.count());
+        assertEquals(buffered.count(), mapped.count());
+        assertEquals(buffered.loadById("req-7"), mapped.loadById("req-7"));
+        assertTrue(mapped.loadById("req-70").isEmpty());
+
+        ResultPage bufferedPage = buffered.readPage(null, 5, 9);
+        ResultPage mappedPage = mapped.readPage(null, 5, 9);
+        assertEquals(bufferedPage.getEntries(), mappedPage.getEntries());
+        assertEquals(bufferedPage.getNextCursor(), mappedPage.getNextCursor());
+        assertEquals(buffered.readPage(bufferedPage.getNextCursor(), 0, 9).getEntries(),
+                mapped.readPage(mappedPage.getNextCursor(), 0, 9).getEntries());
+    }
+
+    /**
+     * Test that export copies complete lines and leaves out a record still being written.
+     */
+    @Test
+    public void testExportSkipsIncompleteLine() throws IOException {
+        AnalysisDaoImpl mapped = new AnalysisDaoImpl(dataFile, true);
+        saveRecords(mapped, 3);
+        List<String> complete = mapped.loadAll();
+        try (FileWriter writer = new FileWriter(dataFile, true)) {
+            writer.write("Request ID: partial");
+        }
+
+        mapped.exportText(exportFile);
+
+        assertEquals(complete, Files.readAllLines(Path.of(exportFile)));
+        assertEquals(complete, mapped.loadAll());
+        assertEquals(3, mapped.count());
+    }
+
+    /**
+     * Test that a missing file reads as empty.
+     */
+    @Test
+    public void testMissingFile() {
+        AnalysisDaoImpl mapped = new AnalysisDaoImpl(dataFile, true);
+
+        assertTrue(mapped.loadAll().isEmpty());
+        assertEquals(0, mapped.count());
+        assertTrue(mapped.readPage(null, 0, 10).getEntries().isEmpty());
+    }
+}
@@ -0,0 +1,225 @@
+package main.test.repository;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.model.ResultPage;
+import main.java.repository.SegmentedAnalysisDaoImpl;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the segmented history store: rotation, reads across segments, retention and compaction.
+ */
+public class SegmentedAnalysisDaoImplTest {
+
+    private static final long NEVER = Long.MAX_VALUE / 2;
+
+    private Path directory;
+
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("segmented-history");
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    private SegmentedAnalysisDaoImpl open(long segmentBytes, long segmentAgeMs, int retentionSegments) {
+        return new SegmentedAnalysisDaoImpl(directory.toString(), segmentBytes, segmentAgeMs, 0, retentionSegments, false);
+    }
+
+    private void saveRecords(SegmentedAnalysisDaoImpl dao, int from, int to) {
+        for (int i = from; i < to; i++) {
+            AnalysisRequest request = new AnalysisRequest("req-" + i, DoubleSeries.of(i, -1.0), AnalysisType.MAX_PROFIT,
+                    null, null);
+            dao.save(request, new SubarrayResult(0, 0, i));
+        }
+    }
+
+    private long recordLines(List<String> lines) {
+        return lines.stream().filter(line -> line.startsWith("Request ID: ")).count();
+    }
+
+    /**
+     * Test that size-based rotation splits the history and reads still see all of it in order.
+     */
+    @Test
+    public void testRotationAndReads() {
+        try (SegmentedAnalysisDaoImpl dao = open(2000, NEVER, 0)) {
+            saveRecords(dao, 0, 60);
+            assertTrue(dao.getSegmentCount() > 3);
+
+            List<String> all = dao.loadAll();
+            assertEquals(60, recordLines(all));
+            assertEquals("Request ID: req-0", all.stream().filter(l -> l.startsWith("Request ID")).findFirst().get());
+            assertEquals("Only the first segment's header is read", 1,
+                    all.stream().filter(line -> line.startsWith("Profit Analyzer")).count());
+            assertEquals(60, dao.count());
+
+            // Pages reproduce the stream, and offsets skip whole segments
+            List<String> paged = new ArrayList<>();
+            String cursor = null;
+            do {
+                ResultPage page = dao.readPage(cursor, 0, 7);
+                paged.addAll(page.getEntries());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
+            assertEquals(all, paged);
+            List<String> records = new ArrayList<>(dao.loadById("req-25"));
+            records.addAll(dao.loadById("req-26"));
+            assertEquals(records, dao.readPage(null, 25, 2).getEntries());
+            for (int i = 1; i < 60; i++) {
+                assertEquals("Record " + i, dao.loadById("req-" + i), dao.readPage(null, i, 1).getEntries());
+            }
+
+            assertEquals("Request ID: req-3", dao.loadById("req-3").get(0));
+            assertEquals("Request ID: req-59", dao.loadById("req-59").get(0));
+            assertTrue(dao.loadById("req-60").isEmpty());
+        }
+    }
+
+    /**
+     * Test that summaries and segments survive a restart.
+     */
+    @Test
+    public void testReopen() throws IOException {
+        List<String> before;
+        try (SegmentedAnalysisDaoImpl dao = open(2000, NEVER, 0)) {
+            saveRecords(dao, 0, 40);
+            dao.runMaintenance();
+            before = dao.loadAll();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.anyMatch(file -> file.toString().endsWith(".meta")));
+        }
+        try (SegmentedAnalysisDaoImpl dao = open(2000, NEVER, 0)) {
+            assertEquals(before, dao.loadAll());
+            assertEquals(40, dao.count());
+            saveRecords(dao, 40, 45);
+            assertEquals(45, dao.count());
+            assertEquals("Request ID: req-12", dao.loadById("req-12").get(0));
+        }
+    }
+
+    /**
+     * Test that retention by count drops the oldest segments.
+     */
+    @Test
+    public void testRetentionBySegmentCount() {
+        try (SegmentedAnalysisDaoImpl dao = open(2000, NEVER, 3)) {
+            saveRecords(dao, 0, 60);
+            dao.runMaintenance();
+
+            assertEquals(3, dao.getSegmentCount());
+            List<String> kept = dao.loadAll();
+            assertTrue(recordLines(kept) < 60);
+            assertTrue(kept.contains("Request ID: req-59"));
+            assertTrue(dao.loadById("req-0").isEmpty());
+        }
+    }
+
+    /**
+     * Test that small time-rotated segments are merged into one without changing the history.
+     */
+    @Test
+    public void testCompaction() throws InterruptedException {
+        try (SegmentedAnalysisDaoImpl dao = open(1 << 20, 1, 0)) {
+            for (int i = 0; i < 5; i++) {
+                saveRecords(dao, i * 3, i * 3 + 3);
+                Thread.sleep(2);
+                dao.runMaintenance(); // Seals the active segment by age
+            }
+            assertEquals(2, dao.getSegmentCount()); // One merged segment plus the new active one
+
+            List<String> all = dao.loadAll();
+            assertEquals(15, recordLines(all));
+            assertEquals(1, all.stream().filter(line -> line.startsWith("Profit Analyzer")).count());
+            assertEquals(15, dao.count());
+            assertEquals("Request ID: req-7", dao.loadById("req-7").get(0));
+        }
+    }
+
+    /**
+     * Test that a merge neither cuts short a stream that started before it nor breaks cursors into
+     * the merged-away segments, and that the old files go once the stream is closed.
+     */
+    @Test
+    public void testCompactionKeepsReadersAndCursors() throws InterruptedException, IOException {
+        List<String> expected = new ArrayList<>();
+        String cursor;
+        try (SegmentedAnalysisDaoImpl dao = open(1 << 20, 1, 0)) {
+            saveRecords(dao, 0, 3);
+            Thread.sleep(2);
+            dao.runMaintenance();
+            saveRecords(dao, 3, 6);
+            expected.addAll(dao.loadById("req-4"));
+            expected.addAll(dao.loadById("req-5"));
+            cursor = dao.readPage(null, 0, 4).getNextCursor(); // Inside the second segment
+
+            List<String> streamed = new ArrayList<>();
+            try (Stream<String> lines = dao.stream()) {
+                Iterator<String> iterator = lines.iterator();
+                streamed.add(iterator.next());
+                Thread.sleep(2);
+                dao.runMaintenance(); // Seals the second segment and merges both
+                assertEquals(2, dao.getSegmentCount());
+                iterator.forEachRemaining(streamed::add);
+            }
+            assertEquals(dao.loadAll(), streamed);
+            assertEquals(6, recordLines(streamed));
+            assertEquals(expected, dao.readPage(cursor, 0, 10).getEntries());
+            try (Stream<Path> files = Files.list(directory)) {
+                assertEquals("Merged-away segments are deleted once unpinned", 1,
+                        files.filter(file -> file.toString().endsWith(".txt")).count());
+            }
+        }
+        try (SegmentedAnalysisDaoImpl dao = open(1 << 20, NEVER, 0)) {
+            assertEquals(expected, dao.readPage(cursor, 0, 10).getEntries());
+            saveRecords(dao, 6, 7);
+            assertEquals(7, dao.count());
+        }
+    }
+
+    /**
+     * Test that clear drops all segments and rejects cursors into them.
+     */
+    @Test
+    public void testClear() {
+        try (SegmentedAnalysisDaoImpl dao = open(2000, NEVER, 0)) {
+            saveRecords(dao, 0, 30);
+            String cursor = dao.readPage(null, 0, 5).getNextCursor();
+            dao.clear();
+
+            assertEquals(0, dao.count());
+            assertTrue(dao.loadAll().isEmpty());
+            assertEquals(1, dao.getSegmentCount());
+            try {
+                dao.readPage(cursor, 0, 5);
+                fail("Cursor into a cleared segment must be rejected");
+            } catch (IllegalArgumentException expected) {
+                // Expected
+            }
+            saveRecords(dao, 0, 1);
+            assertEquals(1, dao.count());
+        }
+    }
+}
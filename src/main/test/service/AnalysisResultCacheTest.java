@@ -0,0 +1,164 @@
+package main.test.service;
+
+import AlgorithmModule.KadaneAnalyzer;
+import AlgorithmModule.SubarrayResult;
+import main.java.enums.AnalysisType;
+import main.java.enums.DataMode;
+import main.java.enums.PersistencePolicy;
+import main.java.model.AnalysisRequest;
+import main.java.model.DoubleSeries;
+import main.java.repository.AnalysisDaoImpl;
+import main.java.repository.IAnalysisDao;
+import main.java.service.AnalysisResultCache;
+import main.java.service.AnalysisService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+/**
+ * Unit tests for AnalysisResultCache and its use in AnalysisService.
+ */
+public class AnalysisResultCacheTest {
+
+    private final String testFile = "test_cache_datasource.txt";
+    private IAnalysisDao dao;
+
+    @Before
+    public void setUp() {
+        dao = new AnalysisDaoImpl(testFile);
+        dao.clear();
+    }
+
+    @After
+    public void tearDown() {
+        dao.clear();
+        new File(testFile).delete();
+    }
+
+    private AnalysisRequest buildRequest(AnalysisType type, double... values) {
+        return new AnalysisRequest(UUID.randomUUID().toString(), DoubleSeries.of(values), type, DataMode.DAILY_CHANGES, null);
+    }
+
+    /**
+     * Same series and type hit; a different type or series misses.
+     */
+    @Test
+    public void testHitsAndMisses() {
+        AnalysisResultCache cache = new AnalysisResultCache();
+        SubarrayResult result = new SubarrayResult(0, 1, 3.0);
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 1, 2, -5), result);
+
+        assertSame(result, cache.get(buildRequest(AnalysisType.MAX_PROFIT, 1, 2, -5)));
+        assertNull(cache.get(buildRequest(AnalysisType.MAX_LOSS, 1, 2, -5)));
+        assertNull(cache.get(buildRequest(AnalysisType.MAX_PROFIT, 1, 2, -4)));
+
+        AnalysisResultCache.Stats stats = cache.getStats();
+        assertEquals(1, stats.getHits());
+        assertEquals(2, stats.getMisses());
+    }
+
+    /**
+     * Least recently used entry is evicted when the entry limit is exceeded.
+     */
+    @Test
+    public void testLruEviction() {
+        AnalysisResultCache cache = new AnalysisResultCache(2, 1000, 0);
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 1), new SubarrayResult(0, 0, 1));
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 2), new SubarrayResult(0, 0, 2));
+        cache.get(buildRequest(AnalysisType.MAX_PROFIT, 1)); // 1 is now most recent
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 3), new SubarrayResult(0, 0, 3));
+
+        assertNotNull(cache.get(buildRequest(AnalysisType.MAX_PROFIT, 1)));
+        assertNull(cache.get(buildRequest(AnalysisType.MAX_PROFIT, 2)));
+        assertEquals(1, cache.getStats().getEvictions());
+        assertEquals(2, cache.getStats().getEntries());
+    }
+
+    /**
+     * Expired entries that are never looked up again are dropped by the sweep a later put runs.
+     */
+    @Test
+    public void testExpiredEntriesAreSwept() throws InterruptedException {
+        AnalysisResultCache cache = new AnalysisResultCache(10, 1000, 1);
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 1), new SubarrayResult(0, 0, 1));
+        Thread.sleep(5);
+        cache.put(buildRequest(AnalysisType.MAX_PROFIT, 2), new SubarrayResult(0, 0, 2));
+
+        assertEquals(1, cache.getStats().getEntries());
+        assertEquals(1, cache.getStats().getCachedPoints());
+        assertEquals(1, cache.getStats().getEvictions());
+    }
+
+    /**
+     * Concurrent gets and puts keep the entry and point limits and an exact point count.
+     */
+    @Test
+    public void testConcurrentAccessKeepsLimits() throws Exception {
+        AnalysisResultCache cache = new AnalysisResultCache(16, 40, 0);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int seed = t;
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        int value = (seed * 31 + i) % 50;
+                        double[] series = new double[1 + value % 3];
+                        Arrays.fill(series, value);
+                        AnalysisRequest request = buildRequest(AnalysisType.MAX_PROFIT, series);
+                        if (cache.get(request) == null) {
+                            cache.put(request, new SubarrayResult(0, 0, value));
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        AnalysisResultCache.Stats stats = cache.getStats();
+        assertTrue(stats.getEntries() <= 16);
+        assertTrue(stats.getCachedPoints() <= 40);
+        assertEquals(8 * 2000, stats.getHits() + stats.getMisses());
+        cache.clear();
+        assertEquals("Point count should match the entries removed", 0, cache.getStats().getCachedPoints());
+    }
+
+    /**
+     * ON_MISS saves only computed results; ALWAYS also saves cache hits.
+     */
+    @Test
+    public void testPersistencePolicy() {
+        AnalysisService onMiss = new AnalysisService(new KadaneAnalyzer(), dao, new AnalysisResultCache(), PersistencePolicy.ON_MISS);
+        onMiss.analyzeAndSave(buildRequest(AnalysisType.MAX_PROFIT, 1, -2, 3));
+        SubarrayResult cached = onMiss.analyzeAndSave(buildRequest(AnalysisType.MAX_PROFIT, 1, -2, 3));
+
+        assertEquals(3.0, cached.getTotal(), 0.001);
+        assertEquals(1, onMiss.getCacheStats().getHits());
+        assertEquals(1, countResults());
+
+        AnalysisService always = new AnalysisService(new KadaneAnalyzer(), dao, new AnalysisResultCache(), PersistencePolicy.ALWAYS);
+        always.analyzeAndSave(buildRequest(AnalysisType.MAX_PROFIT, 4, 5));
+        always.analyzeAndSave(buildRequest(AnalysisType.MAX_PROFIT, 4, 5));
+
+        assertEquals(3, countResults());
+    }
+
+    private long countResults() {
+        return dao.loadAll().stream().filter(line -> line.startsWith("Result:")).count();
+    }
+}
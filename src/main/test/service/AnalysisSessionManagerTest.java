@@ -0,0 +1,178 @@
+package main.test.service;
+
+import AlgorithmModule.SubarrayResult;
+import main.java.algorithm.SeriesSummaryAnalyzer;
+import main.java.enums.DataMode;
+import main.java.model.DoubleSeries;
+import main.java.model.SeriesSummary;
+import main.java.model.SessionSummary;
+import main.java.service.AnalysisSessionManager;
+import main.java.utils.CalculateClosingPrices;
+import org.junit.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for live analysis sessions fed tick by tick.
+ */
+public class AnalysisSessionManagerTest {
+
+    /**
+     * Test that results after every tick equal a full analysis of the ticks so far.
+     */
+    @Test
+    public void testTicksMatchFullAnalysis() {
+        AnalysisSessionManager sessions = new AnalysisSessionManager();
+        Random random = new Random(5);
+        for (int round = 0; round < 20; round++) {
+            double target = round % 2 == 0 ? 0 : 2;
+            String id = sessions.open(DataMode.DAILY_CHANGES, target, 0).getSessionId();
+            double[] ticks = new double[1 + random.nextInt(80)];
+            for (int i = 0; i < ticks.length; i++) {
+                ticks[i] = random.nextInt(9) - 4; // Small integers, so equal prefix sums occur
+                SeriesSummary live = sessions.append(id, DoubleSeries.of(ticks[i])).getSummary();
+                SeriesSummary full = new SeriesSummaryAnalyzer(target, 0).analyze(DoubleSeries.of(Arrays.copyOf(ticks, i + 1)));
+                assertSameSummary(full, live);
+            }
+            sessions.close(id);
+        }
+        assertEquals("Closed sessions should be removed", 0, sessions.size());
+    }
+
+    /**
+     * Test that closing prices are converted to changes across appends.
+     */
+    @Test
+    public void testClosingPrices() {
+        AnalysisSessionManager sessions = new AnalysisSessionManager();
+        double[] prices = {100, 103, 101, 99, 104, 104, 102};
+        String id = sessions.open(DataMode.CLOSING_PRICES, 0, 0).getSessionId();
+
+        sessions.append(id, DoubleSeries.of(100));
+        sessions.append(id, DoubleSeries.of(103, 101, 99));
+        SessionSummary live = sessions.append(id, DoubleSeries.of(104, 104, 102));
+
+        SeriesSummary full = new SeriesSummaryAnalyzer().analyze(CalculateClosingPrices.computeDeltas(DoubleSeries.of(prices)));
+        assertEquals(DataMode.CLOSING_PRICES, live.getDataMode());
+        assertEquals(6, live.getSummary().getCount());
+        assertSameSummary(full, sessions.query(id).getSummary());
+    }
+
+    /**
+     * Test unknown sessions and the open session cap.
+     */
+    @Test
+    public void testLimits() {
+        AnalysisSessionManager sessions = new AnalysisSessionManager(1, 60000);
+        String id = sessions.open(null, 0, 0).getSessionId();
+        try {
+            sessions.open(null, 0, 0);
+            fail("Second session should exceed the cap");
+        } catch (IllegalStateException expected) {
+            // Cap reached
+        }
+        sessions.close(id);
+        try {
+            sessions.query(id);
+            fail("Closed session should be unknown");
+        } catch (IllegalArgumentException expected) {
+            assertTrue(expected.getMessage().startsWith("Unknown session"));
+        }
+    }
+
+    /**
+     * Test that the point budget refuses ticks past it and is given back when a session closes.
+     */
+    @Test
+    public void testPointBudget() {
+        AnalysisSessionManager sessions = new AnalysisSessionManager(10, 60000, 5);
+        String first = sessions.open(null, 0, 0).getSessionId();
+        String second = sessions.open(null, 0, 0).getSessionId();
+        sessions.append(first, DoubleSeries.of(1.0, 2.0, 3.0));
+        try {
+            sessions.append(second, DoubleSeries.of(1.0, 2.0, 3.0));
+            fail("Ticks past the budget should be refused");
+        } catch (IllegalStateException expected) {
+            // Budget used up
+        }
+        assertEquals(0, sessions.query(second).getSummary().getCount());
+        assertEquals(3, sessions.points());
+
+        sessions.close(first);
+        assertEquals(0, sessions.points());
+        assertEquals(3, sessions.append(second, DoubleSeries.of(1.0, 2.0, 3.0)).getSummary().getCount());
+    }
+
+    /**
+     * Test that idle sessions are dropped by the background sweep, without any new open.
+     */
+    @Test
+    public void testPeriodicIdleSweep() throws InterruptedException {
+        AnalysisSessionManager sessions = new AnalysisSessionManager(10, 50);
+        String id = sessions.open(null, 0, 0).getSessionId();
+        sessions.append(id, DoubleSeries.of(1.0, -1.0));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (sessions.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, sessions.size());
+        assertEquals(0, sessions.points());
+    }
+
+    /**
+     * Test that concurrent opens never overshoot the session cap.
+     */
+    @Test
+    public void testConcurrentOpensKeepCap() throws Exception {
+        AnalysisSessionManager sessions = new AnalysisSessionManager(5, AnalysisSessionManager.DEFAULT_IDLE_TIMEOUT_MS);
+        AtomicInteger opened = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                workers.add(pool.submit(() -> {
+                    for (int i = 0; i < 50; i++) {
+                        try {
+                            sessions.open(null, 0, 0);
+                            opened.incrementAndGet();
+                        } catch (IllegalStateException expected) {
+                            // Cap reached
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+        assertEquals(5, opened.get());
+        assertEquals(5, sessions.size());
+    }
+
+    private static void assertSameSummary(SeriesSummary expected, SeriesSummary actual) {
+        assertSameResult(expected.getMaxProfit(), actual.getMaxProfit());
+        assertSameResult(expected.getMaxLoss(), actual.getMaxLoss());
+        assertSameResult(expected.getZeroReturn(), actual.getZeroReturn());
+        assertEquals(expected.getCount(), actual.getCount());
+        assertEquals(expected.getTotal(), actual.getTotal(), 1e-9);
+        assertEquals(expected.getMin(), actual.getMin(), 0.0);
+        assertEquals(expected.getMax(), actual.getMax(), 0.0);
+        assertEquals(expected.getMaxDrawdown(), actual.getMaxDrawdown(), 1e-9);
+    }
+
+    private static void assertSameResult(SubarrayResult expected, SubarrayResult actual) {
+        assertEquals(expected.getStartIndex(), actual.getStartIndex());
+        assertEquals(expected.getEndIndex(), actual.getEndIndex());
+        assertEquals(expected.getTotal(), actual.getTotal(), 1e-9);
+    }
+}
@@ -0,0 +1,61 @@
+package main.test.service;
+
+import main.java.model.DoubleSeries;
+import main.java.model.IndexSummary;
+import main.java.service.SeriesIndexManager;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Tests for indexed series held for range queries.
+ */
+public class SeriesIndexManagerTest {
+
+    /**
+     * Test that a dropped index is gone and the cap on held indexes is enforced.
+     */
+    @Test
+    public void testDropAndCap() {
+        SeriesIndexManager indexes = new SeriesIndexManager(1, SeriesIndexManager.DEFAULT_IDLE_TIMEOUT_MS);
+        IndexSummary created = indexes.create(DoubleSeries.of(1.0, -2.0, 3.0));
+        assertEquals(3, created.getSize());
+        assertEquals(3.0, indexes.query(created.getIndexId(), 0, 2, false).getTotal(), 1e-9);
+
+        assertThrows(IllegalStateException.class, () -> indexes.create(DoubleSeries.of(1.0)));
+
+        indexes.drop(created.getIndexId());
+        assertEquals(0, indexes.size());
+        assertThrows(IllegalArgumentException.class, () -> indexes.query(created.getIndexId(), 0, 0, false));
+    }
+
+    /**
+     * Test that the point budget refuses a series past it and is given back on drop.
+     */
+    @Test
+    public void testPointBudget() {
+        SeriesIndexManager indexes = new SeriesIndexManager(10, SeriesIndexManager.DEFAULT_IDLE_TIMEOUT_MS, 5);
+        IndexSummary first = indexes.create(DoubleSeries.of(1.0, -2.0, 3.0));
+        assertThrows(IllegalStateException.class, () -> indexes.create(DoubleSeries.of(1.0, 2.0, 3.0)));
+        assertEquals(3, indexes.points());
+
+        indexes.drop(first.getIndexId());
+        assertEquals(0, indexes.points());
+        assertEquals(3, indexes.create(DoubleSeries.of(1.0, 2.0, 3.0)).getSize());
+    }
+
+    /**
+     * Test that idle indexes are dropped by the background sweep, without any new create.
+     */
+    @Test
+    public void testPeriodicIdleSweep() throws InterruptedException {
+        SeriesIndexManager indexes = new SeriesIndexManager(10, 50);
+        indexes.create(DoubleSeries.of(1.0, -2.0, 3.0));
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (indexes.size() > 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(0, indexes.size());
+        assertEquals(0, indexes.points());
+    }
+}
@@ -0,0 +1,84 @@
+package main.test.utils;
+
+import main.java.utils.DoubleIntHashMap;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * Tests for the primitive double -> int map.
+ */
+public class DoubleIntHashMapTest {
+
+    /**
+     * Exact mode behaves like HashMap<Double, Integer> across resizes.
+     */
+    @Test
+    public void testMatchesHashMap() {
+        DoubleIntHashMap map = new DoubleIntHashMap(2);
+        Map<Double, Integer> expected = new HashMap<>();
+        Random random = new Random(3);
+
+        for (int i = 0; i < 5000; i++) {
+            double key = random.nextInt(2000) / 4.0;
+            assertEquals(expected.putIfAbsent(key, i) == null, map.putIfAbsent(key, i));
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals((int) value, map.get(key, -1)));
+        assertEquals(-1, map.get(12345.5, -1));
+    }
+
+    /**
+     * Exact mode uses Double.equals semantics for signed zero and NaN.
+     */
+    @Test
+    public void testSpecialValues() {
+        DoubleIntHashMap map = new DoubleIntHashMap();
+        map.put(0.0, 1);
+        map.put(Double.NaN, 2);
+
+        assertFalse(map.containsKey(-0.0));
+        assertEquals(2, map.get(0.0 / 0.0, -1));
+
+        map.put(0.0, 3);
+        assertEquals(3, map.get(0.0, -1));
+        assertEquals(2, map.size());
+    }
+
+    /**
+     * Tolerant mode matches keys within epsilon, including across bucket boundaries.
+     */
+    @Test
+    public void testEpsilonMatching() {
+        DoubleIntHashMap map = new DoubleIntHashMap(4, 1e-9);
+        map.put(0.3, 7);
+
+        assertEquals(7, map.get(0.1 + 0.2, -1));
+        assertEquals(-1, map.get(0.3 + 1e-6, -1));
+        assertFalse(map.putIfAbsent(0.30000000000000004, 8));
+
+        map.put(1e-9 * 5, 1);
+        assertEquals(1, map.get(1e-9 * 5 - 5e-10, -1));
+        assertEquals(1, map.get(1e-9 * 5 + 5e-10, -1));
+    }
+
+    /**
+     * getMin picks the smallest value among the keys within epsilon; get picks the closest key.
+     */
+    @Test
+    public void testGetMinPrefersSmallestValue() {
+        DoubleIntHashMap map = new DoubleIntHashMap(4, 0.1);
+        map.put(0.0, -1);
+        map.put(0.15, 0);
+
+        assertEquals(0, map.get(0.08, Integer.MIN_VALUE));
+        assertEquals(-1, map.getMin(0.08, Integer.MIN_VALUE));
+        assertEquals(0, map.getMin(0.2, Integer.MIN_VALUE));
+        assertEquals(Integer.MIN_VALUE, map.getMin(0.5, Integer.MIN_VALUE));
+    }
+}